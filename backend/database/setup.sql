@@ -75,6 +75,17 @@ CREATE TABLE books (
     category_id BIGINT NOT NULL,
     s3_uri VARCHAR(500),
     cover_image_uri VARCHAR(500),
+    cover_thumbnail_uri VARCHAR(500),
+    cover_card_uri VARCHAR(500),
+    cover_detail_uri VARCHAR(500),
+    preview_uri VARCHAR(500),
+    preview_page_count INT,
+    file_size BIGINT,
+    file_content_type VARCHAR(100),
+    file_sha256 VARCHAR(64),
+    page_count INT,
+    file_available BOOLEAN,
+    file_verified_at TIMESTAMP NULL,
     total_copies INT NOT NULL DEFAULT 1,
     available_copies INT NOT NULL DEFAULT 1,
     published_date DATE,
@@ -87,7 +98,8 @@ CREATE TABLE books (
     INDEX idx_isbn (isbn),
     INDEX idx_category (category_id),
     INDEX idx_active (active),
-    INDEX idx_available (available_copies)
+    INDEX idx_available (available_copies),
+    INDEX idx_file_verified_at (file_verified_at)
 );
 
 -- Subscriptions table
@@ -216,8 +228,108 @@ CREATE TABLE notifications (
     INDEX idx_created_at (created_at)
 );
 
+-- Analytics snapshots table (versioned, gzip-compressed JSON reports)
+CREATE TABLE analytics_snapshots (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    report_key VARCHAR(50) NOT NULL,
+    version BIGINT NOT NULL,
+    payload LONGBLOB NOT NULL,
+    uncompressed_size INT NOT NULL,
+    generated_at TIMESTAMP NOT NULL,
+    generation_millis BIGINT NOT NULL,
+    UNIQUE KEY uk_snapshot_report_version (report_key, version),
+    INDEX idx_snapshot_report_key (report_key)
+);
+
+-- Multipart upload sessions (in-progress S3 multipart uploads that can be resumed)
+CREATE TABLE multipart_upload_sessions (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    fingerprint VARCHAR(64) NOT NULL,
+    object_key VARCHAR(512) NOT NULL,
+    upload_id VARCHAR(1024) NOT NULL,
+    part_size BIGINT NOT NULL,
+    content_length BIGINT NOT NULL,
+    leased_until TIMESTAMP NULL,
+    created_at TIMESTAMP NOT NULL,
+    UNIQUE KEY uk_multipart_fingerprint (fingerprint),
+    INDEX idx_multipart_created_at (created_at)
+);
+
+CREATE TABLE book_ingest_jobs (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    book_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'QUEUED',
+    activate_on_complete BOOLEAN NOT NULL DEFAULT FALSE,
+    staged_book_file VARCHAR(1024),
+    book_file_name VARCHAR(255),
+    book_file_content_type VARCHAR(255),
+    book_file_size BIGINT,
+    staged_cover_image VARCHAR(1024),
+    cover_image_name VARCHAR(255),
+    cover_image_content_type VARCHAR(255),
+    cover_image_size BIGINT,
+    progress_percent INT NOT NULL DEFAULT 0,
+    book_file_uri VARCHAR(255),
+    cover_image_uri VARCHAR(255),
+    file_sha256 VARCHAR(64),
+    detected_format VARCHAR(20),
+    error_message TEXT,
+    requested_by BIGINT,
+    attempts INT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    completed_at TIMESTAMP NULL,
+    INDEX idx_ingest_book (book_id),
+    INDEX idx_ingest_status (status)
+);
+
+-- Content-addressed stored objects shared by books with identical files
+CREATE TABLE stored_objects (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    sha256 VARCHAR(64) NOT NULL UNIQUE,
+    uri VARCHAR(500) NOT NULL UNIQUE,
+    size BIGINT NOT NULL,
+    content_type VARCHAR(100),
+    ref_count INT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
+
+-- Stored objects waiting to be deleted by the background storage garbage collector
+CREATE TABLE storage_deletion_queue (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    uri VARCHAR(500) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_error VARCHAR(1000),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_deletion_uri (uri),
+    INDEX idx_deletion_next_attempt (next_attempt_at)
+);
+
+-- Catalog change log behind GET /books/changes, one entry per changed book or category
+CREATE TABLE catalog_changes (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    version BIGINT NOT NULL,
+    entity_type VARCHAR(20) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    removed BOOLEAN NOT NULL DEFAULT FALSE,
+    changed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_catalog_change_version (version),
+    INDEX idx_catalog_change_entity (entity_type, entity_id)
+);
+
+-- Current catalog version (single row, locked by writers until they commit)
+CREATE TABLE catalog_sequence (
+    id INT PRIMARY KEY,
+    version BIGINT NOT NULL DEFAULT 0,
+    compacted_through BIGINT NOT NULL DEFAULT 0
+);
+
 -- Insert initial data
 
+INSERT INTO catalog_sequence (id, version, compacted_through) VALUES (1, 0, 0);
+
 -- Default users (passwords are bcrypt hashed)
 -- admin@librivault.com / admin123
 -- librarian1@librivault.com / librarian123
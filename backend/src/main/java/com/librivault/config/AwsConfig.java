@@ -8,9 +8,12 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 
 @Configuration
 public class AwsConfig {
@@ -42,4 +45,25 @@ public class AwsConfig {
                 .credentialsProvider(StaticCredentialsProvider.create(awsCredentials))
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * One presigner for the whole application. Presigning is a local signing operation,
+     * so the presigner is thread-safe and far cheaper to reuse than to rebuild per URL.
+     */
+    @Bean
+    public S3Presigner s3Presigner() {
+        // Fall back to the default provider chain, as S3Presigner.create() did, when no keys are configured
+        AwsCredentialsProvider credentialsProvider = hasText(accessKey) && hasText(secretKey)
+                ? StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey))
+                : DefaultCredentialsProvider.create();
+
+        return S3Presigner.builder()
+                .region(Region.of(region))
+                .credentialsProvider(credentialsProvider)
+                .build();
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+}
@@ -0,0 +1,77 @@
+package com.librivault.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import com.librivault.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Replaces the auto-configured pool with the primary pool plus one pool per read
+ * replica, behind a {@link ReplicaRoutingDataSource}. Only active with
+ * {@code app.datasource.routing.enabled=true}; otherwise everything uses the single
+ * primary pool as before.
+ *
+ * The lazy proxy in front defers taking a connection until the first statement, by
+ * which time the transaction's read-only flag is known and can pick the target.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.routing.enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource(HikariDataSource primaryDataSource,
+                                                      DataSourceProperties dataSourceProperties,
+                                                      DataSourceRoutingProperties routingProperties) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (DataSourceRoutingProperties.Replica replica : routingProperties.getReplicas()) {
+            String name = "replica-" + (replicas.size() + 1);
+            replicas.put(name, replicaDataSource(primaryDataSource.getPoolName() + "-" + name, replica, dataSourceProperties));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas,
+                routingProperties.getMaxLagSeconds(), routingProperties.getReadYourWritesSeconds());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    private static HikariDataSource replicaDataSource(String poolName, DataSourceRoutingProperties.Replica replica,
+                                                      DataSourceProperties dataSourceProperties) {
+        if (!StringUtils.hasText(replica.getUrl())) {
+            throw new IllegalStateException("Read replica " + poolName + " has no url");
+        }
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(poolName);
+        dataSource.setJdbcUrl(replica.getUrl());
+        dataSource.setUsername(replica.getUsername() != null ? replica.getUsername() : dataSourceProperties.determineUsername());
+        dataSource.setPassword(replica.getPassword() != null ? replica.getPassword() : dataSourceProperties.determinePassword());
+        dataSource.setDriverClassName(dataSourceProperties.determineDriverClassName());
+        dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+        dataSource.setMinimumIdle(Math.min(2, replica.getMaximumPoolSize()));
+        dataSource.setConnectionTimeout(replica.getConnectionTimeoutMs());
+        dataSource.setReadOnly(true);
+        // Start even if the replica is down; reads use the primary until it is reachable
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+}
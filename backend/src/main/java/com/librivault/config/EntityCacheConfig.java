@@ -0,0 +1,61 @@
+package com.librivault.config;
+
+import java.time.Duration;
+import java.util.Map;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Builds the in-process JCache (Ehcache) cache manager behind Hibernate's second-level
+ * and query caches, with one heap cache per region sized and expired as configured in
+ * {@link EntityCacheProperties}. The cache is per instance; expiry bounds how long
+ * changes made on other instances stay invisible here.
+ */
+@Configuration
+public class EntityCacheConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(EntityCacheConfig.class);
+
+    // Last update time per table, which query cache entries are checked against; must not expire before them
+    private static final long TIMESTAMPS_MAX_ENTRIES = 10000;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(EntityCacheProperties properties) {
+        CacheManager cacheManager = Caching.getCachingProvider(EhcacheCachingProvider.class.getName()).getCacheManager();
+
+        for (Map.Entry<String, EntityCacheProperties.Region> entry : properties.getRegions().entrySet()) {
+            EntityCacheProperties.Region region = entry.getValue();
+            cacheManager.createCache(entry.getKey(), Eh107Configuration.fromEhcacheCacheConfiguration(
+                    CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
+                                    ResourcePoolsBuilder.heap(region.getMaxEntries()))
+                            .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(region.getTtlSeconds())))));
+            logger.info("Entity cache region {}: up to {} entries for {}s", entry.getKey(),
+                    region.getMaxEntries(), region.getTtlSeconds());
+        }
+
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                Eh107Configuration.fromEhcacheCacheConfiguration(
+                        CacheConfigurationBuilder.newCacheConfigurationBuilder(Object.class, Object.class,
+                                ResourcePoolsBuilder.heap(TIMESTAMPS_MAX_ENTRIES))));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheHibernateProperties(CacheManager entityCacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+    }
+}
@@ -0,0 +1,93 @@
+package com.librivault.config;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rate limits per endpoint class. Classes are matched in declaration order and
+ * the first one whose pattern matches the request path (below the context path) applies.
+ */
+@Component
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Buckets untouched for this long after refilling completely are dropped
+    private long idleEvictionSeconds = 600;
+
+    private int stripes = 64;
+
+    private Map<String, EndpointLimit> endpoints = new LinkedHashMap<>();
+
+    public static class EndpointLimit {
+
+        private List<String> patterns = new ArrayList<>();
+
+        // Burst size: requests allowed back to back from a full bucket
+        private long capacity = 60;
+
+        private long refillPerMinute = 60;
+
+        public List<String> getPatterns() {
+            return patterns;
+        }
+
+        public void setPatterns(List<String> patterns) {
+            this.patterns = patterns;
+        }
+
+        public long getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(long capacity) {
+            this.capacity = capacity;
+        }
+
+        public long getRefillPerMinute() {
+            return refillPerMinute;
+        }
+
+        public void setRefillPerMinute(long refillPerMinute) {
+            this.refillPerMinute = refillPerMinute;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getIdleEvictionSeconds() {
+        return idleEvictionSeconds;
+    }
+
+    public void setIdleEvictionSeconds(long idleEvictionSeconds) {
+        this.idleEvictionSeconds = idleEvictionSeconds;
+    }
+
+    public int getStripes() {
+        return stripes;
+    }
+
+    public void setStripes(int stripes) {
+        this.stripes = stripes;
+    }
+
+    public Map<String, EndpointLimit> getEndpoints() {
+        return endpoints;
+    }
+
+    public void setEndpoints(Map<String, EndpointLimit> endpoints) {
+        this.endpoints = endpoints;
+    }
+}
@@ -1,6 +1,10 @@
 package com.librivault.config;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -10,14 +14,15 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfigurationSource;
 
+import com.librivault.security.BoundedPasswordEncoder;
 import com.librivault.security.CustomUserDetailsService;
 import com.librivault.security.JwtAuthenticationFilter;
+import com.librivault.security.RateLimitFilter;
+import com.librivault.security.RequestConcurrencyFilter;
 
 @Configuration
 @EnableWebSecurity
@@ -36,8 +41,50 @@ public class SecurityConfig {
     }
     
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(12); // Specify strength explicitly
+    public RateLimitFilter rateLimitFilter() {
+        return new RateLimitFilter();
+    }
+    
+    // Virtual threads no longer bound requests by a worker pool, so bound them by database connections
+    @Bean
+    @ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+    public RequestConcurrencyFilter requestConcurrencyFilter(
+            @Value("${app.request-concurrency.max-concurrent:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrent,
+            @Value("${app.request-concurrency.max-wait-ms:200}") long maxWaitMs,
+            @Value("${app.request-concurrency.retry-after-seconds:1}") long retryAfterSeconds) {
+        return new RequestConcurrencyFilter(maxConcurrent, maxWaitMs, retryAfterSeconds);
+    }
+    
+    // Runs ahead of the security chain so excess requests are refused before any token work
+    @Bean
+    @ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+    public FilterRegistrationBean<RequestConcurrencyFilter> requestConcurrencyFilterRegistration(
+            RequestConcurrencyFilter requestConcurrencyFilter) {
+        FilterRegistrationBean<RequestConcurrencyFilter> registration = new FilterRegistrationBean<>(requestConcurrencyFilter);
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+    
+    @Value("${app.security.password-hashing.strength:12}")
+    private int passwordHashStrength;
+    
+    @Value("${app.security.password-hashing.threads:0}")
+    private int passwordHashThreads;
+    
+    @Value("${app.security.password-hashing.queue-capacity:100}")
+    private int passwordHashQueueCapacity;
+    
+    @Value("${app.security.password-hashing.max-wait-ms:10000}")
+    private long passwordHashMaxWaitMs;
+    
+    @Value("${app.security.password-hashing.retry-after-seconds:2}")
+    private long passwordHashRetryAfterSeconds;
+    
+    @Bean(destroyMethod = "shutdown")
+    public BoundedPasswordEncoder passwordEncoder() {
+        // BCrypt with explicit strength, run on a bounded pool instead of request threads
+        return new BoundedPasswordEncoder(passwordHashStrength, passwordHashThreads,
+                passwordHashQueueCapacity, passwordHashMaxWaitMs, passwordHashRetryAfterSeconds);
     }
     
     @Bean
@@ -45,6 +92,8 @@ public class SecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(customUserDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        // Rehash stored passwords on login when the configured strength changes
+        authProvider.setUserDetailsPasswordService(customUserDetailsService);
         return authProvider;
     }
     
@@ -61,11 +110,17 @@ public class SecurityConfig {
             .authorizeHttpRequests(authz -> authz
                 // Public endpoints - allow registration and login
                 .requestMatchers("/auth/**", "/health/**", "/status", "/test", "/", "/api/auth/**", "/api/health/**", "/api/status", "/api/test", "/api/", "/api/books/**", "/api/categories/**").permitAll()
+                // Local storage downloads are authorized by the signature in the URL
+                .requestMatchers("/storage/files/**", "/api/storage/files/**").permitAll()
+                // Cover renditions are public, content-addressed images
+                .requestMatchers("/covers/**", "/api/covers/**").permitAll()
                 // All other requests require authentication
                 .anyRequest().authenticated()
             )
             .authenticationProvider(authenticationProvider())
-            .addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class)
+            // Throttle floods before any token or user lookup work is done
+            .addFilterBefore(rateLimitFilter(), JwtAuthenticationFilter.class);
         
         return http.build();
     }
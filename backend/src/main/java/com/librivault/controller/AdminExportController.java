@@ -0,0 +1,148 @@
+package com.librivault.controller;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.librivault.entity.enums.BorrowStatus;
+import com.librivault.entity.enums.FineStatus;
+import com.librivault.entity.enums.PaymentStatus;
+import com.librivault.entity.enums.PaymentType;
+import com.librivault.entity.enums.Role;
+import com.librivault.service.DataExportService;
+import com.librivault.service.DataExportService.ExportFormat;
+
+@RestController
+@RequestMapping("/admin/export")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class AdminExportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdminExportController.class);
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private DataExportService dataExportService;
+
+    @GetMapping("/payments")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> exportPayments(@RequestParam(defaultValue = "csv") String format,
+                                           @RequestParam(defaultValue = "false") boolean gzip,
+                                           @RequestParam(required = false) PaymentStatus status,
+                                           @RequestParam(required = false) PaymentType type,
+                                           @RequestParam(required = false) String search,
+                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime until) {
+        return streamExport("payments", format, gzip, (exportFormat, out) ->
+                dataExportService.exportPayments(status, type, search, since, until, exportFormat, out));
+    }
+
+    @GetMapping("/fines")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> exportFines(@RequestParam(defaultValue = "csv") String format,
+                                        @RequestParam(defaultValue = "false") boolean gzip,
+                                        @RequestParam(required = false) FineStatus status,
+                                        @RequestParam(required = false) String search,
+                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime until) {
+        return streamExport("fines", format, gzip, (exportFormat, out) ->
+                dataExportService.exportFines(status, search, since, until, exportFormat, out));
+    }
+
+    @GetMapping("/borrow-records")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> exportBorrowRecords(@RequestParam(defaultValue = "csv") String format,
+                                                @RequestParam(defaultValue = "false") boolean gzip,
+                                                @RequestParam(required = false) BorrowStatus status,
+                                                @RequestParam(required = false) String search,
+                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime until) {
+        return streamExport("borrow-records", format, gzip, (exportFormat, out) ->
+                dataExportService.exportBorrowRecords(status, search, since, until, exportFormat, out));
+    }
+
+    @GetMapping("/users")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> exportUsers(@RequestParam(defaultValue = "csv") String format,
+                                        @RequestParam(defaultValue = "false") boolean gzip,
+                                        @RequestParam(required = false) Role role,
+                                        @RequestParam(required = false) Boolean active,
+                                        @RequestParam(required = false) String search) {
+        return streamExport("users", format, gzip, (exportFormat, out) ->
+                dataExportService.exportUsers(role, active, search, exportFormat, out));
+    }
+
+    // Helper methods
+
+    private ResponseEntity<?> streamExport(String dataset, String format, boolean gzip, ExportWriter exportWriter) {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.fromString(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(createErrorResponse("Export failed", e.getMessage()));
+        }
+
+        String fileName = dataset + "-" + LocalDate.now() + "." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+        logger.info("Streaming {} export to {}", dataset, fileName);
+
+        StreamingResponseBody body = out -> {
+            long startTime = System.currentTimeMillis();
+            if (gzip) {
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+                long rows = exportWriter.write(exportFormat, gzipOut);
+                gzipOut.finish();
+                logExportCompleted(dataset, rows, startTime);
+            } else {
+                long rows = exportWriter.write(exportFormat, out);
+                logExportCompleted(dataset, rows, startTime);
+            }
+        };
+
+        MediaType contentType = gzip
+                ? MediaType.parseMediaType("application/gzip")
+                : MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8");
+
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                .body(body);
+    }
+
+    private void logExportCompleted(String dataset, long rows, long startTime) {
+        logger.info("Export of {} finished: {} rows in {} ms", dataset, rows, System.currentTimeMillis() - startTime);
+    }
+
+    // Helper method to create error response
+    private Map<String, String> createErrorResponse(String error, String message) {
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put("error", error);
+        errorResponse.put("message", message);
+        return errorResponse;
+    }
+
+    @FunctionalInterface
+    private interface ExportWriter {
+        long write(ExportFormat format, OutputStream out) throws IOException;
+    }
+}
@@ -6,14 +6,22 @@ import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.librivault.service.AnalyticsService;
+import com.librivault.service.AnalyticsSnapshotService;
+import com.librivault.service.AnalyticsSnapshotService.ReportType;
+import com.librivault.service.AnalyticsSnapshotService.SnapshotView;
 
 @RestController
 @RequestMapping("/analytics")
@@ -25,6 +33,9 @@ public class AnalyticsController {
     @Autowired
     private AnalyticsService analyticsService;
     
+    @Autowired
+    private AnalyticsSnapshotService analyticsSnapshotService;
+    
     // Dashboard Overview
     @GetMapping("/dashboard")
     public ResponseEntity<?> getDashboardOverview() {
@@ -151,6 +162,51 @@ public class AnalyticsController {
         }
     }
     
+    // Precomputed report snapshots
+    @GetMapping("/snapshots/{report}")
+    public ResponseEntity<?> getAnalyticsSnapshot(@PathVariable String report,
+                                                  @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        try {
+            logger.info("Fetching analytics snapshot: {}", report);
+            SnapshotView snapshot = analyticsSnapshotService.getSnapshot(ReportType.fromKey(report));
+            
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header("X-Snapshot-Version", String.valueOf(snapshot.getVersion()))
+                    .header("X-Snapshot-Generated-At", snapshot.getGeneratedAt().toString())
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            
+            // Snapshots are stored gzip-compressed; hand them out as-is when the client accepts it
+            if (acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip")) {
+                return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.getCompressedJson());
+            }
+            return response.body(snapshot.getJson());
+            
+        } catch (Exception e) {
+            logger.error("Failed to fetch analytics snapshot: {}", report, e);
+            return ResponseEntity.badRequest().body(createErrorResponse("Failed to fetch analytics snapshot", e.getMessage()));
+        }
+    }
+    
+    @PostMapping("/snapshots/{report}/refresh")
+    public ResponseEntity<?> refreshAnalyticsSnapshot(@PathVariable String report) {
+        try {
+            logger.info("Refreshing analytics snapshot: {}", report);
+            SnapshotView snapshot = analyticsSnapshotService.refreshSnapshot(ReportType.fromKey(report));
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("reportKey", snapshot.getReportKey());
+            response.put("version", snapshot.getVersion());
+            response.put("generatedAt", snapshot.getGeneratedAt());
+            response.put("message", "Analytics snapshot is up to date");
+            return ResponseEntity.ok(response);
+            
+        } catch (Exception e) {
+            logger.error("Failed to refresh analytics snapshot: {}", report, e);
+            return ResponseEntity.badRequest().body(createErrorResponse("Failed to refresh analytics snapshot", e.getMessage()));
+        }
+    }
+    
     // Helper method to create error response
     private Map<String, String> createErrorResponse(String error, String message) {
         Map<String, String> errorResponse = new HashMap<>();
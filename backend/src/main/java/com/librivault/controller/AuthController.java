@@ -6,6 +6,8 @@ import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -18,6 +20,7 @@ import org.springframework.web.bind.annotation.RestController;
 import com.librivault.dto.auth.JwtAuthenticationResponse;
 import com.librivault.dto.auth.LoginRequest;
 import com.librivault.dto.auth.RegisterRequest;
+import com.librivault.exception.PasswordHashingBusyException;
 import com.librivault.service.AuthenticationService;
 
 import jakarta.validation.Valid;
@@ -42,6 +45,9 @@ public class AuthController {
             logger.info("User registered successfully: {}", registerRequest.getEmail());
             return ResponseEntity.ok(response);
             
+        } catch (PasswordHashingBusyException e) {
+            logger.warn("Registration failed for email: {} - password hashing is saturated", registerRequest.getEmail());
+            return serviceBusy(e);
         } catch (Exception e) {
             logger.error("Registration failed for email: {}", registerRequest.getEmail(), e);
             
@@ -63,6 +69,9 @@ public class AuthController {
             logger.info("User authenticated successfully: {}", loginRequest.getEmail());
             return ResponseEntity.ok(response);
             
+        } catch (PasswordHashingBusyException e) {
+            logger.warn("Authentication failed for email: {} - password hashing is saturated", loginRequest.getEmail());
+            return serviceBusy(e);
         } catch (Exception e) {
             logger.error("Authentication failed for email: {}", loginRequest.getEmail(), e);
             
@@ -202,4 +211,15 @@ public class AuthController {
         
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+    
+    // Fast rejection while the password hashing pool is saturated
+    private ResponseEntity<?> serviceBusy(PasswordHashingBusyException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Service busy");
+        error.put("message", e.getMessage());
+        
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(error);
+    }
+}
@@ -1,15 +1,23 @@
 package com.librivault.controller;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -18,18 +26,28 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.librivault.dto.book.BookBatchRequest;
+import com.librivault.dto.book.BookIngestJobResponse;
 import com.librivault.dto.book.BookRequest;
 import com.librivault.dto.book.BookResponse;
+import com.librivault.dto.book.CatalogChangesResponse;
 import com.librivault.security.CurrentUser;
 import com.librivault.security.UserPrincipal;
+import com.librivault.service.BookIngestService;
 import com.librivault.service.BookService;
+import com.librivault.service.CatalogChangeService;
+import com.librivault.service.CatalogVersionService;
+import com.librivault.service.S3Service;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 @RestController
@@ -39,17 +57,41 @@ public class BookController {
     
     private static final Logger logger = LoggerFactory.getLogger(BookController.class);
     
+    // Catalog data is the same for every caller: caches may keep it but must revalidate
+    private static final CacheControl CATALOG_CACHE = CacheControl.noCache().cachePublic();
+    
+    // Signed URLs and access state for the current user
+    private static final CacheControl PER_USER = CacheControl.noStore();
+    
+    // Staff-only catalog statistics: only the caller's own cache may keep them
+    private static final CacheControl STAFF_CACHE = CacheControl.noCache().cachePrivate();
+    
     @Autowired
     private BookService bookService;
     
+    @Autowired
+    private BookIngestService bookIngestService;
+    
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+    
+    @Autowired
+    private CatalogChangeService catalogChangeService;
+    
     // Public endpoints (no authentication required)
     
     @GetMapping
-    public ResponseEntity<?> getAllBooks(Pageable pageable) {
+    public ResponseEntity<?> getAllBooks(Pageable pageable, HttpServletRequest request) {
+        String etag = catalogVersionService.getCatalogEtag();
+        if (ConditionalRequests.isNotModified(request, etag)) {
+            return ConditionalRequests.notModified(etag, CATALOG_CACHE);
+        }
+        
         try {
             logger.info("Fetching all books with pagination");
-            Page<BookResponse> books = bookService.getAllBooks(pageable);
-            return ResponseEntity.ok(books);
+            CatalogVersionService.Versioned<Page<BookResponse>> books =
+                    catalogVersionService.readCatalog(() -> bookService.getAllBooks(pageable));
+            return ConditionalRequests.ok(books.getEtag(), CATALOG_CACHE).body(books.getBody());
             
         } catch (Exception e) {
             logger.error("Failed to fetch books", e);
@@ -58,11 +100,17 @@ public class BookController {
     }
     
     @GetMapping("/available")
-    public ResponseEntity<?> getAvailableBooks(Pageable pageable) {
+    public ResponseEntity<?> getAvailableBooks(Pageable pageable, HttpServletRequest request) {
+        String etag = catalogVersionService.getCatalogEtag();
+        if (ConditionalRequests.isNotModified(request, etag)) {
+            return ConditionalRequests.notModified(etag, CATALOG_CACHE);
+        }
+        
         try {
             logger.info("Fetching available books with pagination");
-            Page<BookResponse> books = bookService.getAvailableBooks(pageable);
-            return ResponseEntity.ok(books);
+            CatalogVersionService.Versioned<Page<BookResponse>> books =
+                    catalogVersionService.readCatalog(() -> bookService.getAvailableBooks(pageable));
+            return ConditionalRequests.ok(books.getEtag(), CATALOG_CACHE).body(books.getBody());
             
         } catch (Exception e) {
             logger.error("Failed to fetch available books", e);
@@ -70,12 +118,42 @@ public class BookController {
         }
     }
     
+    // Incremental catalog sync: what changed after the client's catalog version
+    @GetMapping("/changes")
+    public ResponseEntity<?> getCatalogChanges(@RequestParam long since,
+                                               @RequestParam(defaultValue = "200") int limit,
+                                               HttpServletRequest request) {
+        String etag = catalogVersionService.getCatalogEtag();
+        if (ConditionalRequests.isNotModified(request, etag)) {
+            return ConditionalRequests.notModified(etag, CATALOG_CACHE);
+        }
+        
+        try {
+            logger.info("Fetching catalog changes since version: {}", since);
+            // Read from the primary, which is never behind the tag
+            CatalogChangesResponse changes = catalogChangeService.getChanges(since, limit);
+            return ConditionalRequests.ok(etag, CATALOG_CACHE).body(changes);
+            
+        } catch (Exception e) {
+            logger.error("Failed to fetch catalog changes since version: {}", since, e);
+            return ResponseEntity.badRequest().body(createErrorResponse("Failed to fetch catalog changes", e.getMessage()));
+        }
+    }
+    
     @GetMapping("/{id}")
-    public ResponseEntity<?> getBookById(@PathVariable Long id) {
+    public ResponseEntity<?> getBookById(@PathVariable Long id, HttpServletRequest request) {
+        CatalogVersionService.ResourceVersion version = catalogVersionService.getBookVersion(id);
+        String etag = version != null ? version.getEtag() : null;
+        long lastModified = version != null ? version.getLastModified() : -1;
+        if (ConditionalRequests.isNotModified(request, etag, lastModified)) {
+            return ConditionalRequests.notModified(etag, lastModified, CATALOG_CACHE);
+        }
+        
         try {
             logger.info("Fetching book by ID: {}", id);
-            BookResponse book = bookService.getBookById(id);
-            return ResponseEntity.ok(book);
+            CatalogVersionService.Versioned<BookResponse> book =
+                    catalogVersionService.readBook(id, () -> bookService.getBookById(id));
+            return ConditionalRequests.ok(book.getEtag(), book.getLastModified(), CATALOG_CACHE).body(book.getBody());
             
         } catch (Exception e) {
             logger.error("Failed to fetch book by ID: {}", id, e);
@@ -84,11 +162,17 @@ public class BookController {
     }
     
     @GetMapping("/category/{categoryId}")
-    public ResponseEntity<?> getBooksByCategory(@PathVariable Long categoryId, Pageable pageable) {
+    public ResponseEntity<?> getBooksByCategory(@PathVariable Long categoryId, Pageable pageable, HttpServletRequest request) {
+        String etag = catalogVersionService.getCatalogEtag();
+        if (ConditionalRequests.isNotModified(request, etag)) {
+            return ConditionalRequests.notModified(etag, CATALOG_CACHE);
+        }
+        
         try {
             logger.info("Fetching books by category: {}", categoryId);
-            Page<BookResponse> books = bookService.getBooksByCategory(categoryId, pageable);
-            return ResponseEntity.ok(books);
+            CatalogVersionService.Versioned<Page<BookResponse>> books =
+                    catalogVersionService.readCatalog(() -> bookService.getBooksByCategory(categoryId, pageable));
+            return ConditionalRequests.ok(books.getEtag(), CATALOG_CACHE).body(books.getBody());
             
         } catch (Exception e) {
             logger.error("Failed to fetch books by category: {}", categoryId, e);
@@ -97,11 +181,17 @@ public class BookController {
     }
     
     @GetMapping("/search")
-    public ResponseEntity<?> searchBooks(@RequestParam String query, Pageable pageable) {
+    public ResponseEntity<?> searchBooks(@RequestParam String query, Pageable pageable, HttpServletRequest request) {
+        String etag = catalogVersionService.getCatalogEtag();
+        if (ConditionalRequests.isNotModified(request, etag)) {
+            return ConditionalRequests.notModified(etag, CATALOG_CACHE);
+        }
+        
         try {
             logger.info("Searching books with query: {}", query);
-            Page<BookResponse> books = bookService.searchBooks(query, pageable);
-            return ResponseEntity.ok(books);
+            CatalogVersionService.Versioned<Page<BookResponse>> books =
+                    catalogVersionService.readCatalog(() -> bookService.searchBooks(query, pageable));
+            return ConditionalRequests.ok(books.getEtag(), CATALOG_CACHE).body(books.getBody());
             
         } catch (Exception e) {
             logger.error("Failed to search books with query: {}", query, e);
@@ -110,11 +200,18 @@ public class BookController {
     }
     
     @GetMapping("/search/category/{categoryId}")
-    public ResponseEntity<?> searchBooksInCategory(@RequestParam String query, @PathVariable Long categoryId, Pageable pageable) {
+    public ResponseEntity<?> searchBooksInCategory(@RequestParam String query, @PathVariable Long categoryId, Pageable pageable,
+                                                   HttpServletRequest request) {
+        String etag = catalogVersionService.getCatalogEtag();
+        if (ConditionalRequests.isNotModified(request, etag)) {
+            return ConditionalRequests.notModified(etag, CATALOG_CACHE);
+        }
+        
         try {
             logger.info("Searching books in category {} with query: {}", categoryId, query);
-            Page<BookResponse> books = bookService.searchBooksInCategory(query, categoryId, pageable);
-            return ResponseEntity.ok(books);
+            CatalogVersionService.Versioned<Page<BookResponse>> books =
+                    catalogVersionService.readCatalog(() -> bookService.searchBooksInCategory(query, categoryId, pageable));
+            return ConditionalRequests.ok(books.getEtag(), CATALOG_CACHE).body(books.getBody());
             
         } catch (Exception e) {
             logger.error("Failed to search books in category {} with query: {}", categoryId, query, e);
@@ -127,12 +224,18 @@ public class BookController {
                                         @RequestParam(required = false) String author,
                                         @RequestParam(required = false) Integer year,
                                         @RequestParam(defaultValue = "false") boolean availableOnly,
-                                        Pageable pageable) {
+                                        Pageable pageable, HttpServletRequest request) {
+        String etag = catalogVersionService.getCatalogEtag();
+        if (ConditionalRequests.isNotModified(request, etag)) {
+            return ConditionalRequests.notModified(etag, CATALOG_CACHE);
+        }
+        
         try {
             logger.info("Filtering books with category: {}, author: {}, year: {}, availableOnly: {}", 
                        categoryId, author, year, availableOnly);
-            Page<BookResponse> books = bookService.filterBooks(categoryId, author, year, availableOnly, pageable);
-            return ResponseEntity.ok(books);
+            CatalogVersionService.Versioned<Page<BookResponse>> books =
+                    catalogVersionService.readCatalog(() -> bookService.filterBooks(categoryId, author, year, availableOnly, pageable));
+            return ConditionalRequests.ok(books.getEtag(), CATALOG_CACHE).body(books.getBody());
             
         } catch (Exception e) {
             logger.error("Failed to filter books", e);
@@ -141,14 +244,20 @@ public class BookController {
     }
     
     @GetMapping("/authors")
-    public ResponseEntity<?> getDistinctAuthors() {
+    public ResponseEntity<?> getDistinctAuthors(HttpServletRequest request) {
+        String etag = catalogVersionService.getCatalogEtag();
+        if (ConditionalRequests.isNotModified(request, etag)) {
+            return ConditionalRequests.notModified(etag, CATALOG_CACHE);
+        }
+        
         try {
             logger.info("Fetching distinct authors");
-            List<String> authors = bookService.getDistinctAuthors();
+            CatalogVersionService.Versioned<List<String>> authors =
+                    catalogVersionService.readCatalog(() -> bookService.getDistinctAuthors());
             
             Map<String, Object> response = new HashMap<>();
-            response.put("authors", authors);
-            return ResponseEntity.ok(response);
+            response.put("authors", authors.getBody());
+            return ConditionalRequests.ok(authors.getEtag(), CATALOG_CACHE).body(response);
             
         } catch (Exception e) {
             logger.error("Failed to fetch distinct authors", e);
@@ -166,7 +275,7 @@ public class BookController {
             
             Map<String, String> response = new HashMap<>();
             response.put("downloadUrl", bookUrl);
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().cacheControl(PER_USER).body(response);
             
         } catch (Exception e) {
             logger.error("Failed to generate full book URL for book: {} and user: {}", id, currentUser.getId(), e);
@@ -183,6 +292,10 @@ public class BookController {
         try {
             logger.info("Creating new book: {}", bookRequest.getTitle());
             BookResponse book = bookService.createBook(bookRequest, bookFile, coverImage);
+            if (book.getIngestJobId() != null) {
+                // Files are still being ingested; progress is at /books/ingest-jobs/{jobId}
+                return ResponseEntity.accepted().body(book);
+            }
             return ResponseEntity.ok(book);
             
         } catch (Exception e) {
@@ -199,6 +312,10 @@ public class BookController {
         try {
             logger.info("Updating book: {}", id);
             BookResponse book = bookService.updateBook(id, bookRequest, bookFile, coverImage);
+            if (book.getIngestJobId() != null) {
+                // Files are still being ingested; progress is at /books/ingest-jobs/{jobId}
+                return ResponseEntity.accepted().body(book);
+            }
             return ResponseEntity.ok(book);
             
         } catch (Exception e) {
@@ -256,7 +373,7 @@ public class BookController {
             response.put("expiresIn", "2 hours");
             response.put("message", "Secure access URL generated successfully");
             
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().cacheControl(PER_USER).body(response);
             
         } catch (Exception e) {
             logger.error("Failed to generate secure book access for book: {}", id, e);
@@ -264,6 +381,62 @@ public class BookController {
         }
     }
     
+    // Streams the book file itself for readers, with resumable Range requests
+    @GetMapping("/{id}/content")
+    @PreAuthorize("hasRole('READER') or hasRole('LIBRARIAN') or hasRole('ADMIN')")
+    public void getBookContent(@PathVariable Long id, Authentication authentication,
+                               HttpServletRequest request, HttpServletResponse response) throws IOException {
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        
+        S3Service.BookContent content;
+        try {
+            content = bookService.getBookContent(id, userPrincipal.getId());
+        } catch (AccessDeniedException e) {
+            logger.info("Book content access denied for book: {} and user: {}", id, authentication.getName());
+            response.sendError(HttpStatus.FORBIDDEN.value(), e.getMessage());
+            return;
+        } catch (Exception e) {
+            logger.error("Failed to open book content for book: {}", id, e);
+            response.sendError(HttpStatus.NOT_FOUND.value(), e.getMessage());
+            return;
+        }
+        
+        try (content) {
+            response.setContentType(content.getContentType());
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                    ContentDisposition.inline().filename(content.getFileName(), StandardCharsets.UTF_8).build().toString());
+            // Per-reader content: clients may keep it but must revalidate, which the ETag makes cheap
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+            FileRangeResponder.respond(request, response, content.getChannel(), content.getSendfilePath(), content.getEtag());
+        }
+    }
+    
+    // Batch URL resolution for list pages: one request instead of one per book
+    
+    @PostMapping("/covers:batch")
+    public ResponseEntity<?> getBookCoversBatch(@Valid @RequestBody BookBatchRequest request) {
+        try {
+            Map<Long, String> urls = bookService.getBookCoverUrls(request.getIds(), request.getSize());
+            return ResponseEntity.ok(createBatchResponse(request, urls));
+            
+        } catch (Exception e) {
+            logger.error("Failed to resolve cover URLs in batch", e);
+            return ResponseEntity.badRequest().body(createErrorResponse("Cover images not available", e.getMessage()));
+        }
+    }
+    
+    @PostMapping("/previews:batch")
+    public ResponseEntity<?> getBookPreviewsBatch(@Valid @RequestBody BookBatchRequest request) {
+        try {
+            Map<Long, String> urls = bookService.getBookPreviewUrls(request.getIds());
+            return ResponseEntity.ok(createBatchResponse(request, urls));
+            
+        } catch (Exception e) {
+            logger.error("Failed to resolve preview URLs in batch", e);
+            return ResponseEntity.badRequest().body(createErrorResponse("Previews not available", e.getMessage()));
+        }
+    }
+    
     @GetMapping("/{id}/preview")
     public ResponseEntity<?> getBookPreview(@PathVariable Long id) {
         try {
@@ -327,7 +500,7 @@ public class BookController {
             response.put("expiresIn", "2 hours");
             response.put("message", "Book access URL refreshed successfully");
             
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().cacheControl(PER_USER).body(response);
             
         } catch (Exception e) {
             logger.error("Failed to refresh book access for book: {}", id, e);
@@ -349,7 +522,7 @@ public class BookController {
             response.put("hasAccess", hasAccess);
             response.put("message", hasAccess ? "User has access to this book" : "User does not have access to this book");
             
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().cacheControl(PER_USER).body(response);
             
         } catch (Exception e) {
             logger.error("Failed to check book access status for book: {}", id, e);
@@ -377,16 +550,50 @@ public class BookController {
         }
     }
     
+    // Ingest job status (Admin/Librarian)
+    
+    @GetMapping("/ingest-jobs/{jobId}")
+    public ResponseEntity<?> getIngestJob(@PathVariable Long jobId) {
+        try {
+            BookIngestJobResponse job = bookIngestService.getJob(jobId);
+            return ResponseEntity.ok(job);
+            
+        } catch (Exception e) {
+            logger.error("Failed to get ingest job: {}", jobId, e);
+            return ResponseEntity.badRequest().body(createErrorResponse("Ingest job not available", e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/{id}/ingest-jobs")
+    public ResponseEntity<?> getIngestJobsForBook(@PathVariable Long id) {
+        try {
+            List<BookIngestJobResponse> jobs = bookIngestService.getJobsForBook(id);
+            return ResponseEntity.ok(jobs);
+            
+        } catch (Exception e) {
+            logger.error("Failed to get ingest jobs for book: {}", id, e);
+            return ResponseEntity.badRequest().body(createErrorResponse("Ingest jobs not available", e.getMessage()));
+        }
+    }
+    
     // Statistics endpoints
     
     @GetMapping("/stats/total")
-    public ResponseEntity<?> getTotalActiveBooks() {
+    @PreAuthorize("hasRole('ADMIN') or hasRole('LIBRARIAN')")
+    public ResponseEntity<?> getTotalActiveBooks(HttpServletRequest request) {
+        // The role is checked before the conditional request, so readers get 403 rather than 304
+        String etag = catalogVersionService.getCatalogEtag();
+        if (ConditionalRequests.isNotModified(request, etag)) {
+            return ConditionalRequests.notModified(etag, STAFF_CACHE);
+        }
+        
         try {
-            long totalBooks = bookService.getTotalActiveBooks();
+            CatalogVersionService.Versioned<Long> totalBooks =
+                    catalogVersionService.readCatalog(() -> bookService.getTotalActiveBooks());
             
             Map<String, Object> response = new HashMap<>();
-            response.put("totalActiveBooks", totalBooks);
-            return ResponseEntity.ok(response);
+            response.put("totalActiveBooks", totalBooks.getBody());
+            return ConditionalRequests.ok(totalBooks.getEtag(), STAFF_CACHE).body(response);
             
         } catch (Exception e) {
             logger.error("Failed to get total active books", e);
@@ -395,13 +602,20 @@ public class BookController {
     }
     
     @GetMapping("/stats/available")
-    public ResponseEntity<?> getTotalAvailableBooks() {
+    @PreAuthorize("hasRole('ADMIN') or hasRole('LIBRARIAN')")
+    public ResponseEntity<?> getTotalAvailableBooks(HttpServletRequest request) {
+        String etag = catalogVersionService.getCatalogEtag();
+        if (ConditionalRequests.isNotModified(request, etag)) {
+            return ConditionalRequests.notModified(etag, STAFF_CACHE);
+        }
+        
         try {
-            long availableBooks = bookService.getTotalAvailableBooks();
+            CatalogVersionService.Versioned<Long> availableBooks =
+                    catalogVersionService.readCatalog(() -> bookService.getTotalAvailableBooks());
             
             Map<String, Object> response = new HashMap<>();
-            response.put("totalAvailableBooks", availableBooks);
-            return ResponseEntity.ok(response);
+            response.put("totalAvailableBooks", availableBooks.getBody());
+            return ConditionalRequests.ok(availableBooks.getEtag(), STAFF_CACHE).body(response);
             
         } catch (Exception e) {
             logger.error("Failed to get total available books", e);
@@ -442,6 +656,18 @@ public class BookController {
     }
     
     // Helper method to create error response
+    private Map<String, Object> createBatchResponse(BookBatchRequest request, Map<Long, String> urls) {
+        List<Long> missing = request.getIds().stream()
+                .filter(bookId -> !urls.containsKey(bookId))
+                .distinct()
+                .collect(Collectors.toList());
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("urls", urls);
+        response.put("missing", missing);
+        return response;
+    }
+    
     private Map<String, String> createErrorResponse(String error, String message) {
         Map<String, String> errorResponse = new HashMap<>();
         errorResponse.put("error", error);
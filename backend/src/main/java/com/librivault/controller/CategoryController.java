@@ -9,6 +9,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -23,8 +24,10 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.librivault.dto.category.CategoryRequest;
 import com.librivault.dto.category.CategoryResponse;
+import com.librivault.service.CatalogVersionService;
 import com.librivault.service.CategoryService;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 @RestController
@@ -34,16 +37,28 @@ public class CategoryController {
 
     private static final Logger logger = LoggerFactory.getLogger(CategoryController.class);
 
+    // Catalog data is the same for every caller: caches may keep it but must revalidate
+    private static final CacheControl CATALOG_CACHE = CacheControl.noCache().cachePublic();
+
     @Autowired
     private CategoryService categoryService;
 
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
     // Public endpoints (no authentication required)
     @GetMapping
-    public ResponseEntity<?> getAllActiveCategories() {
+    public ResponseEntity<?> getAllActiveCategories(HttpServletRequest request) {
+        String etag = catalogVersionService.getCatalogEtag();
+        if (ConditionalRequests.isNotModified(request, etag)) {
+            return ConditionalRequests.notModified(etag, CATALOG_CACHE);
+        }
+
         try {
             logger.info("Fetching all active categories");
-            List<CategoryResponse> categories = categoryService.getAllActiveCategories();
-            return ResponseEntity.ok(categories);
+            CatalogVersionService.Versioned<List<CategoryResponse>> categories =
+                    catalogVersionService.readCatalog(() -> categoryService.getAllActiveCategories());
+            return ConditionalRequests.ok(categories.getEtag(), CATALOG_CACHE).body(categories.getBody());
 
         } catch (Exception e) {
             logger.error("Failed to fetch categories", e);
@@ -52,11 +67,17 @@ public class CategoryController {
     }
 
     @GetMapping("/paginated")
-    public ResponseEntity<?> getAllActiveCategoriesPaginated(Pageable pageable) {
+    public ResponseEntity<?> getAllActiveCategoriesPaginated(Pageable pageable, HttpServletRequest request) {
+        String etag = catalogVersionService.getCatalogEtag();
+        if (ConditionalRequests.isNotModified(request, etag)) {
+            return ConditionalRequests.notModified(etag, CATALOG_CACHE);
+        }
+
         try {
             logger.info("Fetching all active categories with pagination");
-            Page<CategoryResponse> categories = categoryService.getAllActiveCategories(pageable);
-            return ResponseEntity.ok(categories);
+            CatalogVersionService.Versioned<Page<CategoryResponse>> categories =
+                    catalogVersionService.readCatalog(() -> categoryService.getAllActiveCategories(pageable));
+            return ConditionalRequests.ok(categories.getEtag(), CATALOG_CACHE).body(categories.getBody());
 
         } catch (Exception e) {
             logger.error("Failed to fetch categories with pagination", e);
@@ -65,11 +86,17 @@ public class CategoryController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> getCategoryById(@PathVariable Long id) {
+    public ResponseEntity<?> getCategoryById(@PathVariable Long id, HttpServletRequest request) {
+        String etag = catalogVersionService.getCatalogEtag();
+        if (ConditionalRequests.isNotModified(request, etag)) {
+            return ConditionalRequests.notModified(etag, CATALOG_CACHE);
+        }
+
         try {
             logger.info("Fetching category by ID: {}", id);
-            CategoryResponse category = categoryService.getCategoryById(id);
-            return ResponseEntity.ok(category);
+            CatalogVersionService.Versioned<CategoryResponse> category =
+                    catalogVersionService.readCatalog(() -> categoryService.getCategoryById(id));
+            return ConditionalRequests.ok(category.getEtag(), CATALOG_CACHE).body(category.getBody());
 
         } catch (Exception e) {
             logger.error("Failed to fetch category by ID: {}", id, e);
@@ -78,11 +105,17 @@ public class CategoryController {
     }
 
     @GetMapping("/with-books")
-    public ResponseEntity<?> getCategoriesWithAvailableBooks() {
+    public ResponseEntity<?> getCategoriesWithAvailableBooks(HttpServletRequest request) {
+        String etag = catalogVersionService.getCatalogEtag();
+        if (ConditionalRequests.isNotModified(request, etag)) {
+            return ConditionalRequests.notModified(etag, CATALOG_CACHE);
+        }
+
         try {
             logger.info("Fetching categories with available books");
-            List<CategoryResponse> categories = categoryService.getCategoriesWithAvailableBooks();
-            return ResponseEntity.ok(categories);
+            CatalogVersionService.Versioned<List<CategoryResponse>> categories =
+                    catalogVersionService.readCatalog(() -> categoryService.getCategoriesWithAvailableBooks());
+            return ConditionalRequests.ok(categories.getEtag(), CATALOG_CACHE).body(categories.getBody());
 
         } catch (Exception e) {
             logger.error("Failed to fetch categories with available books", e);
@@ -91,11 +124,17 @@ public class CategoryController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<?> searchCategories(@RequestParam String query) {
+    public ResponseEntity<?> searchCategories(@RequestParam String query, HttpServletRequest request) {
+        String etag = catalogVersionService.getCatalogEtag();
+        if (ConditionalRequests.isNotModified(request, etag)) {
+            return ConditionalRequests.notModified(etag, CATALOG_CACHE);
+        }
+
         try {
             logger.info("Searching categories with query: {}", query);
-            List<CategoryResponse> categories = categoryService.searchCategories(query);
-            return ResponseEntity.ok(categories);
+            CatalogVersionService.Versioned<List<CategoryResponse>> categories =
+                    catalogVersionService.readCatalog(() -> categoryService.searchCategories(query));
+            return ConditionalRequests.ok(categories.getEtag(), CATALOG_CACHE).body(categories.getBody());
 
         } catch (Exception e) {
             logger.error("Failed to search categories with query: {}", query, e);
@@ -233,13 +272,19 @@ public class CategoryController {
 
     // Statistics endpoints
     @GetMapping("/stats/total")
-    public ResponseEntity<?> getTotalActiveCategories() {
+    public ResponseEntity<?> getTotalActiveCategories(HttpServletRequest request) {
+        String etag = catalogVersionService.getCatalogEtag();
+        if (ConditionalRequests.isNotModified(request, etag)) {
+            return ConditionalRequests.notModified(etag, CATALOG_CACHE);
+        }
+
         try {
-            long totalCategories = categoryService.getTotalActiveCategories();
+            CatalogVersionService.Versioned<Long> totalCategories =
+                    catalogVersionService.readCatalog(() -> categoryService.getTotalActiveCategories());
 
             Map<String, Object> response = new HashMap<>();
             response.put("totalActiveCategories", totalCategories);
-            return ResponseEntity.ok(response);
+            return ConditionalRequests.ok(totalCategories.getEtag(), CATALOG_CACHE).body(response);
 
         } catch (Exception e) {
             logger.error("Failed to get total active categories", e);
@@ -0,0 +1,88 @@
+package com.librivault.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Conditional GET support for JSON endpoints: evaluates {@code If-None-Match} and
+ * {@code If-Modified-Since} against a version the caller computed before doing any
+ * work, and builds responses that carry that version's validators.
+ */
+final class ConditionalRequests {
+
+    private ConditionalRequests() {
+    }
+
+    /**
+     * True if the client's copy is current. {@code If-None-Match} takes precedence;
+     * {@code If-Modified-Since} is only used without it and with a known modification time.
+     */
+    static boolean isNotModified(HttpServletRequest request, String etag, long lastModified) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            return etag != null && matchesAny(ifNoneMatch, etag);
+        }
+        if (lastModified < 0) {
+            return false;
+        }
+        try {
+            long ifModifiedSince = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+            // HTTP dates have one-second resolution
+            return ifModifiedSince >= 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    static boolean isNotModified(HttpServletRequest request, String etag) {
+        return isNotModified(request, etag, -1);
+    }
+
+    static ResponseEntity<?> notModified(String etag, long lastModified, CacheControl cacheControl) {
+        return validators(ResponseEntity.status(HttpStatus.NOT_MODIFIED), etag, lastModified, cacheControl).build();
+    }
+
+    static ResponseEntity<?> notModified(String etag, CacheControl cacheControl) {
+        return notModified(etag, -1, cacheControl);
+    }
+
+    static ResponseEntity.BodyBuilder ok(String etag, long lastModified, CacheControl cacheControl) {
+        return validators(ResponseEntity.ok(), etag, lastModified, cacheControl);
+    }
+
+    static ResponseEntity.BodyBuilder ok(String etag, CacheControl cacheControl) {
+        return ok(etag, -1, cacheControl);
+    }
+
+    // Weak comparison, as If-None-Match requires
+    static boolean matchesAny(String ifNoneMatch, String etag) {
+        String opaque = stripWeak(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || stripWeak(tag).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static ResponseEntity.BodyBuilder validators(ResponseEntity.BodyBuilder builder, String etag,
+                                                         long lastModified, CacheControl cacheControl) {
+        builder.cacheControl(cacheControl);
+        if (etag != null) {
+            builder.eTag(etag);
+        }
+        if (lastModified >= 0) {
+            builder.lastModified(lastModified);
+        }
+        return builder;
+    }
+
+    private static String stripWeak(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
@@ -0,0 +1,65 @@
+package com.librivault.controller;
+
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.librivault.service.CoverRenditionService;
+
+/**
+ * Serves cover renditions. Their names contain the hash of their content, so
+ * responses are marked immutable and cached for a year.
+ */
+@RestController
+@RequestMapping("/covers")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class CoverController {
+
+    private static final Logger logger = LoggerFactory.getLogger(CoverController.class);
+
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+
+    @Autowired
+    private CoverRenditionService coverRenditionService;
+
+    @GetMapping("/{fileName:.+}")
+    public ResponseEntity<?> getCover(@PathVariable String fileName,
+                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = "\"" + fileName + "\"";
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(IMMUTABLE).eTag(etag).build();
+        }
+
+        InputStream content;
+        try {
+            content = coverRenditionService.openRendition(fileName);
+        } catch (Exception e) {
+            logger.debug("Cover rendition {} not available: {}", fileName, e.getMessage());
+            return ResponseEntity.notFound().build();
+        }
+        if (content == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok()
+                .cacheControl(IMMUTABLE)
+                .eTag(etag)
+                .contentType(MediaType.parseMediaType(CoverRenditionService.contentTypeFor(fileName)))
+                .body(new InputStreamResource(content));
+    }
+}
@@ -0,0 +1,112 @@
+package com.librivault.controller;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Writes a local file as the response body with single-range HTTP {@code Range}
+ * support. Tomcat's sendfile streams the file itself when the connector supports
+ * it and the caller allows it. Otherwise {@link FileChannel#transferTo} writes to
+ * the servlet output stream through {@link Channels#newChannel}, which copies each
+ * chunk through a small heap buffer but never holds the whole file in memory.
+ */
+final class FileRangeResponder {
+
+    // Tomcat's sendfile hand-off: the connector streams the file itself with zero-copy I/O
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private FileRangeResponder() {
+    }
+
+    /**
+     * Sends the file, or the requested part of it. With an entity tag, answers a matching
+     * {@code If-None-Match} with 304 and honours {@code Range} only when {@code If-Range}
+     * is absent or matches, so a resumed download never mixes two versions of the file.
+     * Content type, caching and disposition headers are left to the caller, as is
+     * closing the channel.
+     *
+     * Sendfile opens the file by name after this method returns, so {@code sendfilePath}
+     * should only be given for files that cannot be deleted meanwhile; without it the
+     * already open channel is written out.
+     */
+    static void respond(HttpServletRequest request, HttpServletResponse response,
+                        FileChannel file, Path sendfilePath, String etag) throws IOException {
+        long fileLength = file.size();
+        if (etag != null) {
+            response.setHeader(HttpHeaders.ETAG, etag);
+            String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+            if (ifNoneMatch != null && ConditionalRequests.matchesAny(ifNoneMatch, etag)) {
+                response.setStatus(HttpStatus.NOT_MODIFIED.value());
+                return;
+            }
+        }
+
+        long start = 0;
+        long end = fileLength - 1;
+
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && fileLength > 0 && ifRangeMatches(request.getHeader(HttpHeaders.IF_RANGE), etag)) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+                // Multiple ranges are answered with the whole file, which RFC 9110 allows
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(fileLength);
+                    end = ranges.get(0).getRangeEnd(fileLength);
+                    if (start >= fileLength) {
+                        throw new IllegalArgumentException("Range starts past the end of the file: " + rangeHeader);
+                    }
+                    response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + fileLength);
+                }
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + fileLength);
+                response.sendError(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+        }
+
+        long length = fileLength == 0 ? 0 : end - start + 1;
+        response.setContentLengthLong(length);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if ("HEAD".equalsIgnoreCase(request.getMethod()) || length == 0) {
+            return;
+        }
+
+        if (sendfilePath != null && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, sendfilePath.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + length);
+            return;
+        }
+
+        WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+        long transferred = 0;
+        while (transferred < length) {
+            long written = file.transferTo(start + transferred, length - transferred, target);
+            if (written <= 0) {
+                break;
+            }
+            transferred += written;
+        }
+    }
+
+    // A date or a different tag in If-Range means the client's partial copy is stale, so it gets the whole file
+    private static boolean ifRangeMatches(String ifRange, String etag) {
+        return ifRange == null || (etag != null && ifRange.trim().equals(etag));
+    }
+}
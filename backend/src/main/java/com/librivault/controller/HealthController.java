@@ -9,9 +9,23 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.librivault.config.EntityCacheStatistics;
+import com.librivault.datasource.ReplicaRoutingDataSource;
 import com.librivault.repository.BookRepository;
 import com.librivault.repository.CategoryRepository;
 import com.librivault.repository.UserRepository;
+import com.librivault.security.AccessGrantCache;
+import com.librivault.security.BoundedPasswordEncoder;
+import com.librivault.security.RateLimiter;
+import com.librivault.security.RequestConcurrencyFilter;
+import com.librivault.service.BookFileVerificationService;
+import com.librivault.service.BookIngestService;
+import com.librivault.service.BookPreviewService;
+import com.librivault.service.CatalogChangeService;
+import com.librivault.service.CatalogVersionService;
+import com.librivault.service.StorageGarbageCollector;
+import com.librivault.service.StoredObjectService;
+import com.librivault.storage.ObjectDiskCache;
 
 @RestController
 public class HealthController {
@@ -24,6 +38,50 @@ public class HealthController {
     
     @Autowired
     private CategoryRepository categoryRepository;
+    
+    @Autowired
+    private BoundedPasswordEncoder passwordEncoder;
+    
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private BookIngestService bookIngestService;
+
+    @Autowired
+    private BookFileVerificationService bookFileVerificationService;
+
+    @Autowired
+    private ObjectDiskCache objectDiskCache;
+
+    @Autowired
+    private BookPreviewService bookPreviewService;
+
+    @Autowired
+    private StoredObjectService storedObjectService;
+
+    @Autowired
+    private StorageGarbageCollector storageGarbageCollector;
+
+    @Autowired
+    private AccessGrantCache accessGrantCache;
+
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    @Autowired
+    private CatalogChangeService catalogChangeService;
+
+    @Autowired
+    private EntityCacheStatistics entityCacheStatistics;
+
+    // Only present with app.datasource.routing.enabled=true
+    @Autowired(required = false)
+    private ReplicaRoutingDataSource routingDataSource;
+
+    // Only present with spring.threads.virtual.enabled=true
+    @Autowired(required = false)
+    private RequestConcurrencyFilter requestConcurrencyFilter;
 
     @GetMapping("/health")
     public ResponseEntity<Map<String, Object>> health() {
@@ -74,6 +132,94 @@ public class HealthController {
         }
     }
 
+    @GetMapping("/health/password-hashing")
+    public ResponseEntity<Map<String, Object>> passwordHashing() {
+        Map<String, Object> response = new HashMap<>(passwordEncoder.getStats());
+        response.put("timestamp", LocalDateTime.now());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/health/request-concurrency")
+    public ResponseEntity<Map<String, Object>> requestConcurrency() {
+        Map<String, Object> response = new HashMap<>();
+        if (requestConcurrencyFilter != null) {
+            response.putAll(requestConcurrencyFilter.getStats());
+        }
+        response.put("limitEnabled", requestConcurrencyFilter != null);
+        response.put("timestamp", LocalDateTime.now());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/health/rate-limits")
+    public ResponseEntity<Map<String, Object>> rateLimits() {
+        Map<String, Object> response = new HashMap<>(rateLimiter.getStats());
+        response.put("timestamp", LocalDateTime.now());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/health/ingest")
+    public ResponseEntity<Map<String, Object>> ingest() {
+        Map<String, Object> response = new HashMap<>(bookIngestService.getStats());
+        response.put("previews", bookPreviewService.getStats());
+        response.put("storedObjects", storedObjectService.getStats());
+        response.put("timestamp", LocalDateTime.now());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/health/file-verification")
+    public ResponseEntity<Map<String, Object>> fileVerification() {
+        Map<String, Object> response = new HashMap<>(bookFileVerificationService.getStats());
+        response.put("timestamp", LocalDateTime.now());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/health/storage-gc")
+    public ResponseEntity<Map<String, Object>> storageGc() {
+        Map<String, Object> response = new HashMap<>(storageGarbageCollector.getStats());
+        response.put("timestamp", LocalDateTime.now());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/health/object-cache")
+    public ResponseEntity<Map<String, Object>> objectCache() {
+        Map<String, Object> response = new HashMap<>(objectDiskCache.getStats());
+        response.put("timestamp", LocalDateTime.now());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/health/access-grants")
+    public ResponseEntity<Map<String, Object>> accessGrants() {
+        Map<String, Object> response = new HashMap<>(accessGrantCache.getStats());
+        response.put("timestamp", LocalDateTime.now());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/health/catalog-version")
+    public ResponseEntity<Map<String, Object>> catalogVersion() {
+        Map<String, Object> response = new HashMap<>(catalogVersionService.getStats());
+        response.put("changeLog", catalogChangeService.getStats());
+        response.put("timestamp", LocalDateTime.now());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/health/entity-cache")
+    public ResponseEntity<Map<String, Object>> entityCache() {
+        Map<String, Object> response = new HashMap<>(entityCacheStatistics.getStats());
+        response.put("timestamp", LocalDateTime.now());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/health/datasource")
+    public ResponseEntity<Map<String, Object>> datasourceRouting() {
+        Map<String, Object> response = new HashMap<>();
+        if (routingDataSource != null) {
+            response.putAll(routingDataSource.getStats());
+        }
+        response.put("routingEnabled", routingDataSource != null);
+        response.put("timestamp", LocalDateTime.now());
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/")
     public ResponseEntity<Map<String, Object>> root() {
         Map<String, Object> response = new HashMap<>();
@@ -0,0 +1,76 @@
+package com.librivault.controller;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriUtils;
+
+import com.librivault.storage.LocalBookStorage;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Serves files from {@link LocalBookStorage} through signed, expiring download URLs,
+ * with single-range HTTP {@code Range} support (see {@link FileRangeResponder}).
+ */
+@RestController
+@RequestMapping("/storage")
+@CrossOrigin(origins = "*", maxAge = 3600)
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "local")
+public class StorageController {
+
+    private static final Logger logger = LoggerFactory.getLogger(StorageController.class);
+
+    @Autowired
+    private LocalBookStorage localBookStorage;
+
+    @GetMapping("/files/**")
+    public void downloadFile(@RequestParam long expires,
+                             @RequestParam String signature,
+                             HttpServletRequest request,
+                             HttpServletResponse response) throws IOException {
+        String prefix = request.getContextPath() + LocalBookStorage.FILES_PATH;
+        String key = UriUtils.decode(request.getRequestURI().substring(prefix.length()), StandardCharsets.UTF_8);
+
+        Path file;
+        try {
+            file = localBookStorage.resolveSignedDownload(key, expires, signature);
+        } catch (SecurityException | IllegalArgumentException e) {
+            logger.warn("Rejected local storage download for {}: {}", key, e.getMessage());
+            response.sendError(HttpStatus.FORBIDDEN.value(), e.getMessage());
+            return;
+        }
+
+        if (!Files.isRegularFile(file)) {
+            response.sendError(HttpStatus.NOT_FOUND.value(), "File not found");
+            return;
+        }
+
+        MediaType contentType = MediaTypeFactory.getMediaType(file.getFileName().toString())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            response.setContentType(contentType.toString());
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=" + Math.max(0, expires - System.currentTimeMillis() / 1000));
+            FileRangeResponder.respond(request, response, channel, file, null);
+        }
+    }
+}
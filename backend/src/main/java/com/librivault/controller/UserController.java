@@ -9,6 +9,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -21,6 +23,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.librivault.dto.user.UserResponse;
 import com.librivault.entity.enums.Role;
+import com.librivault.exception.PasswordHashingBusyException;
 import com.librivault.security.CurrentUser;
 import com.librivault.security.UserPrincipal;
 import com.librivault.service.UserService;
@@ -135,6 +138,11 @@ public class UserController {
             response.put("message", "Password changed successfully");
             return ResponseEntity.ok(response);
             
+        } catch (PasswordHashingBusyException e) {
+            logger.warn("Password change for user {} rejected - password hashing is saturated", id);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(createErrorResponse("Service busy", e.getMessage()));
         } catch (Exception e) {
             logger.error("Failed to change password for user: {}", id, e);
             return ResponseEntity.badRequest().body(createErrorResponse("Password change failed", e.getMessage()));
@@ -0,0 +1,303 @@
+package com.librivault.datasource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLSyntaxErrorException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends read-only transactions to a read replica and everything else to the primary.
+ *
+ * Replicas are used round robin, but only while their replication lag, checked every
+ * {@code app.datasource.routing.lag-check-ms}, is within the configured maximum; a replica
+ * that is unreachable, lagging or not replicating is skipped until the next check finds
+ * it healthy, and reads fall back to the primary when no replica qualifies.
+ *
+ * After a write commits, read-only transactions of the same user stay on the primary
+ * for {@code read-your-writes-seconds}, so a reader who just borrowed a book sees the
+ * loan. The window is per instance; on other instances, and for writes made without
+ * an authenticated user, the lag limit bounds how stale a read can be.
+ *
+ * Read-only transactions begun by a repository method called outside any service
+ * transaction stay on the primary: those are typically the lookup before a write.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    public static final String PRIMARY = "primary";
+
+    private static final String REPOSITORY_TRANSACTION_PREFIX = "org.springframework.data.";
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long maxLagSeconds;
+    private final long readYourWritesMillis;
+
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    // Epoch millis until which reads stay on the primary
+    private final Map<String, Long> pinnedUsers = new ConcurrentHashMap<>();
+
+    private final AtomicLong primaryReads = new AtomicLong();
+    private final AtomicLong readYourWritesReads = new AtomicLong();
+    private final AtomicLong fallbacks = new AtomicLong();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicaDataSources,
+                                    long maxLagSeconds, long readYourWritesSeconds) {
+        this.primary = primary;
+        this.maxLagSeconds = maxLagSeconds;
+        this.readYourWritesMillis = readYourWritesSeconds * 1000;
+        replicaDataSources.forEach((name, dataSource) -> replicas.add(new Replica(name, dataSource)));
+    }
+
+    // Targets are set here rather than in the constructor, which must not call overridable methods
+    @Override
+    public void afterPropertiesSet() {
+        Map<Object, Object> targets = new LinkedHashMap<>();
+        targets.put(PRIMARY, primary);
+        for (Replica replica : replicas) {
+            targets.put(replica.name, replica.dataSource);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        super.afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!isReplicaEligible()) {
+            return PRIMARY;
+        }
+        if (isPinnedToPrimary()) {
+            readYourWritesReads.incrementAndGet();
+            return PRIMARY;
+        }
+        Replica replica = nextAvailableReplica();
+        if (replica == null) {
+            primaryReads.incrementAndGet();
+            return PRIMARY;
+        }
+        return replica.name;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Object key = determineCurrentLookupKey();
+        if (!PRIMARY.equals(key)) {
+            Replica replica = findReplica(key);
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                replica.reads.incrementAndGet();
+                return connection;
+            } catch (SQLException e) {
+                replica.markUnavailable("unreachable: " + e.getMessage());
+                fallbacks.incrementAndGet();
+                logger.warn("Read replica {} unavailable, reading from the primary: {}", replica.name, e.getMessage());
+            }
+        } else if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            pinAfterCommit();
+        }
+        return primary.getConnection();
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.routing.lag-check-ms:2000}")
+    public void checkReplicaLag() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                Long lag = readReplicationLag(connection);
+                if (lag == null) {
+                    replica.markUnavailable("replication not running");
+                } else if (lag > maxLagSeconds) {
+                    replica.lagSeconds = lag;
+                    replica.markUnavailable("lagging " + lag + "s");
+                } else {
+                    replica.markAvailable(lag);
+                }
+            } catch (SQLException e) {
+                replica.markUnavailable("lag check failed: " + e.getMessage());
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        pinnedUsers.values().removeIf(until -> until <= now);
+    }
+
+    public Map<String, Object> getStats() {
+        List<Map<String, Object>> replicaStats = new ArrayList<>();
+        for (Replica replica : replicas) {
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("name", replica.name);
+            stats.put("available", replica.available);
+            stats.put("status", replica.status);
+            stats.put("lagSeconds", replica.lagSeconds);
+            stats.put("reads", replica.reads.get());
+            replicaStats.add(stats);
+        }
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("replicas", replicaStats);
+        stats.put("primaryReads", primaryReads.get());
+        stats.put("readYourWritesReads", readYourWritesReads.get());
+        stats.put("fallbacks", fallbacks.get());
+        stats.put("pinnedUsers", pinnedUsers.size());
+        stats.put("maxLagSeconds", maxLagSeconds);
+        return stats;
+    }
+
+    @Override
+    public void destroy() {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof Closeable closeable) {
+                try {
+                    closeable.close();
+                } catch (IOException e) {
+                    logger.warn("Could not close read replica {}: {}", replica.name, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static boolean isReplicaEligible() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return false;
+        }
+        String name = TransactionSynchronizationManager.getCurrentTransactionName();
+        return name == null || !name.startsWith(REPOSITORY_TRANSACTION_PREFIX);
+    }
+
+    private boolean isPinnedToPrimary() {
+        String user = currentUser();
+        Long until = user != null ? pinnedUsers.get(user) : null;
+        return until != null && until > System.currentTimeMillis();
+    }
+
+    private void pinAfterCommit() {
+        if (readYourWritesMillis <= 0 || replicas.isEmpty() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        String user = currentUser();
+        if (user == null) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                pinnedUsers.put(user, System.currentTimeMillis() + readYourWritesMillis);
+            }
+        });
+    }
+
+    private Replica nextAvailableReplica() {
+        int count = replicas.size();
+        if (count == 0) {
+            return null;
+        }
+        int start = Math.floorMod(nextReplica.getAndIncrement(), count);
+        for (int i = 0; i < count; i++) {
+            Replica replica = replicas.get((start + i) % count);
+            if (replica.available) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private Replica findReplica(Object key) {
+        for (Replica replica : replicas) {
+            if (replica.name.equals(key)) {
+                return replica;
+            }
+        }
+        throw new IllegalStateException("Unknown read replica: " + key);
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    // Seconds behind the primary, or null if the server is not replicating
+    private static Long readReplicationLag(Connection connection) throws SQLException {
+        try {
+            return readReplicationLag(connection, "SHOW REPLICA STATUS", "Seconds_Behind_Source");
+        } catch (SQLSyntaxErrorException e) {
+            // MySQL before 8.0.22
+            return readReplicationLag(connection, "SHOW SLAVE STATUS", "Seconds_Behind_Master");
+        }
+    }
+
+    private static Long readReplicationLag(Connection connection, String statusQuery, String lagColumn) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(statusQuery)) {
+            if (!resultSet.next()) {
+                return null;
+            }
+            long lag = resultSet.getLong(lagColumn);
+            // NULL while the replication threads are stopped
+            return resultSet.wasNull() ? null : lag;
+        }
+    }
+
+    private static class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private final AtomicLong reads = new AtomicLong();
+        // Unavailable until the first lag check
+        private volatile boolean available;
+        private volatile String status = "not checked";
+        private volatile Long lagSeconds;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        private void markAvailable(long lag) {
+            if (!available) {
+                logger.info("Read replica {} available ({}s behind)", name, lag);
+            }
+            lagSeconds = lag;
+            status = "ok";
+            available = true;
+        }
+
+        private void markUnavailable(String reason) {
+            if (available) {
+                logger.warn("Read replica {} no longer used for reads: {}", name, reason);
+            }
+            status = reason;
+            available = false;
+        }
+    }
+}
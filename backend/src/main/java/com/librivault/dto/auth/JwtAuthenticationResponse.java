@@ -12,6 +12,8 @@ public class JwtAuthenticationResponse {
     private String lastName;
     private Role role;
     private Long expiresIn;
+    private String refreshToken;
+    private Long refreshExpiresIn;
     
     // Constructors
     public JwtAuthenticationResponse() {}
@@ -91,4 +93,20 @@ public class JwtAuthenticationResponse {
     public void setExpiresIn(Long expiresIn) {
         this.expiresIn = expiresIn;
     }
-}
\ No newline at end of file
+    
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+    
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+    
+    public Long getRefreshExpiresIn() {
+        return refreshExpiresIn;
+    }
+    
+    public void setRefreshExpiresIn(Long refreshExpiresIn) {
+        this.refreshExpiresIn = refreshExpiresIn;
+    }
+}
@@ -0,0 +1,36 @@
+package com.librivault.dto.book;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+public class BookBatchRequest {
+    
+    @NotEmpty(message = "At least one book id is required")
+    @Size(max = 100, message = "At most 100 book ids per request")
+    private List<Long> ids;
+    
+    // Cover rendition to return (thumbnail, card or detail); ignored for previews
+    private String size;
+    
+    // Constructors
+    public BookBatchRequest() {}
+    
+    // Getters and Setters
+    public List<Long> getIds() {
+        return ids;
+    }
+    
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+    
+    public String getSize() {
+        return size;
+    }
+    
+    public void setSize(String size) {
+        this.size = size;
+    }
+}
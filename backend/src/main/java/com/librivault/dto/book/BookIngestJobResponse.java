@@ -0,0 +1,138 @@
+package com.librivault.dto.book;
+
+import java.time.LocalDateTime;
+
+public class BookIngestJobResponse {
+    
+    private Long id;
+    private Long bookId;
+    private String status;
+    private Integer progressPercent;
+    // Live byte count while the book file is uploading
+    private Long bytesProcessed;
+    private Long bytesTotal;
+    private String bookFileUri;
+    private String coverImageUri;
+    private String fileSha256;
+    private String detectedFormat;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;
+    
+    // Constructors
+    public BookIngestJobResponse() {}
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getBookId() {
+        return bookId;
+    }
+    
+    public void setBookId(Long bookId) {
+        this.bookId = bookId;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public Integer getProgressPercent() {
+        return progressPercent;
+    }
+    
+    public void setProgressPercent(Integer progressPercent) {
+        this.progressPercent = progressPercent;
+    }
+    
+    public Long getBytesProcessed() {
+        return bytesProcessed;
+    }
+    
+    public void setBytesProcessed(Long bytesProcessed) {
+        this.bytesProcessed = bytesProcessed;
+    }
+    
+    public Long getBytesTotal() {
+        return bytesTotal;
+    }
+    
+    public void setBytesTotal(Long bytesTotal) {
+        this.bytesTotal = bytesTotal;
+    }
+    
+    public String getBookFileUri() {
+        return bookFileUri;
+    }
+    
+    public void setBookFileUri(String bookFileUri) {
+        this.bookFileUri = bookFileUri;
+    }
+    
+    public String getCoverImageUri() {
+        return coverImageUri;
+    }
+    
+    public void setCoverImageUri(String coverImageUri) {
+        this.coverImageUri = coverImageUri;
+    }
+    
+    public String getFileSha256() {
+        return fileSha256;
+    }
+    
+    public void setFileSha256(String fileSha256) {
+        this.fileSha256 = fileSha256;
+    }
+    
+    public String getDetectedFormat() {
+        return detectedFormat;
+    }
+    
+    public void setDetectedFormat(String detectedFormat) {
+        this.detectedFormat = detectedFormat;
+    }
+    
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+    
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+    
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+}
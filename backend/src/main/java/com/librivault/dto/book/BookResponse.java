@@ -1,6 +1,7 @@
 package com.librivault.dto.book;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 
 public class BookResponse {
     
@@ -10,6 +11,8 @@ public class BookResponse {
     private String isbn;
     private String description;
     private String coverImageUri;
+    // Cacheable URLs of the resized covers keyed by size (thumbnail, card, detail); null if not generated
+    private Map<String, String> coverUrls;
     private Integer totalCopies;
     private Integer availableCopies;
     private LocalDateTime publishedDate;
@@ -18,6 +21,9 @@ public class BookResponse {
     private String categoryName;
     private Long categoryId;
     private Boolean isAvailable;
+    // Set when files were submitted and are still being ingested in the background
+    private Long ingestJobId;
+    private String ingestStatus;
     
     // Constructors
     public BookResponse() {}
@@ -91,6 +97,14 @@ public class BookResponse {
         this.coverImageUri = coverImageUri;
     }
     
+    public Map<String, String> getCoverUrls() {
+        return coverUrls;
+    }
+    
+    public void setCoverUrls(Map<String, String> coverUrls) {
+        this.coverUrls = coverUrls;
+    }
+    
     public Integer getTotalCopies() {
         return totalCopies;
     }
@@ -156,4 +170,20 @@ public class BookResponse {
     public void setIsAvailable(Boolean isAvailable) {
         this.isAvailable = isAvailable;
     }
-}
\ No newline at end of file
+    
+    public Long getIngestJobId() {
+        return ingestJobId;
+    }
+    
+    public void setIngestJobId(Long ingestJobId) {
+        this.ingestJobId = ingestJobId;
+    }
+    
+    public String getIngestStatus() {
+        return ingestStatus;
+    }
+    
+    public void setIngestStatus(String ingestStatus) {
+        this.ingestStatus = ingestStatus;
+    }
+}
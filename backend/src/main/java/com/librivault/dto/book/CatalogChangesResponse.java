@@ -0,0 +1,99 @@
+package com.librivault.dto.book;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.librivault.dto.category.CategoryResponse;
+
+/**
+ * Catalog changes after a client's version: the current state of books and
+ * categories that changed, and the ids of those that were removed. Clients apply
+ * them and continue from {@code version}; with {@code hasMore} they ask again
+ * straight away. {@code resyncRequired} means the client's version is too old (or
+ * unknown) to sync from, so it must reload the catalog and continue from {@code version}.
+ * A new client asks with {@code since=-1} to get a version before its first full load.
+ */
+public class CatalogChangesResponse {
+    
+    private Long since;
+    private Long version;
+    private Boolean hasMore = false;
+    private Boolean resyncRequired = false;
+    private List<BookResponse> books = new ArrayList<>();
+    private List<CategoryResponse> categories = new ArrayList<>();
+    private List<Long> removedBookIds = new ArrayList<>();
+    private List<Long> removedCategoryIds = new ArrayList<>();
+    
+    // Constructors
+    public CatalogChangesResponse() {}
+    
+    public CatalogChangesResponse(Long since, Long version) {
+        this.since = since;
+        this.version = version;
+    }
+    
+    // Getters and Setters
+    public Long getSince() {
+        return since;
+    }
+    
+    public void setSince(Long since) {
+        this.since = since;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    public Boolean getHasMore() {
+        return hasMore;
+    }
+    
+    public void setHasMore(Boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+    
+    public Boolean getResyncRequired() {
+        return resyncRequired;
+    }
+    
+    public void setResyncRequired(Boolean resyncRequired) {
+        this.resyncRequired = resyncRequired;
+    }
+    
+    public List<BookResponse> getBooks() {
+        return books;
+    }
+    
+    public void setBooks(List<BookResponse> books) {
+        this.books = books;
+    }
+    
+    public List<CategoryResponse> getCategories() {
+        return categories;
+    }
+    
+    public void setCategories(List<CategoryResponse> categories) {
+        this.categories = categories;
+    }
+    
+    public List<Long> getRemovedBookIds() {
+        return removedBookIds;
+    }
+    
+    public void setRemovedBookIds(List<Long> removedBookIds) {
+        this.removedBookIds = removedBookIds;
+    }
+    
+    public List<Long> getRemovedCategoryIds() {
+        return removedCategoryIds;
+    }
+    
+    public void setRemovedCategoryIds(List<Long> removedCategoryIds) {
+        this.removedCategoryIds = removedCategoryIds;
+    }
+}
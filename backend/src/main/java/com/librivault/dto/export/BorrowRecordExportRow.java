@@ -0,0 +1,68 @@
+package com.librivault.dto.export;
+
+import java.time.LocalDateTime;
+
+import com.librivault.entity.enums.BorrowStatus;
+
+public class BorrowRecordExportRow implements ExportRow {
+    
+    public static final String[] CSV_HEADER = {
+        "id", "readerId", "readerEmail", "readerName", "bookId", "bookTitle", "bookAuthor",
+        "status", "borrowedAt", "dueDate", "returnedAt", "usedCredit", "creditsEarned"
+    };
+    
+    private final Long id;
+    private final Long readerId;
+    private final String readerEmail;
+    private final String readerName;
+    private final Long bookId;
+    private final String bookTitle;
+    private final String bookAuthor;
+    private final BorrowStatus status;
+    private final LocalDateTime borrowedAt;
+    private final LocalDateTime dueDate;
+    private final LocalDateTime returnedAt;
+    private final Boolean usedCredit;
+    private final Integer creditsEarned;
+    
+    public BorrowRecordExportRow(Long id, Long readerId, String readerEmail, String firstName, String lastName,
+                                Long bookId, String bookTitle, String bookAuthor, BorrowStatus status,
+                                LocalDateTime borrowedAt, LocalDateTime dueDate, LocalDateTime returnedAt,
+                                Boolean usedCredit, Integer creditsEarned) {
+        this.id = id;
+        this.readerId = readerId;
+        this.readerEmail = readerEmail;
+        this.readerName = firstName + " " + lastName;
+        this.bookId = bookId;
+        this.bookTitle = bookTitle;
+        this.bookAuthor = bookAuthor;
+        this.status = status;
+        this.borrowedAt = borrowedAt;
+        this.dueDate = dueDate;
+        this.returnedAt = returnedAt;
+        this.usedCredit = usedCredit;
+        this.creditsEarned = creditsEarned;
+    }
+    
+    @Override
+    public Object[] toCsvValues() {
+        return new Object[] {
+            id, readerId, readerEmail, readerName, bookId, bookTitle, bookAuthor,
+            status, borrowedAt, dueDate, returnedAt, usedCredit, creditsEarned
+        };
+    }
+    
+    public Long getId() { return id; }
+    public Long getReaderId() { return readerId; }
+    public String getReaderEmail() { return readerEmail; }
+    public String getReaderName() { return readerName; }
+    public Long getBookId() { return bookId; }
+    public String getBookTitle() { return bookTitle; }
+    public String getBookAuthor() { return bookAuthor; }
+    public BorrowStatus getStatus() { return status; }
+    public LocalDateTime getBorrowedAt() { return borrowedAt; }
+    public LocalDateTime getDueDate() { return dueDate; }
+    public LocalDateTime getReturnedAt() { return returnedAt; }
+    public Boolean getUsedCredit() { return usedCredit; }
+    public Integer getCreditsEarned() { return creditsEarned; }
+}
@@ -0,0 +1,14 @@
+package com.librivault.dto.export;
+
+/**
+ * Flat projection of a single exported row. Implementations are built directly
+ * by JPQL constructor expressions so no entity is ever attached to the
+ * persistence context while an export is streaming.
+ */
+public interface ExportRow {
+    
+    /**
+     * Column values in the same order as the export's CSV header.
+     */
+    Object[] toCsvValues();
+}
@@ -0,0 +1,69 @@
+package com.librivault.dto.export;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.librivault.entity.enums.FineStatus;
+
+public class FineExportRow implements ExportRow {
+    
+    public static final String[] CSV_HEADER = {
+        "id", "readerId", "readerEmail", "readerName", "borrowRecordId", "bookTitle",
+        "amount", "overdueDays", "status", "createdAt", "paidAt", "waivedAt", "waiverReason"
+    };
+    
+    private final Long id;
+    private final Long readerId;
+    private final String readerEmail;
+    private final String readerName;
+    private final Long borrowRecordId;
+    private final String bookTitle;
+    private final BigDecimal amount;
+    private final Integer overdueDays;
+    private final FineStatus status;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime paidAt;
+    private final LocalDateTime waivedAt;
+    private final String waiverReason;
+    
+    public FineExportRow(Long id, Long readerId, String readerEmail, String firstName, String lastName,
+                        Long borrowRecordId, String bookTitle, BigDecimal amount, Integer overdueDays,
+                        FineStatus status, LocalDateTime createdAt, LocalDateTime paidAt,
+                        LocalDateTime waivedAt, String waiverReason) {
+        this.id = id;
+        this.readerId = readerId;
+        this.readerEmail = readerEmail;
+        this.readerName = firstName + " " + lastName;
+        this.borrowRecordId = borrowRecordId;
+        this.bookTitle = bookTitle;
+        this.amount = amount;
+        this.overdueDays = overdueDays;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.paidAt = paidAt;
+        this.waivedAt = waivedAt;
+        this.waiverReason = waiverReason;
+    }
+    
+    @Override
+    public Object[] toCsvValues() {
+        return new Object[] {
+            id, readerId, readerEmail, readerName, borrowRecordId, bookTitle,
+            amount, overdueDays, status, createdAt, paidAt, waivedAt, waiverReason
+        };
+    }
+    
+    public Long getId() { return id; }
+    public Long getReaderId() { return readerId; }
+    public String getReaderEmail() { return readerEmail; }
+    public String getReaderName() { return readerName; }
+    public Long getBorrowRecordId() { return borrowRecordId; }
+    public String getBookTitle() { return bookTitle; }
+    public BigDecimal getAmount() { return amount; }
+    public Integer getOverdueDays() { return overdueDays; }
+    public FineStatus getStatus() { return status; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getPaidAt() { return paidAt; }
+    public LocalDateTime getWaivedAt() { return waivedAt; }
+    public String getWaiverReason() { return waiverReason; }
+}
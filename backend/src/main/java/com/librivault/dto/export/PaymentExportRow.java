@@ -0,0 +1,67 @@
+package com.librivault.dto.export;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.librivault.entity.enums.PaymentStatus;
+import com.librivault.entity.enums.PaymentType;
+
+public class PaymentExportRow implements ExportRow {
+    
+    public static final String[] CSV_HEADER = {
+        "id", "userId", "userEmail", "userName", "amount", "type", "status",
+        "stripePaymentId", "description", "failureReason", "createdAt", "completedAt"
+    };
+    
+    private final Long id;
+    private final Long userId;
+    private final String userEmail;
+    private final String userName;
+    private final BigDecimal amount;
+    private final PaymentType type;
+    private final PaymentStatus status;
+    private final String stripePaymentId;
+    private final String description;
+    private final String failureReason;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime completedAt;
+    
+    public PaymentExportRow(Long id, Long userId, String userEmail, String firstName, String lastName,
+                           BigDecimal amount, PaymentType type, PaymentStatus status,
+                           String stripePaymentId, String description, String failureReason,
+                           LocalDateTime createdAt, LocalDateTime completedAt) {
+        this.id = id;
+        this.userId = userId;
+        this.userEmail = userEmail;
+        this.userName = firstName + " " + lastName;
+        this.amount = amount;
+        this.type = type;
+        this.status = status;
+        this.stripePaymentId = stripePaymentId;
+        this.description = description;
+        this.failureReason = failureReason;
+        this.createdAt = createdAt;
+        this.completedAt = completedAt;
+    }
+    
+    @Override
+    public Object[] toCsvValues() {
+        return new Object[] {
+            id, userId, userEmail, userName, amount, type, status,
+            stripePaymentId, description, failureReason, createdAt, completedAt
+        };
+    }
+    
+    public Long getId() { return id; }
+    public Long getUserId() { return userId; }
+    public String getUserEmail() { return userEmail; }
+    public String getUserName() { return userName; }
+    public BigDecimal getAmount() { return amount; }
+    public PaymentType getType() { return type; }
+    public PaymentStatus getStatus() { return status; }
+    public String getStripePaymentId() { return stripePaymentId; }
+    public String getDescription() { return description; }
+    public String getFailureReason() { return failureReason; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getCompletedAt() { return completedAt; }
+}
@@ -0,0 +1,52 @@
+package com.librivault.dto.export;
+
+import java.time.LocalDateTime;
+
+import com.librivault.entity.enums.Role;
+
+public class UserExportRow implements ExportRow {
+    
+    public static final String[] CSV_HEADER = {
+        "id", "email", "firstName", "lastName", "role", "active", "readerCredits", "createdAt", "lastLogin"
+    };
+    
+    private final Long id;
+    private final String email;
+    private final String firstName;
+    private final String lastName;
+    private final Role role;
+    private final Boolean active;
+    private final Integer readerCredits;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime lastLogin;
+    
+    public UserExportRow(Long id, String email, String firstName, String lastName, Role role,
+                        Boolean active, Integer readerCredits, LocalDateTime createdAt, LocalDateTime lastLogin) {
+        this.id = id;
+        this.email = email;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.role = role;
+        this.active = active;
+        this.readerCredits = readerCredits;
+        this.createdAt = createdAt;
+        this.lastLogin = lastLogin;
+    }
+    
+    @Override
+    public Object[] toCsvValues() {
+        return new Object[] {
+            id, email, firstName, lastName, role, active, readerCredits, createdAt, lastLogin
+        };
+    }
+    
+    public Long getId() { return id; }
+    public String getEmail() { return email; }
+    public String getFirstName() { return firstName; }
+    public String getLastName() { return lastName; }
+    public Role getRole() { return role; }
+    public Boolean getActive() { return active; }
+    public Integer getReaderCredits() { return readerCredits; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getLastLogin() { return lastLogin; }
+}
@@ -0,0 +1,114 @@
+package com.librivault.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+@Entity
+@Table(name = "analytics_snapshots",
+       uniqueConstraints = @UniqueConstraint(name = "uk_snapshot_report_version", columnNames = {"report_key", "version"}),
+       indexes = @Index(name = "idx_snapshot_report_key", columnList = "report_key"))
+public class AnalyticsSnapshot {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "report_key", nullable = false, length = 50)
+    private String reportKey;
+    
+    @Column(nullable = false)
+    private Long version;
+    
+    // Gzip-compressed JSON document
+    @Lob
+    @Column(nullable = false, columnDefinition = "LONGBLOB")
+    private byte[] payload;
+    
+    @Column(name = "uncompressed_size", nullable = false)
+    private Integer uncompressedSize;
+    
+    @Column(name = "generated_at", nullable = false)
+    private LocalDateTime generatedAt;
+    
+    @Column(name = "generation_millis", nullable = false)
+    private Long generationMillis;
+    
+    // Constructors
+    public AnalyticsSnapshot() {}
+    
+    public AnalyticsSnapshot(String reportKey, Long version, byte[] payload, Integer uncompressedSize,
+                            LocalDateTime generatedAt, Long generationMillis) {
+        this.reportKey = reportKey;
+        this.version = version;
+        this.payload = payload;
+        this.uncompressedSize = uncompressedSize;
+        this.generatedAt = generatedAt;
+        this.generationMillis = generationMillis;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getReportKey() {
+        return reportKey;
+    }
+    
+    public void setReportKey(String reportKey) {
+        this.reportKey = reportKey;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    public byte[] getPayload() {
+        return payload;
+    }
+    
+    public void setPayload(byte[] payload) {
+        this.payload = payload;
+    }
+    
+    public Integer getUncompressedSize() {
+        return uncompressedSize;
+    }
+    
+    public void setUncompressedSize(Integer uncompressedSize) {
+        this.uncompressedSize = uncompressedSize;
+    }
+    
+    public LocalDateTime getGeneratedAt() {
+        return generatedAt;
+    }
+    
+    public void setGeneratedAt(LocalDateTime generatedAt) {
+        this.generatedAt = generatedAt;
+    }
+    
+    public Long getGenerationMillis() {
+        return generationMillis;
+    }
+    
+    public void setGenerationMillis(Long generationMillis) {
+        this.generationMillis = generationMillis;
+    }
+}
@@ -4,7 +4,10 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import jakarta.persistence.CascadeType;
@@ -24,6 +27,8 @@ import jakarta.validation.constraints.Positive;
 
 @Entity
 @Table(name = "books")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "book")
+@DynamicUpdate
 public class Book {
 
     @Id
@@ -50,6 +55,44 @@ public class Book {
     @Column(name = "cover_image_uri")
     private String coverImageUri;
 
+    // Resized covers stored under content-hashed keys (see CoverRenditionService)
+    @Column(name = "cover_thumbnail_uri", length = 500)
+    private String coverThumbnailUri;
+
+    @Column(name = "cover_card_uri", length = 500)
+    private String coverCardUri;
+
+    @Column(name = "cover_detail_uri", length = 500)
+    private String coverDetailUri;
+
+    // First pages of the book file served as the public preview (see BookPreviewService)
+    @Column(name = "preview_uri", length = 500)
+    private String previewUri;
+
+    // 0 when the book file cannot have a preview
+    @Column(name = "preview_page_count")
+    private Integer previewPageCount;
+
+    // Book file metadata captured at ingest and refreshed by BookFileVerificationService
+    @Column(name = "file_size")
+    private Long fileSize;
+
+    @Column(name = "file_content_type", length = 100)
+    private String fileContentType;
+
+    @Column(name = "file_sha256", length = 64)
+    private String fileSha256;
+
+    @Column(name = "page_count")
+    private Integer pageCount;
+
+    // Result of the last storage check; null until the file has been checked
+    @Column(name = "file_available")
+    private Boolean fileAvailable;
+
+    @Column(name = "file_verified_at")
+    private LocalDateTime fileVerifiedAt;
+
     @Column(name = "total_copies", nullable = false)
     @NotNull(message = "Total copies is required")
     @Positive(message = "Total copies must be positive")
@@ -159,6 +202,94 @@ public class Book {
         this.coverImageUri = coverImageUri;
     }
 
+    public String getCoverThumbnailUri() {
+        return coverThumbnailUri;
+    }
+
+    public void setCoverThumbnailUri(String coverThumbnailUri) {
+        this.coverThumbnailUri = coverThumbnailUri;
+    }
+
+    public String getCoverCardUri() {
+        return coverCardUri;
+    }
+
+    public void setCoverCardUri(String coverCardUri) {
+        this.coverCardUri = coverCardUri;
+    }
+
+    public String getCoverDetailUri() {
+        return coverDetailUri;
+    }
+
+    public void setCoverDetailUri(String coverDetailUri) {
+        this.coverDetailUri = coverDetailUri;
+    }
+
+    public String getPreviewUri() {
+        return previewUri;
+    }
+
+    public void setPreviewUri(String previewUri) {
+        this.previewUri = previewUri;
+    }
+
+    public Integer getPreviewPageCount() {
+        return previewPageCount;
+    }
+
+    public void setPreviewPageCount(Integer previewPageCount) {
+        this.previewPageCount = previewPageCount;
+    }
+
+    public Long getFileSize() {
+        return fileSize;
+    }
+
+    public void setFileSize(Long fileSize) {
+        this.fileSize = fileSize;
+    }
+
+    public String getFileContentType() {
+        return fileContentType;
+    }
+
+    public void setFileContentType(String fileContentType) {
+        this.fileContentType = fileContentType;
+    }
+
+    public String getFileSha256() {
+        return fileSha256;
+    }
+
+    public void setFileSha256(String fileSha256) {
+        this.fileSha256 = fileSha256;
+    }
+
+    public Integer getPageCount() {
+        return pageCount;
+    }
+
+    public void setPageCount(Integer pageCount) {
+        this.pageCount = pageCount;
+    }
+
+    public Boolean getFileAvailable() {
+        return fileAvailable;
+    }
+
+    public void setFileAvailable(Boolean fileAvailable) {
+        this.fileAvailable = fileAvailable;
+    }
+
+    public LocalDateTime getFileVerifiedAt() {
+        return fileVerifiedAt;
+    }
+
+    public void setFileVerifiedAt(LocalDateTime fileVerifiedAt) {
+        this.fileVerifiedAt = fileVerifiedAt;
+    }
+
     public Integer getTotalCopies() {
         return totalCopies;
     }
@@ -0,0 +1,305 @@
+package com.librivault.entity;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import com.librivault.entity.enums.IngestStatus;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * A background job that moves the files submitted with a book from the local
+ * staging directory into book storage and attaches them to the book.
+ */
+@Entity
+@Table(name = "book_ingest_jobs",
+       indexes = {
+           @Index(name = "idx_ingest_book", columnList = "book_id"),
+           @Index(name = "idx_ingest_status", columnList = "status")
+       })
+public class BookIngestJob {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    // Plain id rather than a relation so the job history survives a permanent delete
+    @Column(name = "book_id", nullable = false)
+    private Long bookId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private IngestStatus status = IngestStatus.QUEUED;
+    
+    // New books stay inactive until their files are in place
+    @Column(name = "activate_on_complete", nullable = false)
+    private Boolean activateOnComplete = false;
+    
+    @Column(name = "staged_book_file", length = 1024)
+    private String stagedBookFile;
+    
+    @Column(name = "book_file_name")
+    private String bookFileName;
+    
+    @Column(name = "book_file_content_type")
+    private String bookFileContentType;
+    
+    @Column(name = "book_file_size")
+    private Long bookFileSize;
+    
+    @Column(name = "staged_cover_image", length = 1024)
+    private String stagedCoverImage;
+    
+    @Column(name = "cover_image_name")
+    private String coverImageName;
+    
+    @Column(name = "cover_image_content_type")
+    private String coverImageContentType;
+    
+    @Column(name = "cover_image_size")
+    private Long coverImageSize;
+    
+    @Column(name = "progress_percent", nullable = false)
+    private Integer progressPercent = 0;
+    
+    @Column(name = "book_file_uri")
+    private String bookFileUri;
+    
+    @Column(name = "cover_image_uri")
+    private String coverImageUri;
+    
+    @Column(name = "file_sha256", length = 64)
+    private String fileSha256;
+    
+    @Column(name = "detected_format", length = 20)
+    private String detectedFormat;
+    
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+    
+    @Column(name = "requested_by")
+    private Long requestedBy;
+    
+    @Column(nullable = false)
+    private Integer attempts = 0;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+    
+    // Constructors
+    public BookIngestJob() {}
+    
+    public BookIngestJob(Long bookId, boolean activateOnComplete, Long requestedBy) {
+        this.bookId = bookId;
+        this.activateOnComplete = activateOnComplete;
+        this.requestedBy = requestedBy;
+    }
+    
+    public boolean isFinished() {
+        return status == IngestStatus.COMPLETED || status == IngestStatus.FAILED
+                || status == IngestStatus.CANCELLED;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getBookId() {
+        return bookId;
+    }
+    
+    public void setBookId(Long bookId) {
+        this.bookId = bookId;
+    }
+    
+    public IngestStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(IngestStatus status) {
+        this.status = status;
+    }
+    
+    public Boolean getActivateOnComplete() {
+        return activateOnComplete;
+    }
+    
+    public void setActivateOnComplete(Boolean activateOnComplete) {
+        this.activateOnComplete = activateOnComplete;
+    }
+    
+    public String getStagedBookFile() {
+        return stagedBookFile;
+    }
+    
+    public void setStagedBookFile(String stagedBookFile) {
+        this.stagedBookFile = stagedBookFile;
+    }
+    
+    public String getBookFileName() {
+        return bookFileName;
+    }
+    
+    public void setBookFileName(String bookFileName) {
+        this.bookFileName = bookFileName;
+    }
+    
+    public String getBookFileContentType() {
+        return bookFileContentType;
+    }
+    
+    public void setBookFileContentType(String bookFileContentType) {
+        this.bookFileContentType = bookFileContentType;
+    }
+    
+    public Long getBookFileSize() {
+        return bookFileSize;
+    }
+    
+    public void setBookFileSize(Long bookFileSize) {
+        this.bookFileSize = bookFileSize;
+    }
+    
+    public String getStagedCoverImage() {
+        return stagedCoverImage;
+    }
+    
+    public void setStagedCoverImage(String stagedCoverImage) {
+        this.stagedCoverImage = stagedCoverImage;
+    }
+    
+    public String getCoverImageName() {
+        return coverImageName;
+    }
+    
+    public void setCoverImageName(String coverImageName) {
+        this.coverImageName = coverImageName;
+    }
+    
+    public String getCoverImageContentType() {
+        return coverImageContentType;
+    }
+    
+    public void setCoverImageContentType(String coverImageContentType) {
+        this.coverImageContentType = coverImageContentType;
+    }
+    
+    public Long getCoverImageSize() {
+        return coverImageSize;
+    }
+    
+    public void setCoverImageSize(Long coverImageSize) {
+        this.coverImageSize = coverImageSize;
+    }
+    
+    public Integer getProgressPercent() {
+        return progressPercent;
+    }
+    
+    public void setProgressPercent(Integer progressPercent) {
+        this.progressPercent = progressPercent;
+    }
+    
+    public String getBookFileUri() {
+        return bookFileUri;
+    }
+    
+    public void setBookFileUri(String bookFileUri) {
+        this.bookFileUri = bookFileUri;
+    }
+    
+    public String getCoverImageUri() {
+        return coverImageUri;
+    }
+    
+    public void setCoverImageUri(String coverImageUri) {
+        this.coverImageUri = coverImageUri;
+    }
+    
+    public String getFileSha256() {
+        return fileSha256;
+    }
+    
+    public void setFileSha256(String fileSha256) {
+        this.fileSha256 = fileSha256;
+    }
+    
+    public String getDetectedFormat() {
+        return detectedFormat;
+    }
+    
+    public void setDetectedFormat(String detectedFormat) {
+        this.detectedFormat = detectedFormat;
+    }
+    
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+    
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+    
+    public Long getRequestedBy() {
+        return requestedBy;
+    }
+    
+    public void setRequestedBy(Long requestedBy) {
+        this.requestedBy = requestedBy;
+    }
+    
+    public Integer getAttempts() {
+        return attempts;
+    }
+    
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+    
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+}
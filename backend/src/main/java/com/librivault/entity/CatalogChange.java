@@ -0,0 +1,111 @@
+package com.librivault.entity;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.CreationTimestamp;
+
+import com.librivault.entity.enums.CatalogEntityType;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * One entry of the catalog change log: the book or category with this id changed at
+ * this catalog version. Removed entries are tombstones for entities that were deleted
+ * or deactivated. Written in the same transaction as the change.
+ */
+@Entity
+@Table(name = "catalog_changes",
+       indexes = {
+           @Index(name = "idx_catalog_change_version", columnList = "version"),
+           @Index(name = "idx_catalog_change_entity", columnList = "entity_type, entity_id")
+       })
+public class CatalogChange {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private Long version;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 20)
+    private CatalogEntityType entityType;
+    
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+    
+    @Column(nullable = false)
+    private Boolean removed = false;
+    
+    @CreationTimestamp
+    @Column(name = "changed_at", nullable = false, updatable = false)
+    private LocalDateTime changedAt;
+    
+    // Constructors
+    public CatalogChange() {}
+    
+    public CatalogChange(Long version, CatalogEntityType entityType, Long entityId, boolean removed) {
+        this.version = version;
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.removed = removed;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    public CatalogEntityType getEntityType() {
+        return entityType;
+    }
+    
+    public void setEntityType(CatalogEntityType entityType) {
+        this.entityType = entityType;
+    }
+    
+    public Long getEntityId() {
+        return entityId;
+    }
+    
+    public void setEntityId(Long entityId) {
+        this.entityId = entityId;
+    }
+    
+    public Boolean getRemoved() {
+        return removed;
+    }
+    
+    public void setRemoved(Boolean removed) {
+        this.removed = removed;
+    }
+    
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+    
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
+}
@@ -0,0 +1,61 @@
+package com.librivault.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * The single row holding the current catalog version. Writers lock it to take the
+ * next version and keep the lock until they commit, so versions become visible in
+ * order and a client that has seen version N never misses a later change below it.
+ * They lock it as the last step before committing, which keeps the lock short.
+ */
+@Entity
+@Table(name = "catalog_sequence")
+public class CatalogSequence {
+    
+    public static final Integer ID = 1;
+    
+    @Id
+    private Integer id;
+    
+    @Column(nullable = false)
+    private Long version = 0L;
+    
+    // Tombstones up to this version were purged; clients that synced before it must start over
+    @Column(name = "compacted_through", nullable = false)
+    private Long compactedThrough = 0L;
+    
+    // Constructors
+    public CatalogSequence() {}
+    
+    public CatalogSequence(Integer id) {
+        this.id = id;
+    }
+    
+    // Getters and Setters
+    public Integer getId() {
+        return id;
+    }
+    
+    public void setId(Integer id) {
+        this.id = id;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    public Long getCompactedThrough() {
+        return compactedThrough;
+    }
+    
+    public void setCompactedThrough(Long compactedThrough) {
+        this.compactedThrough = compactedThrough;
+    }
+}
@@ -1,12 +1,15 @@
 package com.librivault.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "librarians")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "librarian")
 public class Librarian {
     
     @Id
@@ -0,0 +1,129 @@
+package com.librivault.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+
+/**
+ * An S3 multipart upload that has been started but not completed. Kept so an
+ * interrupted upload of the same file can reuse the parts already in S3.
+ */
+@Entity
+@Table(name = "multipart_upload_sessions",
+       uniqueConstraints = @UniqueConstraint(name = "uk_multipart_fingerprint", columnNames = "fingerprint"),
+       indexes = @Index(name = "idx_multipart_created_at", columnList = "created_at"))
+public class MultipartUploadSession {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    // SHA-256 over the key prefix, total size and the first part's content
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+    
+    @Column(name = "object_key", nullable = false, length = 512)
+    private String objectKey;
+    
+    @Column(name = "upload_id", nullable = false, length = 1024)
+    private String uploadId;
+    
+    @Column(name = "part_size", nullable = false)
+    private Long partSize;
+    
+    @Column(name = "content_length", nullable = false)
+    private Long contentLength;
+    
+    // Set while an upload is writing to this session so a concurrent upload cannot share it
+    @Column(name = "leased_until")
+    private LocalDateTime leasedUntil;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public MultipartUploadSession() {}
+    
+    public MultipartUploadSession(String fingerprint, String objectKey, String uploadId, Long partSize,
+                                  Long contentLength, LocalDateTime leasedUntil) {
+        this.fingerprint = fingerprint;
+        this.objectKey = objectKey;
+        this.uploadId = uploadId;
+        this.partSize = partSize;
+        this.contentLength = contentLength;
+        this.leasedUntil = leasedUntil;
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getFingerprint() {
+        return fingerprint;
+    }
+    
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+    
+    public String getObjectKey() {
+        return objectKey;
+    }
+    
+    public void setObjectKey(String objectKey) {
+        this.objectKey = objectKey;
+    }
+    
+    public String getUploadId() {
+        return uploadId;
+    }
+    
+    public void setUploadId(String uploadId) {
+        this.uploadId = uploadId;
+    }
+    
+    public Long getPartSize() {
+        return partSize;
+    }
+    
+    public void setPartSize(Long partSize) {
+        this.partSize = partSize;
+    }
+    
+    public Long getContentLength() {
+        return contentLength;
+    }
+    
+    public void setContentLength(Long contentLength) {
+        this.contentLength = contentLength;
+    }
+    
+    public LocalDateTime getLeasedUntil() {
+        return leasedUntil;
+    }
+    
+    public void setLeasedUntil(LocalDateTime leasedUntil) {
+        this.leasedUntil = leasedUntil;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,139 @@
+package com.librivault.entity;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * A book file or cover rendition stored once under a key derived from its SHA-256
+ * and shared by every book with the same content. The object is deleted when the
+ * last reference goes.
+ */
+@Entity
+@Table(name = "stored_objects")
+public class StoredObjectRecord {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false, unique = true, length = 64)
+    private String sha256;
+    
+    @Column(nullable = false, unique = true, length = 500)
+    private String uri;
+    
+    @Column(nullable = false)
+    private Long size;
+    
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+    
+    // Books using the object, plus ingest jobs that uploaded it but have not attached it yet
+    @Column(name = "ref_count", nullable = false)
+    private Integer refCount = 0;
+    
+    // Set while the garbage collector deletes the object; no reference can be taken until it is done
+    @Column(name = "deleting_since")
+    private LocalDateTime deletingSince;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public StoredObjectRecord() {}
+    
+    public StoredObjectRecord(String sha256, String uri, Long size, String contentType) {
+        this.sha256 = sha256;
+        this.uri = uri;
+        this.size = size;
+        this.contentType = contentType;
+        this.refCount = 1;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getSha256() {
+        return sha256;
+    }
+    
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+    
+    public String getUri() {
+        return uri;
+    }
+    
+    public void setUri(String uri) {
+        this.uri = uri;
+    }
+    
+    public Long getSize() {
+        return size;
+    }
+    
+    public void setSize(Long size) {
+        this.size = size;
+    }
+    
+    public String getContentType() {
+        return contentType;
+    }
+    
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+    
+    public Integer getRefCount() {
+        return refCount;
+    }
+    
+    public void setRefCount(Integer refCount) {
+        this.refCount = refCount;
+    }
+    
+    public LocalDateTime getDeletingSince() {
+        return deletingSince;
+    }
+    
+    public void setDeletingSince(LocalDateTime deletingSince) {
+        this.deletingSince = deletingSince;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,6 @@
+package com.librivault.entity.enums;
+
+public enum CatalogEntityType {
+    BOOK,
+    CATEGORY
+}
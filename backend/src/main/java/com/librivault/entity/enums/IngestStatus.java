@@ -0,0 +1,10 @@
+package com.librivault.entity.enums;
+
+public enum IngestStatus {
+    QUEUED,
+    UPLOADING,
+    PROCESSING,
+    COMPLETED,
+    FAILED,
+    CANCELLED
+}
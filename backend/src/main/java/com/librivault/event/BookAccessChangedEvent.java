@@ -0,0 +1,50 @@
+package com.librivault.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a reader gains full access to a book through an approved borrow
+ * (with its due date), or loses it by returning the book.
+ */
+public class BookAccessChangedEvent {
+    
+    private final Long userId;
+    private final Long bookId;
+    private final LocalDateTime dueDate;
+    
+    public BookAccessChangedEvent(Long userId, Long bookId, LocalDateTime dueDate) {
+        this.userId = userId;
+        this.bookId = bookId;
+        this.dueDate = dueDate;
+    }
+    
+    public static BookAccessChangedEvent granted(Long userId, Long bookId, LocalDateTime dueDate) {
+        return new BookAccessChangedEvent(userId, bookId, dueDate);
+    }
+    
+    public static BookAccessChangedEvent revoked(Long userId, Long bookId) {
+        return new BookAccessChangedEvent(userId, bookId, null);
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public Long getBookId() {
+        return bookId;
+    }
+    
+    // Due date of the new grant, or null when access was revoked
+    public LocalDateTime getDueDate() {
+        return dueDate;
+    }
+    
+    @Override
+    public String toString() {
+        return "BookAccessChangedEvent{" +
+                "userId=" + userId +
+                ", bookId=" + bookId +
+                ", dueDate=" + dueDate +
+                '}';
+    }
+}
@@ -0,0 +1,54 @@
+package com.librivault.event;
+
+import com.librivault.entity.enums.CatalogEntityType;
+
+/**
+ * Published when a book or category that appears in public catalog responses is
+ * created, changed or removed, including changes to a book's available copies.
+ */
+public class CatalogChangedEvent {
+    
+    private final CatalogEntityType entityType;
+    private final Long entityId;
+    private final boolean booksAffected;
+    
+    public CatalogChangedEvent(CatalogEntityType entityType, Long entityId, boolean booksAffected) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.booksAffected = booksAffected;
+    }
+    
+    public static CatalogChangedEvent book(Long bookId) {
+        return new CatalogChangedEvent(CatalogEntityType.BOOK, bookId, false);
+    }
+    
+    public static CatalogChangedEvent category(Long categoryId) {
+        return new CatalogChangedEvent(CatalogEntityType.CATEGORY, categoryId, false);
+    }
+    
+    // A category change that also shows in its books' responses, such as a new name
+    public static CatalogChangedEvent categoryAndBooks(Long categoryId) {
+        return new CatalogChangedEvent(CatalogEntityType.CATEGORY, categoryId, true);
+    }
+    
+    public CatalogEntityType getEntityType() {
+        return entityType;
+    }
+    
+    public Long getEntityId() {
+        return entityId;
+    }
+    
+    public boolean isBooksAffected() {
+        return booksAffected;
+    }
+    
+    @Override
+    public String toString() {
+        return "CatalogChangedEvent{" +
+                "entityType=" + entityType +
+                ", entityId=" + entityId +
+                ", booksAffected=" + booksAffected +
+                '}';
+    }
+}
@@ -0,0 +1,40 @@
+package com.librivault.event;
+
+/**
+ * Published when a user's account changes in a way that affects authentication
+ * or authorization (role, active flag, profile or credentials).
+ */
+public class UserAccountChangedEvent {
+    
+    public enum ChangeType {
+        ROLE_CHANGED,
+        ACTIVATED,
+        DEACTIVATED,
+        PROFILE_UPDATED,
+        PASSWORD_CHANGED
+    }
+    
+    private final Long userId;
+    private final ChangeType changeType;
+    
+    public UserAccountChangedEvent(Long userId, ChangeType changeType) {
+        this.userId = userId;
+        this.changeType = changeType;
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+    
+    @Override
+    public String toString() {
+        return "UserAccountChangedEvent{" +
+                "userId=" + userId +
+                ", changeType=" + changeType +
+                '}';
+    }
+}
@@ -0,0 +1,21 @@
+package com.librivault.exception;
+
+/**
+ * Thrown when the password hashing executor is saturated and the request
+ * should be retried later instead of queueing behind other logins.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public PasswordHashingBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
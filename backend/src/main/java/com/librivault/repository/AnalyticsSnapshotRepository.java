@@ -0,0 +1,25 @@
+package com.librivault.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.librivault.entity.AnalyticsSnapshot;
+
+@Repository
+public interface AnalyticsSnapshotRepository extends JpaRepository<AnalyticsSnapshot, Long> {
+    
+    Optional<AnalyticsSnapshot> findTopByReportKeyOrderByVersionDesc(String reportKey);
+    
+    @Query("SELECT MAX(s.version) FROM AnalyticsSnapshot s WHERE s.reportKey = :reportKey")
+    Long findLatestVersion(@Param("reportKey") String reportKey);
+    
+    // Retention
+    @Modifying
+    @Query("DELETE FROM AnalyticsSnapshot s WHERE s.reportKey = :reportKey AND s.version <= :version")
+    int deleteVersionsUpTo(@Param("reportKey") String reportKey, @Param("version") Long version);
+}
@@ -0,0 +1,57 @@
+package com.librivault.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.librivault.entity.BookIngestJob;
+import com.librivault.entity.enums.IngestStatus;
+
+@Repository
+public interface BookIngestJobRepository extends JpaRepository<BookIngestJob, Long> {
+    
+    List<BookIngestJob> findByStatusInOrderByCreatedAtAsc(Collection<IngestStatus> statuses);
+    
+    List<BookIngestJob> findByBookIdOrderByCreatedAtDesc(Long bookId);
+    
+    Optional<BookIngestJob> findFirstByBookIdOrderByCreatedAtDesc(Long bookId);
+    
+    // Claims a queued job for this worker; returns 0 if another worker got there first
+    @Modifying
+    @Transactional
+    @Query("UPDATE BookIngestJob j SET j.status = com.librivault.entity.enums.IngestStatus.UPLOADING, " +
+           "j.attempts = j.attempts + 1, j.updatedAt = :now " +
+           "WHERE j.id = :id AND j.status = com.librivault.entity.enums.IngestStatus.QUEUED")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE BookIngestJob j SET j.status = :status, j.progressPercent = :progress, j.updatedAt = :now " +
+           "WHERE j.id = :id AND j.status IN (com.librivault.entity.enums.IngestStatus.UPLOADING, " +
+           "com.librivault.entity.enums.IngestStatus.PROCESSING)")
+    int updateProgress(@Param("id") Long id, @Param("status") IngestStatus status,
+                       @Param("progress") Integer progress, @Param("now") LocalDateTime now);
+    
+    // Puts jobs back in the queue whose worker stopped reporting progress (e.g. the instance died)
+    @Modifying
+    @Transactional
+    @Query("UPDATE BookIngestJob j SET j.status = com.librivault.entity.enums.IngestStatus.QUEUED, j.updatedAt = :now " +
+           "WHERE j.status IN (com.librivault.entity.enums.IngestStatus.UPLOADING, " +
+           "com.librivault.entity.enums.IngestStatus.PROCESSING) AND j.updatedAt < :cutoff")
+    int requeueStale(@Param("cutoff") LocalDateTime cutoff, @Param("now") LocalDateTime now);
+    
+    // Marks the book's unfinished jobs as cancelled; a running worker notices before it attaches files
+    @Modifying
+    @Transactional
+    @Query("UPDATE BookIngestJob j SET j.status = com.librivault.entity.enums.IngestStatus.CANCELLED " +
+           "WHERE j.bookId = :bookId AND j.status IN :statuses")
+    int cancelByBookIdAndStatusIn(@Param("bookId") Long bookId, @Param("statuses") Collection<IngestStatus> statuses);
+}
@@ -1,29 +1,45 @@
 package com.librivault.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.librivault.entity.Book;
 import com.librivault.entity.Category;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface BookRepository extends JpaRepository<Book, Long> {
     
     // Basic queries
     List<Book> findByActiveTrue();
     
+    // The default catalog listing; cached until the books table changes
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Page<Book> findByActiveTrue(Pageable pageable);
     
     Optional<Book> findByIdAndActiveTrue(Long id);
     
+    // Locks the row until commit. A book already loaded in the transaction comes back as it was loaded, not re-read
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Book b WHERE b.id = :id")
+    Optional<Book> findByIdForUpdate(@Param("id") Long id);
+    
     Optional<Book> findByIsbn(String isbn);
     
     boolean existsByIsbn(String isbn);
@@ -35,6 +51,9 @@ public interface BookRepository extends JpaRepository<Book, Long> {
     
     List<Book> findByCategoryIdAndActiveTrue(Long categoryId);
     
+    @Query("SELECT b.id FROM Book b WHERE b.category.id = :categoryId AND b.active = true")
+    List<Long> findActiveIdsByCategoryId(@Param("categoryId") Long categoryId);
+    
     Page<Book> findByCategoryIdAndActiveTrue(Long categoryId, Pageable pageable);
     
     @Query("SELECT COUNT(b) FROM Book b WHERE b.category.id = :categoryId AND b.active = true")
@@ -140,4 +159,67 @@ public interface BookRepository extends JpaRepository<Book, Long> {
                                    @Param("year") Integer year,
                                    @Param("availableOnly") boolean availableOnly,
                                    Pageable pageable);
-}
\ No newline at end of file
+    
+    // Book files whose storage check is missing or older than the cutoff, oldest first: [id, s3Uri, fileSize]
+    @Query("SELECT b.id, b.s3Uri, b.fileSize FROM Book b WHERE b.s3Uri IS NOT NULL " +
+           "AND (b.fileVerifiedAt IS NULL OR b.fileVerifiedAt < :cutoff) " +
+           "ORDER BY b.fileVerifiedAt ASC")
+    List<Object[]> findFilesDueForVerification(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+    
+    // Only applies if the file was not replaced since it was checked
+    @Modifying
+    @Transactional
+    @Query("UPDATE Book b SET b.fileAvailable = :available, b.fileVerifiedAt = :verifiedAt, " +
+           "b.fileSize = COALESCE(:size, b.fileSize), " +
+           "b.fileContentType = COALESCE(b.fileContentType, :contentType) " +
+           "WHERE b.id = :id AND b.s3Uri = :uri")
+    int recordFileVerification(@Param("id") Long id, @Param("uri") String uri,
+                               @Param("available") boolean available, @Param("size") Long size,
+                               @Param("contentType") String contentType,
+                               @Param("verifiedAt") LocalDateTime verifiedAt);
+    
+    // PDF book files, or files of unknown type, that have not had a preview made yet and were
+    // not found missing by the last storage check: [id, s3Uri, title, pageCount]
+    @Query("SELECT b.id, b.s3Uri, b.title, b.pageCount FROM Book b WHERE b.s3Uri IS NOT NULL " +
+           "AND b.previewPageCount IS NULL AND (b.fileContentType IS NULL OR b.fileContentType = 'application/pdf') " +
+           "AND (b.fileAvailable IS NULL OR b.fileAvailable = true) " +
+           "ORDER BY b.id ASC")
+    List<Object[]> findBooksWithoutPreview(Pageable pageable);
+    
+    // Only applies if the book file was not replaced since the preview was made
+    @Modifying
+    @Transactional
+    @Query("UPDATE Book b SET b.previewUri = :previewUri, b.previewPageCount = :previewPageCount, " +
+           "b.pageCount = COALESCE(b.pageCount, :pageCount) " +
+           "WHERE b.id = :id AND b.s3Uri = :uri AND b.previewPageCount IS NULL")
+    int recordPreview(@Param("id") Long id, @Param("uri") String uri,
+                      @Param("previewUri") String previewUri, @Param("previewPageCount") Integer previewPageCount,
+                      @Param("pageCount") Integer pageCount);
+    
+    // Renditions are content-addressed and can be shared by books with identical covers
+    @Query("SELECT COUNT(b) FROM Book b WHERE b.coverThumbnailUri = :uri " +
+           "OR b.coverCardUri = :uri OR b.coverDetailUri = :uri")
+    long countCoverRenditionReferences(@Param("uri") String uri);
+    
+    // Every stored file a book points at, for rows using any of the given URIs:
+    // [s3Uri, coverImageUri, thumbnailUri, cardUri, detailUri, previewUri]
+    @Query("SELECT b.s3Uri, b.coverImageUri, b.coverThumbnailUri, b.coverCardUri, b.coverDetailUri, b.previewUri " +
+           "FROM Book b WHERE b.s3Uri IN :uris OR b.coverImageUri IN :uris OR b.coverThumbnailUri IN :uris " +
+           "OR b.coverCardUri IN :uris OR b.coverDetailUri IN :uris OR b.previewUri IN :uris")
+    List<Object[]> findFileUrisReferencing(@Param("uris") Collection<String> uris);
+    
+    // Batch URL resolution for list pages: [id, s3Uri, coverImageUri, thumbnailUri, cardUri, detailUri, previewUri]
+    @Query("SELECT b.id, b.s3Uri, b.coverImageUri, b.coverThumbnailUri, b.coverCardUri, b.coverDetailUri, b.previewUri " +
+           "FROM Book b WHERE b.id IN :ids AND b.active = true")
+    List<Object[]> findFileUrisByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Catalog fingerprint for entity tags: [max updatedAt, count, sum of available copies, active count]
+    @Query("SELECT MAX(b.updatedAt), COUNT(b), SUM(b.availableCopies), " +
+           "SUM(CASE WHEN b.active = true THEN 1 ELSE 0 END) FROM Book b")
+    List<Object[]> findCatalogFingerprint();
+    
+    // Version of a single active book's response: [updatedAt, availableCopies, category updatedAt]
+    @Query("SELECT b.updatedAt, b.availableCopies, c.updatedAt FROM Book b JOIN b.category c " +
+           "WHERE b.id = :id AND b.active = true")
+    List<Object[]> findVersionById(@Param("id") Long id);
+}
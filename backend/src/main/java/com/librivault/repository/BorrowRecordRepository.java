@@ -2,19 +2,25 @@ package com.librivault.repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.librivault.dto.export.BorrowRecordExportRow;
 import com.librivault.entity.Book;
 import com.librivault.entity.BorrowRecord;
 import com.librivault.entity.User;
 import com.librivault.entity.enums.BorrowStatus;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface BorrowRecordRepository extends JpaRepository<BorrowRecord, Long> {
     
@@ -160,4 +166,28 @@ public interface BorrowRecordRepository extends JpaRepository<BorrowRecord, Long
     // Find active borrow record for specific user and book
     @Query("SELECT br FROM BorrowRecord br WHERE br.reader = :reader AND br.book = :book AND br.returnedAt IS NULL")
     java.util.Optional<BorrowRecord> findByReaderAndBookAndReturnedAtIsNull(@Param("reader") User reader, @Param("book") Book book);
+    
+    // Streaming export (forward-only cursor, DTO projection)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT new com.librivault.dto.export.BorrowRecordExportRow(" +
+           "br.id, r.id, r.email, r.firstName, r.lastName, b.id, b.title, b.author, br.status, " +
+           "br.borrowedAt, br.dueDate, br.returnedAt, br.usedCredit, br.creditsEarned) " +
+           "FROM BorrowRecord br JOIN br.reader r JOIN br.book b WHERE " +
+           "(:status IS NULL OR br.status = :status) AND " +
+           "(:search IS NULL OR " +
+           "LOWER(b.title) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(b.author) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(r.firstName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(r.lastName) LIKE LOWER(CONCAT('%', :search, '%'))) AND " +
+           "(:since IS NULL OR br.borrowedAt >= :since) AND " +
+           "(:until IS NULL OR br.borrowedAt < :until) " +
+           "ORDER BY br.id")
+    Stream<BorrowRecordExportRow> streamBorrowRecordsForExport(@Param("status") BorrowStatus status,
+                                                              @Param("search") String search,
+                                                              @Param("since") LocalDateTime since,
+                                                              @Param("until") LocalDateTime until);
 }
\ No newline at end of file
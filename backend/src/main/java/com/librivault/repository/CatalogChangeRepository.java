@@ -0,0 +1,40 @@
+package com.librivault.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.librivault.entity.CatalogChange;
+
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface CatalogChangeRepository extends JpaRepository<CatalogChange, Long> {
+    
+    @Query("SELECT c FROM CatalogChange c WHERE c.version > :since ORDER BY c.version ASC, c.id ASC")
+    List<CatalogChange> findChangesSince(@Param("since") Long since, Pageable pageable);
+    
+    // Entries followed by a later entry for the same entity; clients only need the latest one
+    @Modifying
+    @Query(value = "DELETE c FROM catalog_changes c JOIN catalog_changes n " +
+                   "ON n.entity_type = c.entity_type AND n.entity_id = c.entity_id AND n.version > c.version " +
+                   "WHERE c.version <= :upTo", nativeQuery = true)
+    // Tells Hibernate only this table changed, so cached entities and queries are kept
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "catalog_changes"))
+    int deleteSuperseded(@Param("upTo") Long upTo);
+    
+    @Query("SELECT MAX(c.version) FROM CatalogChange c WHERE c.removed = true AND c.changedAt < :cutoff")
+    Long findLatestTombstoneVersionBefore(@Param("cutoff") LocalDateTime cutoff);
+    
+    @Modifying
+    @Query("DELETE FROM CatalogChange c WHERE c.removed = true AND c.version <= :upTo")
+    int deleteTombstonesUpTo(@Param("upTo") Long upTo);
+}
@@ -0,0 +1,22 @@
+package com.librivault.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.librivault.entity.CatalogSequence;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface CatalogSequenceRepository extends JpaRepository<CatalogSequence, Integer> {
+    
+    // Held until the writer commits, which orders catalog versions by commit
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM CatalogSequence s WHERE s.id = :id")
+    Optional<CatalogSequence> findByIdForUpdate(@Param("id") Integer id);
+}
@@ -3,23 +3,30 @@ package com.librivault.repository;
 import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.librivault.entity.Category;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
     
-    // Basic queries
+    // Basic queries; cached until the categories table changes
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Category> findByActiveTrue();
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Page<Category> findByActiveTrue(Pageable pageable);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Category> findByIdAndActiveTrue(Long id);
     
     Optional<Category> findByName(String name);
@@ -111,4 +118,9 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     // Categories for specific librarian
     @Query("SELECT c FROM Category c WHERE c.assignedLibrarian.id = :librarianId AND c.active = true")
     Optional<Category> findByLibrarianId(@Param("librarianId") Long librarianId);
-}
\ No newline at end of file
+    
+    // Catalog fingerprint for entity tags: [max updatedAt, count, active count, latest librarian user update]
+    @Query("SELECT MAX(c.updatedAt), COUNT(c), SUM(CASE WHEN c.active = true THEN 1 ELSE 0 END), " +
+           "(SELECT MAX(u.updatedAt) FROM Librarian l JOIN l.user u) FROM Category c")
+    List<Object[]> findCatalogFingerprint();
+}
@@ -4,19 +4,25 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.librivault.dto.export.FineExportRow;
 import com.librivault.entity.BorrowRecord;
 import com.librivault.entity.Fine;
 import com.librivault.entity.User;
 import com.librivault.entity.enums.FineStatus;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface FineRepository extends JpaRepository<Fine, Long> {
     
@@ -183,4 +189,28 @@ public interface FineRepository extends JpaRepository<Fine, Long> {
            "(SELECT COUNT(f2) FROM Fine f2 WHERE f2.createdAt >= :since) " +
            "FROM Fine f WHERE f.createdAt >= :since")
     Double getFinePaymentSuccessRateSince(@Param("since") LocalDateTime since);
+    
+    // Streaming export (forward-only cursor, DTO projection)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT new com.librivault.dto.export.FineExportRow(" +
+           "f.id, r.id, r.email, r.firstName, r.lastName, br.id, b.title, f.amount, f.overdueDays, " +
+           "f.status, f.createdAt, f.paidAt, f.waivedAt, f.waiverReason) " +
+           "FROM Fine f JOIN f.reader r JOIN f.borrowRecord br JOIN br.book b WHERE " +
+           "(:status IS NULL OR f.status = :status) AND " +
+           "(:search IS NULL OR " +
+           "LOWER(r.firstName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(r.lastName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(r.email) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(b.title) LIKE LOWER(CONCAT('%', :search, '%'))) AND " +
+           "(:since IS NULL OR f.createdAt >= :since) AND " +
+           "(:until IS NULL OR f.createdAt < :until) " +
+           "ORDER BY f.id")
+    Stream<FineExportRow> streamFinesForExport(@Param("status") FineStatus status,
+                                              @Param("search") String search,
+                                              @Param("since") LocalDateTime since,
+                                              @Param("until") LocalDateTime until);
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.librivault.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.librivault.entity.MultipartUploadSession;
+
+@Repository
+public interface MultipartUploadSessionRepository extends JpaRepository<MultipartUploadSession, Long> {
+    
+    Optional<MultipartUploadSession> findByFingerprint(String fingerprint);
+    
+    List<MultipartUploadSession> findByCreatedAtBefore(LocalDateTime cutoff);
+    
+    // Atomically takes the lease; returns 0 if another upload currently holds it
+    @Modifying
+    @Transactional
+    @Query("UPDATE MultipartUploadSession s SET s.leasedUntil = :leasedUntil " +
+           "WHERE s.id = :id AND (s.leasedUntil IS NULL OR s.leasedUntil < :now)")
+    int acquireLease(@Param("id") Long id, @Param("leasedUntil") LocalDateTime leasedUntil, @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE MultipartUploadSession s SET s.leasedUntil = NULL WHERE s.id = :id")
+    int releaseLease(@Param("id") Long id);
+}
@@ -4,14 +4,18 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.librivault.dto.export.PaymentExportRow;
 import com.librivault.entity.Fine;
 import com.librivault.entity.Payment;
 import com.librivault.entity.Subscription;
@@ -19,6 +23,8 @@ import com.librivault.entity.User;
 import com.librivault.entity.enums.PaymentStatus;
 import com.librivault.entity.enums.PaymentType;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
     
@@ -186,4 +192,30 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
            "(SELECT COUNT(p2) FROM Payment p2 WHERE p2.createdAt >= :since) " +
            "FROM Payment p WHERE p.createdAt >= :since")
     Double getPaymentSuccessRateSince(@Param("since") LocalDateTime since);
+    
+    // Streaming export (forward-only cursor, DTO projection)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT new com.librivault.dto.export.PaymentExportRow(" +
+           "p.id, u.id, u.email, u.firstName, u.lastName, p.amount, p.type, p.status, " +
+           "p.stripePaymentId, p.description, p.failureReason, p.createdAt, p.completedAt) " +
+           "FROM Payment p JOIN p.user u WHERE " +
+           "(:status IS NULL OR p.status = :status) AND " +
+           "(:type IS NULL OR p.type = :type) AND " +
+           "(:search IS NULL OR " +
+           "LOWER(u.firstName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(u.email) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(p.stripePaymentId) LIKE LOWER(CONCAT('%', :search, '%'))) AND " +
+           "(:since IS NULL OR p.createdAt >= :since) AND " +
+           "(:until IS NULL OR p.createdAt < :until) " +
+           "ORDER BY p.id")
+    Stream<PaymentExportRow> streamPaymentsForExport(@Param("status") PaymentStatus status,
+                                                    @Param("type") PaymentType type,
+                                                    @Param("search") String search,
+                                                    @Param("since") LocalDateTime since,
+                                                    @Param("until") LocalDateTime until);
 }
\ No newline at end of file
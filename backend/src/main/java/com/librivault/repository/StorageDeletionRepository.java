@@ -0,0 +1,23 @@
+package com.librivault.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.librivault.entity.StorageDeletion;
+
+@Repository
+public interface StorageDeletionRepository extends JpaRepository<StorageDeletion, Long> {
+    
+    @Query("SELECT d FROM StorageDeletion d WHERE d.nextAttemptAt <= :now ORDER BY d.nextAttemptAt ASC")
+    List<StorageDeletion> findDue(@Param("now") LocalDateTime now, Pageable pageable);
+    
+    @Query("SELECT DISTINCT d.uri FROM StorageDeletion d WHERE d.uri IN :uris")
+    List<String> findQueuedUris(@Param("uris") Collection<String> uris);
+}
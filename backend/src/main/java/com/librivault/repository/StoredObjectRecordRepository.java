@@ -0,0 +1,35 @@
+package com.librivault.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.librivault.entity.StoredObjectRecord;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface StoredObjectRecordRepository extends JpaRepository<StoredObjectRecord, Long> {
+    
+    // Row locks serialize reference changes, so an object cannot be deleted while it is being reused
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM StoredObjectRecord o WHERE o.sha256 = :sha256")
+    Optional<StoredObjectRecord> findBySha256ForUpdate(@Param("sha256") String sha256);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM StoredObjectRecord o WHERE o.uri = :uri")
+    Optional<StoredObjectRecord> findByUriForUpdate(@Param("uri") String uri);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM StoredObjectRecord o WHERE o.uri IN :uris")
+    List<StoredObjectRecord> findByUriInForUpdate(@Param("uris") Collection<String> uris);
+    
+    @Query("SELECT o.uri FROM StoredObjectRecord o WHERE o.uri IN :uris AND o.refCount > 0")
+    List<String> findReferencedUris(@Param("uris") Collection<String> uris);
+}
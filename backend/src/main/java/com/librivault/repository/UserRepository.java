@@ -2,14 +2,21 @@ package com.librivault.repository;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import com.librivault.dto.export.UserExportRow;
 import com.librivault.entity.User;
 import com.librivault.entity.enums.Role;
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -21,6 +28,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     boolean existsByEmail(String email);
     
+    // Single statement so a login does not load and merge the whole user
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.lastLogin = :lastLogin WHERE u.id = :id")
+    int updateLastLogin(@Param("id") Long id, @Param("lastLogin") LocalDateTime lastLogin);
+    
     // Role-based queries
     List<User> findByRole(Role role);
     
@@ -74,4 +87,24 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     @Query("SELECT COUNT(u) FROM User u JOIN u.subscription s WHERE s.type = :subscriptionType AND u.active = true")
     long countUsersBySubscriptionType(@Param("subscriptionType") com.librivault.entity.enums.SubscriptionType subscriptionType);
+    
+    // Streaming export (forward-only cursor, DTO projection)
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT new com.librivault.dto.export.UserExportRow(" +
+           "u.id, u.email, u.firstName, u.lastName, u.role, u.active, u.readerCredits, u.createdAt, u.lastLogin) " +
+           "FROM User u WHERE " +
+           "(:role IS NULL OR u.role = :role) AND " +
+           "(:active IS NULL OR u.active = :active) AND " +
+           "(:search IS NULL OR " +
+           "LOWER(u.firstName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(u.email) LIKE LOWER(CONCAT('%', :search, '%'))) " +
+           "ORDER BY u.id")
+    Stream<UserExportRow> streamUsersForExport(@Param("role") Role role,
+                                              @Param("active") Boolean active,
+                                              @Param("search") String search);
 }
\ No newline at end of file
@@ -0,0 +1,130 @@
+package com.librivault.security;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.librivault.event.BookAccessChangedEvent;
+import com.librivault.event.UserAccountChangedEvent;
+import com.librivault.event.UserAccountChangedEvent.ChangeType;
+import com.librivault.util.ExpiringCache;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Caches whether a reader has an active borrow of a book, keyed by (user id, book id),
+ * together with the borrow's due date, so repeated access checks from the reader UI
+ * do not query borrow records. Grants are written when an approval commits and
+ * removed when a return or account deactivation commits; anything
+ * else is loaded on a miss. Entries also expire after a TTL, which bounds staleness
+ * when another instance made the change. Misses are cached for a shorter time.
+ */
+@Component
+public class AccessGrantCache {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AccessGrantCache.class);
+    
+    @Value("${app.security.access-grant-cache.ttl-seconds:600}")
+    private long ttlSeconds;
+    
+    @Value("${app.security.access-grant-cache.negative-ttl-seconds:60}")
+    private long negativeTtlSeconds;
+    
+    @Value("${app.security.access-grant-cache.max-size:50000}")
+    private int maxSize;
+    
+    // An empty Optional records that the user has no active borrow of the book
+    private ExpiringCache<String, Optional<LocalDateTime>> grants;
+    
+    // Bumped on every change so loads that raced with it are not cached
+    private final AtomicLong invalidations = new AtomicLong();
+    
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    
+    @PostConstruct
+    public void init() {
+        grants = new ExpiringCache<>(maxSize);
+    }
+    
+    /**
+     * Returns the due date of the user's active borrow of the book, or empty if there is none.
+     */
+    public Optional<LocalDateTime> getOrLoad(Long userId, Long bookId, Supplier<Optional<LocalDateTime>> loader) {
+        long now = System.currentTimeMillis();
+        String key = key(userId, bookId);
+        
+        Optional<LocalDateTime> cached = grants.get(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        
+        misses.incrementAndGet();
+        long invalidationsBeforeLoad = invalidations.get();
+        Optional<LocalDateTime> dueDate = loader.get();
+        
+        if (invalidations.get() == invalidationsBeforeLoad) {
+            long ttl = dueDate.isPresent() ? ttlSeconds : negativeTtlSeconds;
+            grants.put(key, dueDate, now + ttl * 1000);
+        }
+        return dueDate;
+    }
+    
+    public void grant(Long userId, Long bookId, LocalDateTime dueDate) {
+        invalidations.incrementAndGet();
+        grants.put(key(userId, bookId), Optional.of(dueDate), System.currentTimeMillis() + ttlSeconds * 1000);
+    }
+    
+    public void revoke(Long userId, Long bookId) {
+        invalidations.incrementAndGet();
+        grants.remove(key(userId, bookId));
+    }
+    
+    public void revokeUser(Long userId) {
+        invalidations.incrementAndGet();
+        String prefix = userId + ":";
+        grants.removeIf(key -> key.startsWith(prefix));
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookAccessChanged(BookAccessChangedEvent event) {
+        logger.debug("Updating access grants after {}", event);
+        if (event.getDueDate() != null) {
+            grant(event.getUserId(), event.getBookId(), event.getDueDate());
+        } else {
+            revoke(event.getUserId(), event.getBookId());
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserAccountChanged(UserAccountChangedEvent event) {
+        if (event.getChangeType() == ChangeType.DEACTIVATED) {
+            logger.debug("Dropping access grants after {}", event);
+            revokeUser(event.getUserId());
+        }
+    }
+    
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long lookups = hitCount + missCount;
+        return Map.of(
+                "size", grants.size(),
+                "hits", hitCount,
+                "misses", missCount,
+                "hitRatio", lookups == 0 ? 0.0 : (double) hitCount / lookups);
+    }
+    
+    private static String key(Long userId, Long bookId) {
+        return userId + ":" + bookId;
+    }
+}
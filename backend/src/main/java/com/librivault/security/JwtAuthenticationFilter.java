@@ -13,6 +13,8 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import io.jsonwebtoken.Claims;
+
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -29,16 +31,28 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private CustomUserDetailsService customUserDetailsService;
 
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+
+    @Autowired
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
             FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                Long userId = tokenProvider.getUserIdFromToken(jwt);
+            // Single verification per request; repeat requests with the same token hit the verified-token cache
+            Claims claims = StringUtils.hasText(jwt) ? tokenProvider.getValidatedClaims(jwt) : null;
+
+            if (claims != null && !tokenProvider.isRefreshToken(claims) && !isRevoked(claims)) {
+                Long userId = Long.parseLong(claims.getSubject());
 
-                UserDetails userDetails = customUserDetailsService.loadUserById(userId);
+                // Claims-only mode trusts the token and the revocation registry and never touches the DB
+                UserDetails userDetails = tokenProvider.isStatelessAuthEnabled()
+                        ? UserPrincipal.fromClaims(claims)
+                        : userPrincipalCache.getOrLoad(userId, () -> customUserDetailsService.loadUserById(userId));
                 UsernamePasswordAuthenticationToken authentication
                         = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -54,6 +68,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    // Only claims-only mode relies on the revocation list here; otherwise the user is loaded and checked.
+    // Refresh tokens never authenticate requests and are checked against the list on refresh in both modes.
+    private boolean isRevoked(Claims claims) {
+        return tokenProvider.isStatelessAuthEnabled() && tokenRevocationRegistry.isRevoked(claims);
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -1,7 +1,11 @@
 package com.librivault.security;
 
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.UUID;
 
 import javax.crypto.SecretKey;
 
@@ -11,108 +15,155 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
+import com.librivault.util.ExpiringCache;
+
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
+
+import jakarta.annotation.PostConstruct;
 
 @Component
 public class JwtTokenProvider {
     
     private static final Logger logger = LoggerFactory.getLogger(JwtTokenProvider.class);
     
+    private static final String TOKEN_TYPE_CLAIM = "type";
+    private static final String ACCESS_TOKEN_TYPE = "access";
+    private static final String REFRESH_TOKEN_TYPE = "refresh";
+    
     @Value("${jwt.secret}")
     private String jwtSecret;
     
     @Value("${jwt.expiration}")
     private long jwtExpirationInMs;
     
+    @Value("${jwt.refresh-expiration:604800000}")
+    private long refreshExpirationInMs;
+    
+    // In claims-only mode access tokens are short-lived and renewed with a refresh token
+    @Value("${app.security.stateless-auth.enabled:false}")
+    private boolean statelessAuthEnabled;
+    
+    @Value("${app.security.stateless-auth.access-token-expiration-ms:900000}")
+    private long statelessAccessExpirationInMs;
+    
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private int verifiedTokenCacheMaxSize;
+    
+    // Key and parser are immutable and thread-safe, so build them once
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+    
+    // Claims of tokens whose signature has already been verified, keyed by SHA-256 of the token
+    private ExpiringCache<String, Claims> verifiedTokens;
+    
+    @PostConstruct
+    public void init() {
+        verifiedTokens = new ExpiringCache<>(verifiedTokenCacheMaxSize);
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+    
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        return signingKey;
     }
     
     public String generateToken(Authentication authentication) {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
         
-        Date expiryDate = new Date(System.currentTimeMillis() + jwtExpirationInMs);
+        return generateTokenFromUserId(
+                userPrincipal.getId(),
+                userPrincipal.getEmail(),
+                userPrincipal.getRole().name(),
+                userPrincipal.getFirstName(),
+                userPrincipal.getLastName());
+    }
+    
+    public String generateTokenFromUserId(Long userId, String email, String role, String firstName, String lastName) {
+        Date expiryDate = new Date(System.currentTimeMillis() + getExpirationTimeInMs());
         
         return Jwts.builder()
-                .setSubject(userPrincipal.getId().toString())
-                .claim("email", userPrincipal.getEmail())
-                .claim("role", userPrincipal.getRole().name())
-                .claim("firstName", userPrincipal.getFirstName())
-                .claim("lastName", userPrincipal.getLastName())
+                .setId(UUID.randomUUID().toString())
+                .setSubject(userId.toString())
+                .claim(TOKEN_TYPE_CLAIM, ACCESS_TOKEN_TYPE)
+                .claim("email", email)
+                .claim("role", role)
+                .claim("firstName", firstName)
+                .claim("lastName", lastName)
                 .setIssuedAt(new Date())
                 .setExpiration(expiryDate)
                 .signWith(getSigningKey(), SignatureAlgorithm.HS256)
                 .compact();
     }
     
-    public String generateTokenFromUserId(Long userId, String email, String role, String firstName, String lastName) {
-        Date expiryDate = new Date(System.currentTimeMillis() + jwtExpirationInMs);
+    /**
+     * Refresh tokens carry only the user id; the refresh endpoint reloads everything else.
+     */
+    public String generateRefreshToken(Long userId) {
+        Date expiryDate = new Date(System.currentTimeMillis() + refreshExpirationInMs);
         
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userId.toString())
-                .claim("email", email)
-                .claim("role", role)
-                .claim("firstName", firstName)
-                .claim("lastName", lastName)
+                .claim(TOKEN_TYPE_CLAIM, REFRESH_TOKEN_TYPE)
                 .setIssuedAt(new Date())
                 .setExpiration(expiryDate)
                 .signWith(getSigningKey(), SignatureAlgorithm.HS256)
                 .compact();
     }
     
+    public boolean isRefreshToken(Claims claims) {
+        return REFRESH_TOKEN_TYPE.equals(claims.get(TOKEN_TYPE_CLAIM, String.class));
+    }
+    
+    public boolean isStatelessAuthEnabled() {
+        return statelessAuthEnabled;
+    }
+    
     public Long getUserIdFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        Claims claims = getClaims(token);
         
         return Long.parseLong(claims.getSubject());
     }
     
     public String getEmailFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        Claims claims = getClaims(token);
         
         return claims.get("email", String.class);
     }
     
     public String getRoleFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        Claims claims = getClaims(token);
         
         return claims.get("role", String.class);
     }
     
     public Date getExpirationDateFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        Claims claims = getClaims(token);
         
         return claims.getExpiration();
     }
     
     public boolean validateToken(String authToken) {
+        return getValidatedClaims(authToken) != null;
+    }
+    
+    /**
+     * Returns the claims of a valid token, or null if the token is invalid or expired.
+     * Each token's signature is verified at most once while it is cached.
+     */
+    public Claims getValidatedClaims(String authToken) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(authToken);
-            return true;
+            return getClaims(authToken);
         } catch (SecurityException ex) {
             logger.error("Invalid JWT signature: {}", ex.getMessage());
         } catch (MalformedJwtException ex) {
@@ -124,7 +175,7 @@ public class JwtTokenProvider {
         } catch (IllegalArgumentException ex) {
             logger.error("JWT claims string is empty: {}", ex.getMessage());
         }
-        return false;
+        return null;
     }
     
     public boolean isTokenExpired(String token) {
@@ -137,21 +188,23 @@ public class JwtTokenProvider {
     }
     
     public long getExpirationTimeInMs() {
-        return jwtExpirationInMs;
+        return statelessAuthEnabled ? statelessAccessExpirationInMs : jwtExpirationInMs;
+    }
+    
+    public long getRefreshExpirationTimeInMs() {
+        return refreshExpirationInMs;
     }
     
     public String refreshToken(String token) {
         try {
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
+            Claims claims = getClaims(token);
             
-            Date expiryDate = new Date(System.currentTimeMillis() + jwtExpirationInMs);
+            Date expiryDate = new Date(System.currentTimeMillis() + getExpirationTimeInMs());
             
             return Jwts.builder()
+                    .setId(UUID.randomUUID().toString())
                     .setSubject(claims.getSubject())
+                    .claim(TOKEN_TYPE_CLAIM, ACCESS_TOKEN_TYPE)
                     .claim("email", claims.get("email"))
                     .claim("role", claims.get("role"))
                     .claim("firstName", claims.get("firstName"))
@@ -165,4 +218,35 @@ public class JwtTokenProvider {
             return null;
         }
     }
-}
\ No newline at end of file
+    
+    // Verified token cache
+    
+    private Claims getClaims(String token) {
+        if (token == null || token.isEmpty()) {
+            throw new IllegalArgumentException("JWT token is empty");
+        }
+        
+        String tokenHash = hashToken(token);
+        
+        Claims cached = verifiedTokens.get(tokenHash);
+        if (cached != null) {
+            return cached;
+        }
+        
+        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        if (claims.getExpiration() != null) {
+            // Cached until the token itself expires
+            verifiedTokens.put(tokenHash, claims, claims.getExpiration().getTime());
+        }
+        return claims;
+    }
+    
+    private static String hashToken(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.librivault.security;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.librivault.config.RateLimitProperties;
+import com.librivault.config.RateLimitProperties.EndpointLimit;
+
+import io.jsonwebtoken.Claims;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Applies per-client token bucket limits to the endpoint classes configured under
+ * {@code app.rate-limit.endpoints}. Requests with a valid JWT are limited per user,
+ * everything else per client address. Behind the proxy that is the address Tomcat
+ * resolves from {@code X-Forwarded-For} ({@code server.forward-headers-strategy=native}),
+ * not the proxy's own.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Autowired
+    private RateLimitProperties properties;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+
+        for (Map.Entry<String, EndpointLimit> entry : properties.getEndpoints().entrySet()) {
+            if (matches(entry.getValue(), path)) {
+                String clientKey = resolveClientKey(request);
+                RateLimiter.Decision decision = rateLimiter.tryAcquire(entry.getKey(), entry.getValue(), clientKey);
+
+                response.setHeader("X-RateLimit-Limit", String.valueOf(decision.getLimit()));
+                response.setHeader("X-RateLimit-Remaining", String.valueOf(decision.getRemaining()));
+                response.setHeader("X-RateLimit-Reset", String.valueOf(decision.getResetSeconds()));
+
+                if (!decision.isAllowed()) {
+                    logger.warn("Rate limit exceeded for {} on {} ({})", clientKey, path, entry.getKey());
+                    response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                    response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(decision.getRetryAfterSeconds()));
+                    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                    response.getWriter().write("{\"error\":\"Too many requests\",\"message\":\"Rate limit exceeded, retry in "
+                            + decision.getRetryAfterSeconds() + " seconds\"}");
+                    return;
+                }
+                break;
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
+        return !properties.isEnabled() || "OPTIONS".equalsIgnoreCase(request.getMethod());
+    }
+
+    private boolean matches(EndpointLimit limit, String path) {
+        for (String pattern : limit.getPatterns()) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String resolveClientKey(HttpServletRequest request) {
+        String bearerToken = request.getHeader("Authorization");
+        if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
+            // Verified tokens are cached, so this does not add a signature check per request
+            Claims claims = tokenProvider.getValidatedClaims(bearerToken.substring(7));
+            if (claims != null) {
+                return "user:" + claims.getSubject();
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,169 @@
+package com.librivault.security;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.librivault.config.RateLimitProperties;
+import com.librivault.config.RateLimitProperties.EndpointLimit;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Token buckets keyed by endpoint class and client, spread over independent map
+ * stripes so eviction never blocks the whole key space.
+ *
+ * Each bucket is a single {@link AtomicLong} holding the time at which it will be
+ * full again (the generic cell rate algorithm), so a request is one CAS and no lock.
+ */
+@Component
+public class RateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimiter.class);
+
+    @Autowired
+    private RateLimitProperties properties;
+
+    private List<ConcurrentHashMap<String, Bucket>> stripes;
+
+    private final Map<String, AtomicLong> allowedCounts = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> rejectedCounts = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        int stripeCount = Math.max(1, properties.getStripes());
+        List<ConcurrentHashMap<String, Bucket>> created = new ArrayList<>(stripeCount);
+        for (int i = 0; i < stripeCount; i++) {
+            created.add(new ConcurrentHashMap<>());
+        }
+        stripes = List.copyOf(created);
+        logger.info("Rate limiter configured for endpoint classes {}", properties.getEndpoints().keySet());
+    }
+
+    public Decision tryAcquire(String endpointClass, EndpointLimit limit, String clientKey) {
+        long now = System.nanoTime();
+        long intervalNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(1, limit.getRefillPerMinute());
+        long burstNanos = intervalNanos * Math.max(1, limit.getCapacity());
+
+        String key = endpointClass + '|' + clientKey;
+        Bucket bucket = stripeFor(key).computeIfAbsent(key, k -> new Bucket(now));
+
+        while (true) {
+            long fullAt = bucket.fullAt.get();
+            long base = Math.max(fullAt, now);
+            long next = base + intervalNanos;
+
+            if (next - now > burstNanos) {
+                counter(rejectedCounts, endpointClass).incrementAndGet();
+                long retryAfterNanos = next - now - burstNanos;
+                return new Decision(false, limit.getCapacity(), 0, base - now, retryAfterNanos);
+            }
+            if (bucket.fullAt.compareAndSet(fullAt, next)) {
+                counter(allowedCounts, endpointClass).incrementAndGet();
+                long remaining = (burstNanos - (next - now)) / intervalNanos;
+                return new Decision(true, limit.getCapacity(), remaining, next - now, 0);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.eviction-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        long idleNanos = TimeUnit.SECONDS.toNanos(properties.getIdleEvictionSeconds());
+        int evicted = 0;
+        for (ConcurrentHashMap<String, Bucket> stripe : stripes) {
+            int before = stripe.size();
+            stripe.values().removeIf(bucket -> now - bucket.fullAt.get() > idleNanos);
+            evicted += before - stripe.size();
+        }
+        if (evicted > 0) {
+            logger.debug("Evicted {} idle rate limit buckets", evicted);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        int buckets = 0;
+        for (ConcurrentHashMap<String, Bucket> stripe : stripes) {
+            buckets += stripe.size();
+        }
+
+        Map<String, Object> perClass = new HashMap<>();
+        for (String endpointClass : properties.getEndpoints().keySet()) {
+            Map<String, Object> counts = new HashMap<>();
+            counts.put("allowed", counter(allowedCounts, endpointClass).get());
+            counts.put("rejected", counter(rejectedCounts, endpointClass).get());
+            perClass.put(endpointClass, counts);
+        }
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", properties.isEnabled());
+        stats.put("activeBuckets", buckets);
+        stats.put("endpointClasses", perClass);
+        return stats;
+    }
+
+    private ConcurrentHashMap<String, Bucket> stripeFor(String key) {
+        int hash = key.hashCode();
+        return stripes.get(Math.floorMod(hash ^ (hash >>> 16), stripes.size()));
+    }
+
+    private static AtomicLong counter(Map<String, AtomicLong> counters, String endpointClass) {
+        return counters.computeIfAbsent(endpointClass, k -> new AtomicLong());
+    }
+
+    private static final class Bucket {
+        // A bucket that is full now has fullAt <= now
+        private final AtomicLong fullAt;
+
+        private Bucket(long now) {
+            this.fullAt = new AtomicLong(now);
+        }
+    }
+
+    public static final class Decision {
+        private final boolean allowed;
+        private final long limit;
+        private final long remaining;
+        private final long resetNanos;
+        private final long retryAfterNanos;
+
+        private Decision(boolean allowed, long limit, long remaining, long resetNanos, long retryAfterNanos) {
+            this.allowed = allowed;
+            this.limit = limit;
+            this.remaining = remaining;
+            this.resetNanos = resetNanos;
+            this.retryAfterNanos = retryAfterNanos;
+        }
+
+        public boolean isAllowed() {
+            return allowed;
+        }
+
+        public long getLimit() {
+            return limit;
+        }
+
+        public long getRemaining() {
+            return remaining;
+        }
+
+        // Seconds until the bucket is full again
+        public long getResetSeconds() {
+            return (resetNanos + 999_999_999L) / 1_000_000_000L;
+        }
+
+        public long getRetryAfterSeconds() {
+            return Math.max(1, (retryAfterNanos + 999_999_999L) / 1_000_000_000L);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.librivault.security;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Caps how many requests are handled at once. On virtual threads Tomcat gives every
+ * accepted connection its own thread, so without a cap a spike parks thousands of
+ * requests inside Hikari until connection-timeout. A request that cannot get a permit
+ * within the configured wait is refused with 503 and a Retry-After header instead.
+ * Health checks are never limited.
+ */
+public class RequestConcurrencyFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestConcurrencyFilter.class);
+
+    private final Semaphore permits;
+    private final int maxConcurrentRequests;
+    private final long maxWaitMillis;
+    private final long retryAfterSeconds;
+
+    private final AtomicLong rejectedRequests = new AtomicLong();
+
+    public RequestConcurrencyFilter(int maxConcurrentRequests, long maxWaitMillis, long retryAfterSeconds) {
+        this.permits = new Semaphore(maxConcurrentRequests);
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.maxWaitMillis = maxWaitMillis;
+        this.retryAfterSeconds = retryAfterSeconds;
+        logger.info("Request concurrency limited to {} with a {} ms wait", maxConcurrentRequests, maxWaitMillis);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+
+        if (!acquired) {
+            rejectedRequests.incrementAndGet();
+            logger.warn("All {} request permits in use, rejecting {} {}", maxConcurrentRequests,
+                    request.getMethod(), request.getRequestURI());
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Service busy\",\"message\":\"Too many concurrent requests, retry in "
+                    + retryAfterSeconds + " seconds\"}");
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return path.startsWith("/health");
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("maxConcurrentRequests", maxConcurrentRequests);
+        stats.put("inFlight", maxConcurrentRequests - permits.availablePermits());
+        stats.put("waiting", permits.getQueueLength());
+        stats.put("rejected", rejectedRequests.get());
+        stats.put("maxWaitMs", maxWaitMillis);
+        return stats;
+    }
+}
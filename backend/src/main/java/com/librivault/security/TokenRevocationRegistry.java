@@ -0,0 +1,182 @@
+package com.librivault.security;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.librivault.event.UserAccountChangedEvent;
+import com.librivault.event.UserAccountChangedEvent.ChangeType;
+
+import io.jsonwebtoken.Claims;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * In-memory revocation list for issued JWTs, consulted for every refresh and, in
+ * claims-only (stateless) mode, for every request. Whole users are revoked when
+ * they are deactivated or change role (every token issued before the change is
+ * rejected) and single tokens are revoked by {@code jti} on logout.
+ *
+ * A bloom filter sits in front of the exact sets so the common case, a token
+ * that was never revoked, is answered without touching either map. Entries are
+ * only kept until every token they could match has expired, and the filter is
+ * rebuilt from the surviving entries on each purge.
+ *
+ * The registry is local to this instance; with several instances the access
+ * token lifetime bounds how long a revoked token can still be honoured elsewhere.
+ */
+@Component
+public class TokenRevocationRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationRegistry.class);
+
+    private static final String USER_KEY_PREFIX = "u:";
+    private static final String TOKEN_KEY_PREFIX = "t:";
+
+    @Value("${app.security.revocation.bloom-bits:1048576}")
+    private int bloomBits;
+
+    @Value("${app.security.revocation.bloom-hashes:5}")
+    private int bloomHashes;
+
+    // Revocations must outlive the longest-lived token that they could match
+    @Value("${jwt.refresh-expiration:604800000}")
+    private long refreshExpirationInMs;
+
+    // userId -> revocation time (epoch millis); tokens issued at or before it are rejected
+    private final Map<Long, Long> revokedUsers = new ConcurrentHashMap<>();
+
+    // jti -> expiry of the revoked token (epoch millis)
+    private final Map<String, Long> revokedTokenIds = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter bloomFilter;
+
+    @PostConstruct
+    public void init() {
+        bloomFilter = new BloomFilter(bloomBits, bloomHashes);
+    }
+
+    public boolean isRevoked(Claims claims) {
+        Long userId = Long.parseLong(claims.getSubject());
+        String tokenId = claims.getId();
+        BloomFilter filter = currentFilter();
+
+        if (filter.mightContain(USER_KEY_PREFIX + userId)) {
+            Long revokedAt = revokedUsers.get(userId);
+            Date issuedAt = claims.getIssuedAt();
+            // JWT timestamps have second precision, so a token issued in the same second as the revocation is rejected too
+            if (revokedAt != null && (issuedAt == null || issuedAt.getTime() <= revokedAt)) {
+                return true;
+            }
+        }
+
+        return tokenId != null
+                && filter.mightContain(TOKEN_KEY_PREFIX + tokenId)
+                && revokedTokenIds.containsKey(tokenId);
+    }
+
+    public void revokeUser(Long userId) {
+        revokedUsers.put(userId, System.currentTimeMillis());
+        currentFilter().put(USER_KEY_PREFIX + userId);
+        logger.info("Revoked all tokens issued so far for user: {}", userId);
+    }
+
+    public void revokeToken(String tokenId, Date expiration) {
+        if (tokenId == null) {
+            return;
+        }
+        long expiresAt = expiration != null ? expiration.getTime() : System.currentTimeMillis() + refreshExpirationInMs;
+        revokedTokenIds.put(tokenId, expiresAt);
+        currentFilter().put(TOKEN_KEY_PREFIX + tokenId);
+        logger.debug("Revoked token: {}", tokenId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserAccountChanged(UserAccountChangedEvent event) {
+        // Only changes that take access away; profile and password edits keep the user signed in
+        if (event.getChangeType() == ChangeType.DEACTIVATED || event.getChangeType() == ChangeType.ROLE_CHANGED) {
+            revokeUser(event.getUserId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.revocation.purge-interval-ms:300000}")
+    public void purgeExpiredRevocations() {
+        long now = System.currentTimeMillis();
+        int before = revokedUsers.size() + revokedTokenIds.size();
+
+        revokedUsers.values().removeIf(revokedAt -> revokedAt + refreshExpirationInMs <= now);
+        revokedTokenIds.values().removeIf(expiresAt -> expiresAt <= now);
+
+        int after = revokedUsers.size() + revokedTokenIds.size();
+        if (after < before) {
+            // Bloom filters cannot forget, so rebuild from what is left. A revocation racing with
+            // the rebuild is added to the new filter directly, so it is never lost.
+            BloomFilter rebuilt = new BloomFilter(bloomBits, bloomHashes);
+            bloomFilter = rebuilt;
+            revokedUsers.keySet().forEach(userId -> rebuilt.put(USER_KEY_PREFIX + userId));
+            revokedTokenIds.keySet().forEach(tokenId -> rebuilt.put(TOKEN_KEY_PREFIX + tokenId));
+            logger.debug("Purged {} expired revocations, {} remain", before - after, after);
+        }
+    }
+
+    private BloomFilter currentFilter() {
+        return bloomFilter;
+    }
+
+    /**
+     * Fixed-size, lock-free bloom filter using double hashing over a 64-bit FNV-1a hash.
+     */
+    private static final class BloomFilter {
+        private final AtomicLongArray words;
+        private final int bitCount;
+        private final int hashCount;
+
+        private BloomFilter(int bitCount, int hashCount) {
+            this.words = new AtomicLongArray((bitCount + 63) / 64);
+            this.bitCount = words.length() * 64;
+            this.hashCount = hashCount;
+        }
+
+        private void put(String key) {
+            long hash = hash(key);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashCount; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bitCount);
+                long mask = 1L << (bit & 63);
+                words.getAndAccumulate(bit >>> 6, mask, (word, m) -> word | m);
+            }
+        }
+
+        private boolean mightContain(String key) {
+            long hash = hash(key);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < hashCount; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((words.get(bit >>> 6) & (1L << (bit & 63))) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static long hash(String key) {
+            long hash = 0xcbf29ce484222325L;
+            for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+                hash ^= b & 0xff;
+                hash *= 0x100000001b3L;
+            }
+            return hash;
+        }
+    }
+}
@@ -11,6 +11,8 @@ import org.springframework.security.core.userdetails.UserDetails;
 import com.librivault.entity.User;
 import com.librivault.entity.enums.Role;
 
+import io.jsonwebtoken.Claims;
+
 public class UserPrincipal implements UserDetails {
     
     private Long id;
@@ -55,6 +57,29 @@ public class UserPrincipal implements UserDetails {
         );
     }
     
+    /**
+     * Builds a principal from verified JWT claims without loading the user.
+     * Only active users are issued tokens, and revoked tokens never get this far.
+     */
+    public static UserPrincipal fromClaims(Claims claims) {
+        Role role = Role.valueOf(claims.get("role", String.class));
+        Collection<GrantedAuthority> authorities = Collections.singletonList(
+            new SimpleGrantedAuthority("ROLE_" + role.name())
+        );
+        
+        return new UserPrincipal(
+            Long.parseLong(claims.getSubject()),
+            claims.get("email", String.class),
+            null,
+            claims.get("firstName", String.class),
+            claims.get("lastName", String.class),
+            role,
+            true,
+            null,
+            authorities
+        );
+    }
+    
     // UserDetails interface methods
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
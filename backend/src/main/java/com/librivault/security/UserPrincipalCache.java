@@ -0,0 +1,74 @@
+package com.librivault.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.librivault.event.UserAccountChangedEvent;
+import com.librivault.util.ExpiringCache;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Caches the authenticated {@link UserPrincipal} per user id so the JWT filter
+ * does not reload the user on every request. Entries expire after a TTL and are
+ * evicted as soon as a {@link UserAccountChangedEvent} for the user commits.
+ */
+@Component
+public class UserPrincipalCache {
+    
+    private static final Logger logger = LoggerFactory.getLogger(UserPrincipalCache.class);
+    
+    @Value("${app.security.principal-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+    
+    @Value("${app.security.principal-cache.max-size:10000}")
+    private int maxSize;
+    
+    private ExpiringCache<Long, UserDetails> principals;
+    
+    // Bumped on every invalidation so loads that raced with it are not cached
+    private final AtomicLong invalidations = new AtomicLong();
+    
+    @PostConstruct
+    public void init() {
+        principals = new ExpiringCache<>(maxSize);
+    }
+    
+    public UserDetails getOrLoad(Long userId, Supplier<UserDetails> loader) {
+        UserDetails cached = principals.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+        
+        long invalidationsBeforeLoad = invalidations.get();
+        UserDetails principal = loader.get();
+        
+        if (invalidations.get() == invalidationsBeforeLoad) {
+            principals.put(userId, principal, System.currentTimeMillis() + ttlSeconds * 1000);
+        }
+        return principal;
+    }
+    
+    public void invalidate(Long userId) {
+        invalidations.incrementAndGet();
+        principals.remove(userId);
+    }
+    
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        principals.clear();
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserAccountChanged(UserAccountChangedEvent event) {
+        logger.debug("Evicting cached principal after {}", event);
+        invalidate(event.getUserId());
+    }
+}
@@ -11,6 +11,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.librivault.entity.enums.PaymentType;
 import com.librivault.entity.enums.SubscriptionType;
@@ -50,6 +51,7 @@ public class AnalyticsService {
     
     // Dashboard Overview Statistics
     @PreAuthorize("hasRole('ADMIN')")
+    @Transactional(readOnly = true)
     public Map<String, Object> getDashboardOverview() {
         logger.info("Generating dashboard overview statistics");
         
@@ -84,6 +86,7 @@ public class AnalyticsService {
     
     // User Analytics
     @PreAuthorize("hasRole('ADMIN')")
+    @Transactional(readOnly = true)
     public Map<String, Object> getUserAnalytics(int days) {
         logger.info("Generating user analytics for {} days", days);
         
@@ -114,6 +117,7 @@ public class AnalyticsService {
     
     // Subscription Analytics
     @PreAuthorize("hasRole('ADMIN')")
+    @Transactional(readOnly = true)
     public Map<String, Object> getSubscriptionAnalytics(int months) {
         logger.info("Generating subscription analytics for {} months", months);
         
@@ -146,6 +150,7 @@ public class AnalyticsService {
     
     // Book and Borrowing Analytics
     @PreAuthorize("hasRole('ADMIN')")
+    @Transactional(readOnly = true)
     public Map<String, Object> getBookAnalytics(int days) {
         logger.info("Generating book analytics for {} days", days);
         
@@ -183,6 +188,7 @@ public class AnalyticsService {
     
     // Financial Analytics
     @PreAuthorize("hasRole('ADMIN')")
+    @Transactional(readOnly = true)
     public Map<String, Object> getFinancialAnalytics(int months) {
         logger.info("Generating financial analytics for {} months", months);
         
@@ -226,6 +232,7 @@ public class AnalyticsService {
     
     // Fine Analytics
     @PreAuthorize("hasRole('ADMIN')")
+    @Transactional(readOnly = true)
     public Map<String, Object> getFineAnalytics(int months) {
         logger.info("Generating fine analytics for {} months", months);
         
@@ -263,6 +270,7 @@ public class AnalyticsService {
     
     // Category Analytics
     @PreAuthorize("hasRole('ADMIN')")
+    @Transactional(readOnly = true)
     public Map<String, Object> getCategoryAnalytics() {
         logger.info("Generating category analytics");
         
@@ -287,6 +295,7 @@ public class AnalyticsService {
     
     // Activity Analytics
     @PreAuthorize("hasRole('ADMIN')")
+    @Transactional(readOnly = true)
     public Map<String, Object> getActivityAnalytics(int days) {
         logger.info("Generating activity analytics for {} days", days);
         
@@ -309,6 +318,7 @@ public class AnalyticsService {
     
     // Comprehensive Analytics Report
     @PreAuthorize("hasRole('ADMIN')")
+    @Transactional(readOnly = true)
     public Map<String, Object> getComprehensiveAnalytics() {
         logger.info("Generating comprehensive analytics report");
         
@@ -0,0 +1,404 @@
+package com.librivault.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.librivault.entity.AnalyticsSnapshot;
+import com.librivault.entity.Book;
+import com.librivault.entity.Category;
+import com.librivault.entity.User;
+import com.librivault.repository.AnalyticsSnapshotRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Serves precomputed analytics reports. Reports are rendered off-peak on a
+ * schedule (and at most once per refresh interval on demand), stored as
+ * versioned gzip-compressed JSON and kept in memory so reads never touch the
+ * analytics queries. Every instance stores into the same version sequence, and an
+ * in-memory copy older than the refresh interval is caught up with the latest
+ * stored version, which another instance may have written.
+ */
+@Service
+public class AnalyticsSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsSnapshotService.class);
+
+    private static final String SYSTEM_PRINCIPAL = "analytics-snapshot";
+
+    // Attempts at taking the next version while other instances store the same report
+    private static final int MAX_VERSION_ATTEMPTS = 3;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private AnalyticsSnapshotRepository snapshotRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.analytics.snapshot.min-refresh-interval-minutes:15}")
+    private long minRefreshIntervalMinutes;
+
+    @Value("${app.analytics.snapshot.retained-versions:5}")
+    private int retainedVersions;
+
+    private final Map<ReportType, SnapshotView> latestSnapshots = new ConcurrentHashMap<>();
+    private final Map<ReportType, CompletableFuture<SnapshotView>> inFlightRefreshes = new ConcurrentHashMap<>();
+
+    // When the stored versions were last checked for one newer than the in-memory copy (epoch millis)
+    private final Map<ReportType, Long> persistedCheckedAt = new ConcurrentHashMap<>();
+
+    private TransactionTemplate readOnlyTransaction;
+    private TransactionTemplate writeTransaction;
+
+    public enum ReportType {
+        COMPREHENSIVE("comprehensive"),
+        FINANCIAL("financial"),
+        FINES("fines");
+
+        private final String key;
+
+        ReportType(String key) {
+            this.key = key;
+        }
+
+        public String getKey() { return key; }
+
+        public static ReportType fromKey(String key) {
+            for (ReportType type : values()) {
+                if (type.key.equalsIgnoreCase(key)) {
+                    return type;
+                }
+            }
+            throw new IllegalArgumentException("Unknown analytics report: " + key);
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    // Read access
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public SnapshotView getSnapshot(ReportType type) {
+        SnapshotView snapshot = latestKnownSnapshot(type);
+        if (snapshot != null) {
+            return snapshot;
+        }
+
+        logger.info("No snapshot available for report: {}, generating one now", type.getKey());
+        return refreshCoalesced(type, false);
+    }
+
+    // Manual refresh (rate limited and coalesced)
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public SnapshotView refreshSnapshot(ReportType type) {
+        return refreshCoalesced(type, false);
+    }
+
+    // Scheduled off-peak refresh
+
+    @Scheduled(cron = "${app.analytics.snapshot.cron:0 30 4 * * ?}")
+    public void refreshAllSnapshots() {
+        logger.info("Refreshing all analytics snapshots");
+
+        for (ReportType type : ReportType.values()) {
+            try {
+                refreshCoalesced(type, true);
+            } catch (Exception e) {
+                logger.error("Failed to refresh analytics snapshot: {}", type.getKey(), e);
+            }
+        }
+    }
+
+    // Helper methods
+
+    private SnapshotView refreshCoalesced(ReportType type, boolean force) {
+        if (!force) {
+            SnapshotView current = latestKnownSnapshot(type);
+            if (current != null && current.getGeneratedAt()
+                    .isAfter(LocalDateTime.now().minus(Duration.ofMinutes(minRefreshIntervalMinutes)))) {
+                logger.debug("Snapshot {} v{} is recent enough, skipping refresh", type.getKey(), current.getVersion());
+                return current;
+            }
+        }
+
+        CompletableFuture<SnapshotView> refresh = new CompletableFuture<>();
+        CompletableFuture<SnapshotView> existing = inFlightRefreshes.putIfAbsent(type, refresh);
+        if (existing != null) {
+            logger.debug("Joining in-flight refresh of snapshot: {}", type.getKey());
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+
+        try {
+            SnapshotView snapshot = generateSnapshot(type);
+            latestSnapshots.merge(type, snapshot, SnapshotView::newer);
+            refresh.complete(snapshot);
+            return snapshot;
+        } catch (RuntimeException e) {
+            refresh.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightRefreshes.remove(type, refresh);
+        }
+    }
+
+    // The in-memory copy, first warmed or caught up from the stored versions when it is missing or
+    // older than the refresh interval; stored versions are checked at most once per interval
+    private SnapshotView latestKnownSnapshot(ReportType type) {
+        SnapshotView current = latestSnapshots.get(type);
+        Duration interval = Duration.ofMinutes(minRefreshIntervalMinutes);
+        if (current != null) {
+            if (current.getGeneratedAt().isAfter(LocalDateTime.now().minus(interval))) {
+                return current;
+            }
+            Long checkedAt = persistedCheckedAt.get(type);
+            if (checkedAt != null && System.currentTimeMillis() - checkedAt < interval.toMillis()) {
+                return current;
+            }
+        }
+        persistedCheckedAt.put(type, System.currentTimeMillis());
+
+        if (current != null) {
+            // Only the version is read unless there is a newer payload to load
+            Long latestVersion = snapshotRepository.findLatestVersion(type.getKey());
+            if (latestVersion == null || latestVersion <= current.getVersion()) {
+                return current;
+            }
+        }
+        SnapshotView persisted = snapshotRepository.findTopByReportKeyOrderByVersionDesc(type.getKey())
+                .map(SnapshotView::new)
+                .orElse(null);
+        if (persisted == null) {
+            return current;
+        }
+        logger.debug("Loaded stored snapshot {} v{}", type.getKey(), persisted.getVersion());
+        return latestSnapshots.merge(type, persisted, SnapshotView::newer);
+    }
+
+    private SnapshotView generateSnapshot(ReportType type) {
+        long startTime = System.currentTimeMillis();
+
+        Map<String, Object> report = runAsSystem(() -> readOnlyTransaction.execute(status ->
+                normalizeMap(buildReport(type))));
+
+        LocalDateTime generatedAt = LocalDateTime.now();
+        long generationMillis = System.currentTimeMillis() - startTime;
+
+        AnalyticsSnapshot saved = null;
+        for (int attempt = 1; saved == null; attempt++) {
+            try {
+                saved = storeSnapshot(type, report, generatedAt, generationMillis);
+            } catch (DataIntegrityViolationException e) {
+                // Another instance stored the same version first (uk_snapshot_report_version); take the next one
+                if (attempt >= MAX_VERSION_ATTEMPTS) {
+                    throw e;
+                }
+                logger.info("Snapshot {} version was taken by another instance, retrying", type.getKey());
+            }
+        }
+
+        logger.info("Generated analytics snapshot {} v{} in {} ms ({} bytes compressed)",
+                type.getKey(), saved.getVersion(), generationMillis, saved.getPayload().length);
+        return new SnapshotView(saved);
+    }
+
+    private AnalyticsSnapshot storeSnapshot(ReportType type, Map<String, Object> report,
+                                            LocalDateTime generatedAt, long generationMillis) {
+        return writeTransaction.execute(status -> {
+            Long latestVersion = snapshotRepository.findLatestVersion(type.getKey());
+            long version = latestVersion != null ? latestVersion + 1 : 1;
+
+            Map<String, Object> document = new LinkedHashMap<>();
+            document.put("reportKey", type.getKey());
+            document.put("version", version);
+            document.put("generatedAt", generatedAt);
+            document.put("generationMillis", generationMillis);
+            document.put("report", report);
+
+            byte[] json = toJson(document);
+            AnalyticsSnapshot snapshot = snapshotRepository.save(new AnalyticsSnapshot(
+                    type.getKey(), version, gzip(json), json.length, generatedAt, generationMillis));
+
+            if (version > retainedVersions) {
+                snapshotRepository.deleteVersionsUpTo(type.getKey(), version - retainedVersions);
+            }
+            return snapshot;
+        });
+    }
+
+    private Map<String, Object> buildReport(ReportType type) {
+        switch (type) {
+            case COMPREHENSIVE:
+                return analyticsService.getComprehensiveAnalytics();
+            case FINANCIAL:
+                return analyticsService.getFinancialAnalytics(12);
+            case FINES:
+                return analyticsService.getFineAnalytics(12);
+            default:
+                throw new IllegalArgumentException("Unsupported analytics report: " + type);
+        }
+    }
+
+    // AnalyticsService is admin-only; scheduled refreshes have no caller, so run under a system admin identity
+    private <T> T runAsSystem(Supplier<T> action) {
+        SecurityContext previous = SecurityContextHolder.getContext();
+        SecurityContext systemContext = SecurityContextHolder.createEmptyContext();
+        systemContext.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(
+                SYSTEM_PRINCIPAL, null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+        SecurityContextHolder.setContext(systemContext);
+        try {
+            return action.get();
+        } finally {
+            SecurityContextHolder.setContext(previous);
+        }
+    }
+
+    // Entities inside report rows are reduced to plain summaries so the snapshot is self-contained JSON
+    private Map<String, Object> normalizeMap(Map<?, ?> map) {
+        Map<String, Object> normalized = new LinkedHashMap<>();
+        map.forEach((key, value) -> normalized.put(String.valueOf(key), normalize(value)));
+        return normalized;
+    }
+
+    private Object normalize(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            return normalizeMap(map);
+        }
+        if (value instanceof Collection<?> collection) {
+            List<Object> list = new ArrayList<>(collection.size());
+            collection.forEach(item -> list.add(normalize(item)));
+            return list;
+        }
+        if (value instanceof Object[] array) {
+            List<Object> list = new ArrayList<>(array.length);
+            for (Object item : array) {
+                list.add(normalize(item));
+            }
+            return list;
+        }
+        if (value instanceof User user) {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("id", user.getId());
+            summary.put("name", user.getFullName());
+            summary.put("email", user.getEmail());
+            return summary;
+        }
+        if (value instanceof Book book) {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("id", book.getId());
+            summary.put("title", book.getTitle());
+            summary.put("author", book.getAuthor());
+            return summary;
+        }
+        if (value instanceof Category category) {
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("id", category.getId());
+            summary.put("name", category.getName());
+            return summary;
+        }
+        return value;
+    }
+
+    private byte[] toJson(Object document) {
+        try {
+            return objectMapper.writeValueAsBytes(document);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serialize analytics snapshot", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(buffer)) {
+            gzipOut.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compress analytics snapshot", e);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] data) {
+        try (GZIPInputStream gzipIn = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return gzipIn.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decompress analytics snapshot", e);
+        }
+    }
+
+    // Immutable in-memory view of a stored snapshot
+    public static class SnapshotView {
+        private final String reportKey;
+        private final long version;
+        private final LocalDateTime generatedAt;
+        private final byte[] compressedJson;
+        private final int uncompressedSize;
+
+        public SnapshotView(AnalyticsSnapshot snapshot) {
+            this.reportKey = snapshot.getReportKey();
+            this.version = snapshot.getVersion();
+            this.generatedAt = snapshot.getGeneratedAt();
+            this.compressedJson = snapshot.getPayload();
+            this.uncompressedSize = snapshot.getUncompressedSize();
+        }
+
+        public String getReportKey() { return reportKey; }
+        public long getVersion() { return version; }
+        public LocalDateTime getGeneratedAt() { return generatedAt; }
+        public int getUncompressedSize() { return uncompressedSize; }
+
+        // Gzip-encoded JSON, suitable for sending with Content-Encoding: gzip
+        public byte[] getCompressedJson() { return compressedJson; }
+
+        public byte[] getJson() { return gunzip(compressedJson); }
+
+        private static SnapshotView newer(SnapshotView a, SnapshotView b) {
+            return b.version > a.version ? b : a;
+        }
+    }
+}
@@ -8,12 +8,15 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.librivault.dto.auth.JwtAuthenticationResponse;
 import com.librivault.dto.auth.LoginRequest;
@@ -22,10 +25,16 @@ import com.librivault.entity.Subscription;
 import com.librivault.entity.User;
 import com.librivault.entity.enums.Role;
 import com.librivault.entity.enums.SubscriptionType;
+import com.librivault.exception.PasswordHashingBusyException;
 import com.librivault.repository.UserRepository;
 import com.librivault.security.JwtTokenProvider;
+import com.librivault.security.TokenRevocationRegistry;
 import com.librivault.security.UserPrincipal;
 
+import io.jsonwebtoken.Claims;
+
+import jakarta.annotation.PostConstruct;
+
 @Service
 public class AuthenticationService {
     
@@ -46,6 +55,12 @@ public class AuthenticationService {
     @Autowired
     private NotificationService notificationService;
     
+    @Autowired
+    private TokenRevocationRegistry tokenRevocationRegistry;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
     @Value("${app.subscription.free.book-limit}")
     private Integer freeBookLimit;
     
@@ -55,7 +70,15 @@ public class AuthenticationService {
     @Value("${app.subscription.free.daily-fine}")
     private BigDecimal freeDailyFine;
     
-    @Transactional
+    private TransactionTemplate writeTransaction;
+    
+    @PostConstruct
+    public void init() {
+        writeTransaction = new TransactionTemplate(transactionManager);
+    }
+    
+    // Password hashing waits for a BoundedPasswordEncoder slot, so registration and login
+    // hash outside any transaction; a login spike must not hold pooled connections while queued
     public JwtAuthenticationResponse registerUser(RegisterRequest registerRequest) {
         logger.info("Registering new user with email: {}", registerRequest.getEmail());
         
@@ -64,21 +87,26 @@ public class AuthenticationService {
             throw new RuntimeException("Email address already in use!");
         }
         
-        // Create new user
-        User user = new User();
-        user.setFirstName(registerRequest.getFirstName());
-        user.setLastName(registerRequest.getLastName());
-        user.setEmail(registerRequest.getEmail());
-        user.setPassword(passwordEncoder.encode(registerRequest.getPassword()));
-        user.setRole(Role.READER); // Default role
-        user.setActive(true);
-        user.setReaderCredits(0);
+        String passwordHash = passwordEncoder.encode(registerRequest.getPassword());
         
-        // Save user
-        User savedUser = userRepository.save(user);
-        
-        // Create default free subscription
-        createDefaultSubscription(savedUser);
+        User savedUser = writeTransaction.execute(status -> {
+            // Create new user
+            User user = new User();
+            user.setFirstName(registerRequest.getFirstName());
+            user.setLastName(registerRequest.getLastName());
+            user.setEmail(registerRequest.getEmail());
+            user.setPassword(passwordHash);
+            user.setRole(Role.READER); // Default role
+            user.setActive(true);
+            user.setReaderCredits(0);
+            
+            // Save user
+            User saved = userRepository.save(user);
+            
+            // Create default free subscription
+            createDefaultSubscription(saved);
+            return saved;
+        });
         
         // Send welcome email
         try {
@@ -87,19 +115,18 @@ public class AuthenticationService {
             logger.warn("Failed to send welcome email to user: {}", savedUser.getEmail(), e);
         }
         
-        // Authenticate the newly registered user
-        Authentication authentication = authenticationManager.authenticate(
-            new UsernamePasswordAuthenticationToken(
-                registerRequest.getEmail(),
-                registerRequest.getPassword()
-            )
+        // The password was hashed a moment ago, so issue the token directly instead of verifying it again
+        String jwt = tokenProvider.generateTokenFromUserId(
+            savedUser.getId(),
+            savedUser.getEmail(),
+            savedUser.getRole().name(),
+            savedUser.getFirstName(),
+            savedUser.getLastName()
         );
         
-        String jwt = tokenProvider.generateToken(authentication);
-        
         logger.info("User registered successfully: {}", savedUser.getEmail());
         
-        return new JwtAuthenticationResponse(
+        return withRefreshToken(new JwtAuthenticationResponse(
             jwt,
             savedUser.getId(),
             savedUser.getEmail(),
@@ -107,19 +134,28 @@ public class AuthenticationService {
             savedUser.getLastName(),
             savedUser.getRole(),
             tokenProvider.getExpirationTimeInMs()
-        );
+        ));
     }
     
-    @Transactional
     public JwtAuthenticationResponse authenticateUser(LoginRequest loginRequest) {
         logger.info("Authenticating user: {}", loginRequest.getEmail());
         
-        Authentication authentication = authenticationManager.authenticate(
-            new UsernamePasswordAuthenticationToken(
-                loginRequest.getEmail(),
-                loginRequest.getPassword()
-            )
-        );
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(
+                    loginRequest.getEmail(),
+                    loginRequest.getPassword()
+                )
+            );
+        } catch (InternalAuthenticationServiceException e) {
+            // Hashing saturation normally propagates as is, but anything the user lookup throws
+            // reaches us wrapped in InternalAuthenticationServiceException; unwrap it there too
+            if (e.getCause() instanceof PasswordHashingBusyException) {
+                throw (PasswordHashingBusyException) e.getCause();
+            }
+            throw e;
+        }
         
         SecurityContextHolder.getContext().setAuthentication(authentication);
         
@@ -127,14 +163,11 @@ public class AuthenticationService {
         String jwt = tokenProvider.generateToken(authentication);
         
         // Update last login time
-        User user = userRepository.findById(userPrincipal.getId())
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        user.setLastLogin(LocalDateTime.now());
-        userRepository.save(user);
+        userRepository.updateLastLogin(userPrincipal.getId(), LocalDateTime.now());
         
         logger.info("User authenticated successfully: {}", loginRequest.getEmail());
         
-        return new JwtAuthenticationResponse(
+        return withRefreshToken(new JwtAuthenticationResponse(
             jwt,
             userPrincipal.getId(),
             userPrincipal.getEmail(),
@@ -142,17 +175,24 @@ public class AuthenticationService {
             userPrincipal.getLastName(),
             userPrincipal.getRole(),
             tokenProvider.getExpirationTimeInMs()
-        );
+        ));
     }
     
     public JwtAuthenticationResponse refreshToken(String token) {
         logger.info("Refreshing JWT token");
         
-        if (!tokenProvider.validateToken(token)) {
+        Claims claims = tokenProvider.getValidatedClaims(token);
+        // Checked in both modes: refresh tokens are issued either way and logout revokes them here
+        if (claims == null || tokenRevocationRegistry.isRevoked(claims)) {
             throw new RuntimeException("Invalid token");
         }
         
-        Long userId = tokenProvider.getUserIdFromToken(token);
+        // Short-lived access tokens must not be able to renew themselves indefinitely
+        if (tokenProvider.isStatelessAuthEnabled() && !tokenProvider.isRefreshToken(claims)) {
+            throw new RuntimeException("A refresh token is required");
+        }
+        
+        Long userId = Long.parseLong(claims.getSubject());
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
@@ -168,7 +208,7 @@ public class AuthenticationService {
             user.getLastName()
         );
         
-        return new JwtAuthenticationResponse(
+        JwtAuthenticationResponse response = new JwtAuthenticationResponse(
             newToken,
             user.getId(),
             user.getEmail(),
@@ -177,6 +217,14 @@ public class AuthenticationService {
             user.getRole(),
             tokenProvider.getExpirationTimeInMs()
         );
+        
+        if (tokenProvider.isRefreshToken(claims)) {
+            // Keep using the same refresh token until it expires
+            response.setRefreshToken(token);
+            response.setRefreshExpiresIn(claims.getExpiration().getTime() - System.currentTimeMillis());
+            return response;
+        }
+        return withRefreshToken(response);
     }
     
     public boolean validateToken(String token) {
@@ -196,6 +244,12 @@ public class AuthenticationService {
         return currentUser != null ? currentUser.getId() : null;
     }
     
+    private JwtAuthenticationResponse withRefreshToken(JwtAuthenticationResponse response) {
+        response.setRefreshToken(tokenProvider.generateRefreshToken(response.getUserId()));
+        response.setRefreshExpiresIn(tokenProvider.getRefreshExpirationTimeInMs());
+        return response;
+    }
+    
     private void createDefaultSubscription(User user) {
         Subscription subscription = new Subscription();
         subscription.setUser(user);
@@ -212,11 +266,15 @@ public class AuthenticationService {
     
     @Transactional
     public void logout(String token) {
-        // In a stateless JWT implementation, logout is typically handled client-side
-        // by removing the token. However, we can log the logout event.
+        // Tokens cannot be deleted, so revoke this one by its jti until it would have expired anyway.
+        // Clients revoke their refresh token the same way by presenting it here.
         try {
-            Long userId = tokenProvider.getUserIdFromToken(token);
-            logger.info("User logged out: {}", userId);
+            Claims claims = tokenProvider.getValidatedClaims(token);
+            if (claims == null) {
+                return;
+            }
+            tokenRevocationRegistry.revokeToken(claims.getId(), claims.getExpiration());
+            logger.info("User logged out: {}", claims.getSubject());
         } catch (Exception e) {
             logger.warn("Error processing logout: {}", e.getMessage());
         }
@@ -0,0 +1,123 @@
+package com.librivault.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads format, page count and checksum from a book file on local disk.
+ */
+@Component
+public class BookFileInspector {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookFileInspector.class);
+
+    public static final String FORMAT_PDF = "PDF";
+    public static final String FORMAT_EPUB = "EPUB";
+    public static final String FORMAT_ZIP = "ZIP";
+    public static final String FORMAT_UNKNOWN = "UNKNOWN";
+
+    private static final byte[] PDF_MAGIC = "%PDF".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ZIP_MAGIC = {'P', 'K', 3, 4};
+    private static final byte[] EPUB_MIMETYPE = "mimetypeapplication/epub+zip".getBytes(StandardCharsets.US_ASCII);
+
+    // EPUB is a zip whose first entry is an uncompressed "mimetype" file at a fixed offset
+    public String detectFormat(Path file) throws IOException {
+        byte[] header;
+        try (InputStream in = Files.newInputStream(file)) {
+            header = in.readNBytes(30 + EPUB_MIMETYPE.length);
+        }
+        if (startsWith(header, 0, PDF_MAGIC)) {
+            return FORMAT_PDF;
+        }
+        if (startsWith(header, 0, ZIP_MAGIC)) {
+            return startsWith(header, 30, EPUB_MIMETYPE) ? FORMAT_EPUB : FORMAT_ZIP;
+        }
+        return FORMAT_UNKNOWN;
+    }
+
+    /**
+     * Returns the page count for PDFs, or null for other formats and for PDFs that
+     * cannot be opened (e.g. password protected). Parsing buffers to temp files
+     * rather than the heap, so large scans do not need a large heap.
+     */
+    public Integer countPages(Path file, String format) {
+        if (!FORMAT_PDF.equals(format)) {
+            return null;
+        }
+        try (PDDocument document = Loader.loadPDF(file.toFile(), IOUtils.createTempFileOnlyStreamCache())) {
+            return document.getNumberOfPages();
+        } catch (IOException e) {
+            logger.warn("Could not read page count from {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    // Content type to record when the client did not send a usable one
+    public String contentTypeFor(String format, String declaredContentType) {
+        if (declaredContentType != null && !declaredContentType.isBlank()
+                && !"application/octet-stream".equals(declaredContentType)) {
+            return declaredContentType;
+        }
+        switch (format == null ? FORMAT_UNKNOWN : format) {
+            case FORMAT_PDF:
+                return "application/pdf";
+            case FORMAT_EPUB:
+                return "application/epub+zip";
+            case FORMAT_ZIP:
+                return "application/zip";
+            default:
+                return declaredContentType != null ? declaredContentType : "application/octet-stream";
+        }
+    }
+
+    public String sha256(Path file) throws IOException {
+        MessageDigest digest = newSha256();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // Storage key extension for content-addressed book files; follows the content, not the upload's file name
+    public String extensionFor(String format) {
+        switch (format == null ? FORMAT_UNKNOWN : format) {
+            case FORMAT_PDF:
+                return ".pdf";
+            case FORMAT_EPUB:
+                return ".epub";
+            case FORMAT_ZIP:
+                return ".zip";
+            default:
+                return "";
+        }
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static boolean startsWith(byte[] data, int offset, byte[] prefix) {
+        return data.length >= offset + prefix.length
+                && Arrays.equals(data, offset, offset + prefix.length, prefix, 0, prefix.length);
+    }
+}
@@ -0,0 +1,112 @@
+package com.librivault.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.librivault.repository.BookRepository;
+import com.librivault.storage.BookStorage;
+import com.librivault.storage.StoredObject;
+
+/**
+ * Periodically checks that book files still exist in storage, so requests can
+ * answer from the metadata stored on {@code Book} instead of asking storage.
+ * Files are checked oldest-verified first in small batches, one metadata call
+ * per file. Books created before file metadata was recorded get their size and
+ * content type filled in on the first check.
+ */
+@Service
+public class BookFileVerificationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookFileVerificationService.class);
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookStorage bookStorage;
+
+    @Value("${app.storage.verify.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.storage.verify.max-batches-per-run:10}")
+    private int maxBatchesPerRun;
+
+    @Value("${app.storage.verify.max-age-hours:24}")
+    private long maxAgeHours;
+
+    private final AtomicLong checked = new AtomicLong();
+    private final AtomicLong missing = new AtomicLong();
+    private volatile LocalDateTime lastRunAt;
+
+    @Scheduled(fixedDelayString = "${app.storage.verify.interval-ms:600000}",
+               initialDelayString = "${app.storage.verify.interval-ms:600000}")
+    public void verifyDueFiles() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(maxAgeHours);
+        int total = 0;
+
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            // Checked rows move past the cutoff, so the first page is always the next batch
+            List<Object[]> due = bookRepository.findFilesDueForVerification(cutoff, PageRequest.of(0, batchSize));
+            for (Object[] row : due) {
+                if (!verify((Long) row[0], (String) row[1], (Long) row[2])) {
+                    // Storage is unreachable; try again on the next run
+                    return;
+                }
+            }
+            total += due.size();
+            if (due.size() < batchSize) {
+                break;
+            }
+        }
+
+        lastRunAt = LocalDateTime.now();
+        if (total > 0) {
+            logger.info("Verified {} book file(s) in storage", total);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        return Map.of(
+                "checked", checked.get(),
+                "missing", missing.get(),
+                "lastRunAt", lastRunAt != null ? lastRunAt.toString() : "never");
+    }
+
+    private boolean verify(Long bookId, String uri, Long recordedSize) {
+        StoredObject stat;
+        try {
+            stat = bookStorage.stat(uri);
+        } catch (IllegalArgumentException e) {
+            // Malformed or belongs to another storage backend; this backend cannot serve it
+            logger.warn("File for book {} has an unusable URI: {}", bookId, e.getMessage());
+            stat = null;
+        } catch (Exception e) {
+            logger.warn("Could not check file for book {}: {}", bookId, e.getMessage());
+            return false;
+        }
+
+        checked.incrementAndGet();
+        if (stat == null) {
+            missing.incrementAndGet();
+            logger.warn("File for book {} is missing from storage: {}", bookId, uri);
+        } else if (recordedSize != null && recordedSize != stat.getSize()) {
+            logger.warn("File for book {} changed size in storage ({} -> {} bytes)", bookId, recordedSize, stat.getSize());
+        }
+
+        bookRepository.recordFileVerification(bookId, uri, stat != null,
+                stat != null ? stat.getSize() : null,
+                stat != null ? stat.getContentType() : null,
+                LocalDateTime.now());
+        return true;
+    }
+}
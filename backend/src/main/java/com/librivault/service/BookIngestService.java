@@ -0,0 +1,656 @@
+package com.librivault.service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+import java.util.stream.Collectors;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.librivault.dto.book.BookIngestJobResponse;
+import com.librivault.entity.Book;
+import com.librivault.entity.BookIngestJob;
+import com.librivault.entity.enums.IngestStatus;
+import com.librivault.event.CatalogChangedEvent;
+import com.librivault.repository.BookIngestJobRepository;
+import com.librivault.repository.BookRepository;
+import com.librivault.security.UserPrincipal;
+import com.librivault.storage.StoredObject;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs the slow part of adding or replacing book files in the background. The
+ * request only copies the uploaded files into a local staging directory and
+ * records a job; a worker then uploads them to book storage, checks the cover,
+ * reads the file format and page count, extracts the preview and attaches the
+ * results to the book, activating newly created books once their files are in place.
+ *
+ * Jobs live in the database, so queued work survives a restart as long as the
+ * staging directory does. With several instances the staging directory must be
+ * shared, otherwise jobs staged on another instance fail with a missing file.
+ */
+@Service
+public class BookIngestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookIngestService.class);
+
+    private static final Set<IngestStatus> UNFINISHED =
+            EnumSet.of(IngestStatus.QUEUED, IngestStatus.UPLOADING, IngestStatus.PROCESSING);
+
+    // Share of the progress bar given to the book file upload; the rest covers the cover image and finishing
+    private static final int BOOK_FILE_PROGRESS_SHARE = 90;
+    private static final int PROGRESS_PERSIST_STEP = 5;
+
+    @Autowired
+    private BookIngestJobRepository jobRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private S3Service s3Service;
+
+    @Autowired
+    private BookFileInspector fileInspector;
+
+    @Autowired
+    private CoverRenditionService coverRenditionService;
+
+    @Autowired
+    private BookPreviewService previewService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.ingest.staging-dir:./storage/ingest-staging}")
+    private String stagingDir;
+
+    @Value("${app.ingest.workers:2}")
+    private int workers;
+
+    @Value("${app.ingest.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${app.ingest.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.ingest.stale-minutes:30}")
+    private long staleMinutes;
+
+    private Path stagingRoot;
+    private ThreadPoolExecutor executor;
+    private TransactionTemplate writeTransaction;
+
+    // Jobs submitted to this instance's executor, to avoid submitting the same job twice
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    // Bytes read so far for jobs that are uploading on this instance
+    private final Map<Long, AtomicLong> liveBytes = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() throws IOException {
+        stagingRoot = Paths.get(stagingDir).toAbsolutePath().normalize();
+        Files.createDirectories(stagingRoot);
+
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "book-ingest-" + threadNumber.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        writeTransaction = new TransactionTemplate(transactionManager);
+        logger.info("Book ingest staging directory at {} with {} workers", stagingRoot, workers);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    // Request side
+
+    /**
+     * Copies the uploaded files into the staging directory and returns an unsaved job
+     * describing them, or null when no files were submitted. Call before opening the
+     * transaction that saves the book; the request's temporary files are gone once it ends.
+     */
+    public BookIngestJob stage(MultipartFile bookFile, MultipartFile coverImage) {
+        boolean hasBookFile = bookFile != null && !bookFile.isEmpty();
+        boolean hasCoverImage = coverImage != null && !coverImage.isEmpty();
+        if (!hasBookFile && !hasCoverImage) {
+            return null;
+        }
+
+        BookIngestJob job = new BookIngestJob();
+        try {
+            if (hasBookFile) {
+                Path staged = stageFile(bookFile, ".book");
+                job.setStagedBookFile(staged.toString());
+                job.setBookFileName(bookFile.getOriginalFilename());
+                job.setBookFileContentType(bookFile.getContentType());
+                job.setBookFileSize(bookFile.getSize());
+            }
+            if (hasCoverImage) {
+                Path staged = stageFile(coverImage, ".cover");
+                job.setStagedCoverImage(staged.toString());
+                job.setCoverImageName(coverImage.getOriginalFilename());
+                job.setCoverImageContentType(coverImage.getContentType());
+                job.setCoverImageSize(coverImage.getSize());
+            }
+        } catch (IOException e) {
+            discardStagedFiles(job);
+            throw new RuntimeException("Failed to stage uploaded files", e);
+        }
+        return job;
+    }
+
+    /**
+     * Saves a staged job for the book. Runs in the caller's transaction so the job
+     * only exists if the book change commits. Earlier unfinished jobs for the same
+     * book are cancelled so an older upload cannot overwrite a newer one.
+     */
+    public BookIngestJob enqueue(BookIngestJob job, Long bookId, boolean activateOnComplete) {
+        jobRepository.cancelByBookIdAndStatusIn(bookId, UNFINISHED);
+
+        job.setBookId(bookId);
+        job.setActivateOnComplete(activateOnComplete);
+        job.setRequestedBy(currentUserId());
+        job.setStatus(IngestStatus.QUEUED);
+        return jobRepository.save(job);
+    }
+
+    /**
+     * Hands a committed job to a worker. If the queue is full the job stays queued
+     * and the periodic dispatcher picks it up.
+     */
+    public void dispatch(Long jobId) {
+        if (!inFlight.add(jobId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    process(jobId);
+                } finally {
+                    inFlight.remove(jobId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(jobId);
+            logger.warn("Ingest queue full, job {} will be dispatched later", jobId);
+        }
+    }
+
+    public void cancelJobsForBook(Long bookId) {
+        int cancelled = jobRepository.cancelByBookIdAndStatusIn(bookId, UNFINISHED);
+        if (cancelled > 0) {
+            logger.info("Cancelled {} ingest job(s) for book {}", cancelled, bookId);
+        }
+    }
+
+    public void discardStagedFiles(BookIngestJob job) {
+        deleteStaged(job.getStagedBookFile());
+        deleteStaged(job.getStagedCoverImage());
+    }
+
+    // Status
+
+    @PreAuthorize("hasRole('ADMIN') or hasRole('LIBRARIAN')")
+    public BookIngestJobResponse getJob(Long jobId) {
+        BookIngestJob job = jobRepository.findById(jobId)
+                .orElseThrow(() -> new RuntimeException("Ingest job not found with id: " + jobId));
+        return convertToResponse(job);
+    }
+
+    @PreAuthorize("hasRole('ADMIN') or hasRole('LIBRARIAN')")
+    public List<BookIngestJobResponse> getJobsForBook(Long bookId) {
+        return jobRepository.findByBookIdOrderByCreatedAtDesc(bookId).stream()
+                .map(this::convertToResponse)
+                .collect(Collectors.toList());
+    }
+
+    public Map<String, Object> getStats() {
+        return Map.of(
+                "workers", workers,
+                "active", executor.getActiveCount(),
+                "queued", executor.getQueue().size(),
+                "queueCapacity", queueCapacity,
+                "completed", executor.getCompletedTaskCount());
+    }
+
+    // Dispatching
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        dispatchPendingJobs();
+    }
+
+    @Scheduled(fixedDelayString = "${app.ingest.dispatch-interval-ms:15000}",
+               initialDelayString = "${app.ingest.dispatch-interval-ms:15000}")
+    public void dispatchPendingJobs() {
+        LocalDateTime now = LocalDateTime.now();
+        int requeued = jobRepository.requeueStale(now.minusMinutes(staleMinutes), now);
+        if (requeued > 0) {
+            logger.warn("Re-queued {} ingest job(s) that stopped reporting progress", requeued);
+        }
+
+        for (BookIngestJob job : jobRepository.findByStatusInOrderByCreatedAtAsc(EnumSet.of(IngestStatus.QUEUED))) {
+            if (executor.getQueue().remainingCapacity() == 0) {
+                break;
+            }
+            dispatch(job.getId());
+        }
+    }
+
+    // Worker side
+
+    private void process(Long jobId) {
+        if (jobRepository.claim(jobId, LocalDateTime.now()) == 0) {
+            return;
+        }
+        BookIngestJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+
+        IngestResult result = new IngestResult();
+        try {
+            Book book = bookRepository.findById(job.getBookId())
+                    .orElseThrow(() -> new IllegalStateException("Book " + job.getBookId() + " no longer exists"));
+
+            if (job.getStagedBookFile() != null) {
+                Path staged = requireStaged(job.getStagedBookFile());
+                result.detectedFormat = fileInspector.detectFormat(staged);
+                result.fileSha256 = fileInspector.sha256(staged);
+                if (book.getS3Uri() != null && result.fileSha256.equals(book.getFileSha256())) {
+                    // Same content as the current file: nothing to upload, replace or re-render
+                    result.bookFileUnchanged = true;
+                    logger.info("Ingest job {}: book file is unchanged, skipping upload", jobId);
+                } else {
+                    result.bookFile = uploadBookFile(job, staged, result.fileSha256, result.detectedFormat);
+                    result.pageCount = fileInspector.countPages(staged, result.detectedFormat);
+                    result.preview = createPreview(jobId, staged, result, book.getTitle());
+                }
+            }
+
+            jobRepository.updateProgress(jobId, IngestStatus.PROCESSING, BOOK_FILE_PROGRESS_SHARE, LocalDateTime.now());
+
+            if (job.getStagedCoverImage() != null) {
+                Path staged = requireStaged(job.getStagedCoverImage());
+                checkCoverImage(staged);
+                try (InputStream in = Files.newInputStream(staged)) {
+                    result.coverImage = s3Service.uploadCoverImage(in, Files.size(staged), job.getCoverImageContentType(),
+                            job.getCoverImageName(), book.getTitle());
+                }
+                result.renditions = createRenditions(jobId, staged);
+            }
+
+            if (attach(jobId, result)) {
+                result.replacedUris.forEach(this::deleteQuietly);
+                coverRenditionService.deleteIfUnreferenced(result.replacedRenditionUris);
+                discardStagedFiles(job);
+                logger.info("Ingest job {} completed for book {}", jobId, job.getBookId());
+            } else {
+                discardUploads(result);
+                discardStagedFiles(job);
+                logger.info("Ingest job {} was cancelled, discarded its uploads", jobId);
+            }
+        } catch (Exception e) {
+            logger.error("Ingest job {} failed: {}", jobId, e.getMessage(), e);
+            discardUploads(result);
+            fail(job, e);
+        } finally {
+            liveBytes.remove(jobId);
+        }
+    }
+
+    // A cover that cannot be resized is still served as the original, so this never fails the job
+    private Map<CoverRenditionService.Size, String> createRenditions(Long jobId, Path cover) {
+        try {
+            return coverRenditionService.createRenditions(cover);
+        } catch (Exception e) {
+            logger.warn("Ingest job {} could not create cover renditions: {}", jobId, e.getMessage());
+            return Map.of();
+        }
+    }
+
+    // Without a preview the book file is served as its preview, so this never fails the job either
+    private BookPreviewService.Preview createPreview(Long jobId, Path bookFile, IngestResult result, String bookTitle) {
+        try {
+            return previewService.createPreview(bookFile, result.detectedFormat, result.pageCount, bookTitle);
+        } catch (Exception e) {
+            logger.warn("Ingest job {} could not create a preview: {}", jobId, e.getMessage());
+            return null;
+        }
+    }
+
+    private void discardUploads(IngestResult result) {
+        deleteQuietly(result.bookFile);
+        deleteQuietly(result.coverImage);
+        if (result.preview != null) {
+            deleteQuietly(result.preview.getStored());
+        }
+        // Renditions may be shared with other books that have the same cover
+        coverRenditionService.deleteIfUnreferenced(result.renditions.values());
+    }
+
+    private StoredObject uploadBookFile(BookIngestJob job, Path staged, String sha256, String format) throws IOException {
+        long size = Files.size(staged);
+        AtomicLong bytes = new AtomicLong();
+        liveBytes.put(job.getId(), bytes);
+        AtomicInteger persistedPercent = new AtomicInteger();
+
+        LongConsumer onProgress = read -> {
+            long total = bytes.addAndGet(read);
+            int percent = size == 0 ? BOOK_FILE_PROGRESS_SHARE : (int) (total * BOOK_FILE_PROGRESS_SHARE / size);
+            int last = persistedPercent.get();
+            // Only write to the database every few percent; the live byte count covers the rest
+            if (percent - last >= PROGRESS_PERSIST_STEP && persistedPercent.compareAndSet(last, percent)) {
+                jobRepository.updateProgress(job.getId(), IngestStatus.UPLOADING, percent, LocalDateTime.now());
+            }
+        };
+
+        // Only opened if no identical file is stored yet
+        return s3Service.uploadBookFileDeduplicated(sha256, size, job.getBookFileContentType(),
+                fileInspector.extensionFor(format),
+                () -> new ProgressInputStream(Files.newInputStream(staged), onProgress));
+    }
+
+    // Attaches the stored files to the book; returns false if the job was cancelled meanwhile
+    private boolean attach(Long jobId, IngestResult result) {
+        return writeTransaction.execute(status -> {
+            BookIngestJob job = jobRepository.findById(jobId).orElse(null);
+            if (job == null || job.getStatus() == IngestStatus.CANCELLED) {
+                return false;
+            }
+            Book book = bookRepository.findById(job.getBookId()).orElse(null);
+            if (book == null) {
+                job.setStatus(IngestStatus.CANCELLED);
+                return false;
+            }
+
+            StoredObject bookFile = result.bookFile;
+            if (bookFile != null) {
+                if (book.getS3Uri() != null) {
+                    result.replacedUris.add(book.getS3Uri());
+                }
+                book.setS3Uri(bookFile.getUri());
+                // Recorded here so metadata reads never need to ask storage
+                book.setFileSize(bookFile.getSize());
+                book.setFileContentType(fileInspector.contentTypeFor(result.detectedFormat, bookFile.getContentType()));
+                book.setFileSha256(bookFile.getSha256());
+                book.setPageCount(result.pageCount);
+                book.setFileAvailable(true);
+                book.setFileVerifiedAt(LocalDateTime.now());
+
+                if (book.getPreviewUri() != null) {
+                    result.replacedUris.add(book.getPreviewUri());
+                }
+                BookPreviewService.Preview preview = result.preview;
+                book.setPreviewUri(preview != null ? preview.getStored().getUri() : null);
+                // Left unset for PDFs whose preview failed, so the backfill tries again
+                book.setPreviewPageCount(preview != null ? preview.getPageCount()
+                        : BookFileInspector.FORMAT_PDF.equals(result.detectedFormat) ? null : 0);
+                job.setBookFileUri(bookFile.getUri());
+                job.setFileSha256(bookFile.getSha256());
+            } else if (result.bookFileUnchanged) {
+                job.setBookFileUri(book.getS3Uri());
+                job.setFileSha256(result.fileSha256);
+            }
+            if (result.coverImage != null) {
+                if (book.getCoverImageUri() != null) {
+                    result.replacedUris.add(book.getCoverImageUri());
+                }
+                book.setCoverImageUri(result.coverImage.getUri());
+                job.setCoverImageUri(result.coverImage.getUri());
+
+                // Old renditions are dropped even if none could be made, so they never show a stale cover
+                result.replacedRenditionUris.add(book.getCoverThumbnailUri());
+                result.replacedRenditionUris.add(book.getCoverCardUri());
+                result.replacedRenditionUris.add(book.getCoverDetailUri());
+                book.setCoverThumbnailUri(result.renditions.get(CoverRenditionService.Size.THUMBNAIL));
+                book.setCoverCardUri(result.renditions.get(CoverRenditionService.Size.CARD));
+                book.setCoverDetailUri(result.renditions.get(CoverRenditionService.Size.DETAIL));
+            }
+            if (Boolean.TRUE.equals(job.getActivateOnComplete())) {
+                book.setActive(true);
+            }
+            bookRepository.save(book);
+            eventPublisher.publishEvent(CatalogChangedEvent.book(book.getId()));
+
+            job.setDetectedFormat(result.detectedFormat);
+            job.setStatus(IngestStatus.COMPLETED);
+            job.setProgressPercent(100);
+            job.setStagedBookFile(null);
+            job.setStagedCoverImage(null);
+            job.setCompletedAt(LocalDateTime.now());
+            jobRepository.save(job);
+            return true;
+        });
+    }
+
+    private void fail(BookIngestJob failedJob, Exception cause) {
+        boolean retry = writeTransaction.execute(status -> {
+            BookIngestJob job = jobRepository.findById(failedJob.getId()).orElse(null);
+            if (job == null || job.getStatus() == IngestStatus.CANCELLED) {
+                return false;
+            }
+            job.setErrorMessage(cause.getMessage());
+            // Missing staged files cannot be fixed by retrying
+            boolean retryable = job.getAttempts() < maxAttempts && !(cause instanceof StagedFileMissingException);
+            if (retryable) {
+                job.setStatus(IngestStatus.QUEUED);
+            } else {
+                job.setStatus(IngestStatus.FAILED);
+                job.setCompletedAt(LocalDateTime.now());
+            }
+            jobRepository.save(job);
+            return retryable;
+        });
+        if (!retry) {
+            discardStagedFiles(failedJob);
+        }
+    }
+
+    // Metadata and validation
+
+    // Reads only the image header, so large covers are not decoded here
+    private void checkCoverImage(Path file) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                // Formats without an ImageIO reader (e.g. WebP) are stored as they are
+                logger.debug("No image reader for cover {}, skipping check", file);
+                return;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in);
+                if (reader.getWidth(0) <= 0 || reader.getHeight(0) <= 0) {
+                    throw new IllegalArgumentException("Cover image has no pixels");
+                }
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Cover image is corrupt: " + e.getMessage(), e);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Helpers
+
+    private Path stageFile(MultipartFile file, String suffix) throws IOException {
+        Path target = stagingRoot.resolve(UUID.randomUUID() + suffix);
+        file.transferTo(target);
+        return target;
+    }
+
+    private Path requireStaged(String stagedPath) {
+        Path path = Paths.get(stagedPath);
+        if (!Files.isRegularFile(path)) {
+            throw new StagedFileMissingException("Staged file is missing: " + stagedPath);
+        }
+        return path;
+    }
+
+    private void deleteStaged(String stagedPath) {
+        if (stagedPath == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(Paths.get(stagedPath));
+        } catch (IOException e) {
+            logger.warn("Failed to delete staged file {}: {}", stagedPath, e.getMessage());
+        }
+    }
+
+    private void deleteQuietly(StoredObject stored) {
+        if (stored != null) {
+            deleteQuietly(stored.getUri());
+        }
+    }
+
+    private void deleteQuietly(String uri) {
+        try {
+            s3Service.deleteFile(uri);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to delete file {}: {}", uri, e.getMessage());
+        }
+    }
+
+    private Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getId();
+        }
+        return null;
+    }
+
+    private BookIngestJobResponse convertToResponse(BookIngestJob job) {
+        BookIngestJobResponse response = new BookIngestJobResponse();
+        response.setId(job.getId());
+        response.setBookId(job.getBookId());
+        response.setStatus(job.getStatus().name());
+        response.setProgressPercent(job.getProgressPercent());
+        response.setBytesTotal(job.getBookFileSize());
+        AtomicLong bytes = liveBytes.get(job.getId());
+        if (bytes != null) {
+            response.setBytesProcessed(bytes.get());
+        } else if (job.getStatus() == IngestStatus.COMPLETED) {
+            response.setBytesProcessed(job.getBookFileSize());
+        }
+        response.setBookFileUri(job.getBookFileUri());
+        response.setCoverImageUri(job.getCoverImageUri());
+        response.setFileSha256(job.getFileSha256());
+        response.setDetectedFormat(job.getDetectedFormat());
+        response.setErrorMessage(job.getErrorMessage());
+        response.setCreatedAt(job.getCreatedAt());
+        response.setUpdatedAt(job.getUpdatedAt());
+        response.setCompletedAt(job.getCompletedAt());
+        return response;
+    }
+
+    // What a worker produced for one job, including what must be cleaned up afterwards
+    private static class IngestResult {
+        StoredObject bookFile;
+        StoredObject coverImage;
+        Map<CoverRenditionService.Size, String> renditions = Map.of();
+        BookPreviewService.Preview preview;
+        String detectedFormat;
+        String fileSha256;
+        boolean bookFileUnchanged;
+        Integer pageCount;
+        final List<String> replacedUris = new ArrayList<>();
+        final List<String> replacedRenditionUris = new ArrayList<>();
+    }
+
+    private static class StagedFileMissingException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        StagedFileMissingException(String message) {
+            super(message);
+        }
+    }
+
+    // Reports how many bytes have been read so upload progress can be shown
+    private static class ProgressInputStream extends FilterInputStream {
+
+        private final LongConsumer onRead;
+
+        ProgressInputStream(InputStream in, LongConsumer onRead) {
+            super(in);
+            this.onRead = onRead;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                onRead.accept(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                onRead.accept(n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            if (skipped > 0) {
+                onRead.accept(skipped);
+            }
+            return skipped;
+        }
+    }
+}
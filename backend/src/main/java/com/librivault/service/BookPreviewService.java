@@ -0,0 +1,202 @@
+package com.librivault.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.multipdf.Splitter;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.librivault.repository.BookRepository;
+import com.librivault.storage.BookStorage;
+import com.librivault.storage.ObjectDiskCache;
+import com.librivault.storage.StoredObject;
+
+/**
+ * Builds the small PDF served as a book's public preview: the first few pages of
+ * the book file, stored as a separate object so browsing visitors never download
+ * the whole book. Previews are made during ingest; books added before that, or
+ * whose preview could not be made at the time, are handled by a periodic backfill
+ * that reads the book file through the local object cache.
+ *
+ * Only PDFs get a preview. {@code previewPageCount} is 0 for books that cannot have one,
+ * including books whose file is missing from storage, so the backfill does not keep
+ * retrying them. The backfill only stops early when storage cannot be reached.
+ */
+@Service
+public class BookPreviewService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookPreviewService.class);
+
+    @Autowired
+    private S3Service s3Service;
+
+    @Autowired
+    private BookFileInspector fileInspector;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookStorage bookStorage;
+
+    @Value("${app.previews.pages:5}")
+    private int previewPages;
+
+    // When above 0, the preview is this share of the book instead of a fixed page count
+    @Value("${app.previews.percent:0}")
+    private int previewPercent;
+
+    @Value("${app.previews.max-pages:50}")
+    private int maxPreviewPages;
+
+    @Value("${app.previews.backfill.batch-size:20}")
+    private int backfillBatchSize;
+
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+
+    public static class Preview {
+        private final StoredObject stored;
+        private final int pageCount;
+
+        Preview(StoredObject stored, int pageCount) {
+            this.stored = stored;
+            this.pageCount = pageCount;
+        }
+
+        public StoredObject getStored() {
+            return stored;
+        }
+
+        public int getPageCount() {
+            return pageCount;
+        }
+    }
+
+    /**
+     * Extracts and stores the preview of a local book file, or returns null when the
+     * file is not a PDF with pages.
+     */
+    public Preview createPreview(Path source, String format, Integer pageCount, String bookTitle) throws IOException {
+        if (!BookFileInspector.FORMAT_PDF.equals(format) || pageCount == null || pageCount <= 0) {
+            return null;
+        }
+        int pages = pagesFor(pageCount);
+
+        Path temp = Files.createTempFile("preview-", ".pdf");
+        try {
+            // Splitter copies only what the selected pages use and drops links to the rest of the book
+            try (PDDocument document = Loader.loadPDF(source.toFile(), IOUtils.createTempFileOnlyStreamCache())) {
+                Splitter splitter = new Splitter();
+                splitter.setStreamCacheCreateFunction(IOUtils.createTempFileOnlyStreamCache());
+                splitter.setStartPage(1);
+                splitter.setEndPage(pages);
+                splitter.setSplitAtPage(pages);
+                List<PDDocument> parts = splitter.split(document);
+                try (PDDocument preview = parts.get(0)) {
+                    preview.save(temp.toFile());
+                }
+            }
+
+            StoredObject stored;
+            try (InputStream in = Files.newInputStream(temp)) {
+                stored = s3Service.uploadPreviewFile(in, Files.size(temp), bookTitle);
+            }
+            created.incrementAndGet();
+            logger.info("Created {}-page preview for \"{}\" ({} bytes)", pages, bookTitle, stored.getSize());
+            return new Preview(stored, pages);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.previews.backfill.interval-ms:300000}",
+               initialDelayString = "${app.previews.backfill.interval-ms:300000}")
+    public void backfillPreviews() {
+        // [id, s3Uri, title, pageCount]
+        List<Object[]> due = bookRepository.findBooksWithoutPreview(PageRequest.of(0, backfillBatchSize));
+        for (Object[] row : due) {
+            if (!backfill((Long) row[0], (String) row[1], (String) row[2], (Integer) row[3])) {
+                // Storage is unreachable; try again on the next run
+                return;
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        return Map.of(
+                "created", created.get(),
+                "skipped", skipped.get());
+    }
+
+    private boolean backfill(Long bookId, String s3Uri, String title, Integer pageCount) {
+        ObjectDiskCache.Lease file;
+        try {
+            file = s3Service.getLocalCopy(s3Uri);
+        } catch (Exception e) {
+            if (!isMissing(s3Uri)) {
+                logger.warn("Could not fetch file of book {} for its preview: {}", bookId, e.getMessage());
+                return false;
+            }
+            logger.warn("File of book {} is missing from storage, it gets no preview", bookId);
+            skipped.incrementAndGet();
+            bookRepository.recordPreview(bookId, s3Uri, null, 0, pageCount);
+            return true;
+        }
+
+        Preview preview = null;
+        try (file) {
+            String format = fileInspector.detectFormat(file.getPath());
+            if (pageCount == null) {
+                pageCount = fileInspector.countPages(file.getPath(), format);
+            }
+            preview = createPreview(file.getPath(), format, pageCount, title);
+        } catch (Exception e) {
+            logger.warn("Could not create preview for book {}: {}", bookId, e.getMessage());
+        }
+
+        if (preview == null) {
+            skipped.incrementAndGet();
+        }
+        int updated = bookRepository.recordPreview(bookId, s3Uri,
+                preview != null ? preview.getStored().getUri() : null,
+                preview != null ? preview.getPageCount() : 0,
+                pageCount);
+        if (updated == 0 && preview != null) {
+            // The book file was replaced meanwhile; ingest makes the new file's preview
+            s3Service.deleteFile(preview.getStored().getUri());
+        }
+        return true;
+    }
+
+    // Only true when storage answers that the object is not there; unreachable storage is not proof of that
+    private boolean isMissing(String uri) {
+        try {
+            return bookStorage.stat(uri) == null;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private int pagesFor(int pageCount) {
+        int pages = previewPages;
+        if (previewPercent > 0) {
+            pages = Math.min(maxPreviewPages, (int) Math.ceil(pageCount * previewPercent / 100.0));
+        }
+        return Math.max(1, Math.min(pages, pageCount));
+    }
+}
@@ -1,31 +1,48 @@
 package com.librivault.service;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.librivault.dto.book.BookRequest;
 import com.librivault.dto.book.BookResponse;
 import com.librivault.entity.Book;
+import com.librivault.entity.BookIngestJob;
 import com.librivault.entity.Category;
 import com.librivault.entity.User;
+import com.librivault.event.CatalogChangedEvent;
 import com.librivault.repository.BookRepository;
 import com.librivault.repository.CategoryRepository;
 import com.librivault.repository.UserRepository;
 import com.librivault.security.UserPrincipal;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+
 @Service
 public class BookService {
     
@@ -43,19 +60,44 @@ public class BookService {
     @Autowired
     private S3Service s3Service;
     
+    @Autowired
+    private BookIngestService bookIngestService;
+    
+    @Autowired
+    private CoverRenditionService coverRenditionService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    private TransactionTemplate writeTransaction;
+    
+    @PostConstruct
+    public void init() {
+        writeTransaction = new TransactionTemplate(transactionManager);
+    }
+    
     // Public book browsing (no authentication required)
+    @Transactional(readOnly = true)
     public Page<BookResponse> getAllBooks(Pageable pageable) {
         logger.info("Fetching all active books with pagination");
         return bookRepository.findByActiveTrue(pageable)
                 .map(this::convertToBookResponse);
     }
     
+    @Transactional(readOnly = true)
     public Page<BookResponse> getAvailableBooks(Pageable pageable) {
         logger.info("Fetching available books with pagination");
         return bookRepository.findAvailableBooks(pageable)
                 .map(this::convertToBookResponse);
     }
     
+    @Transactional(readOnly = true)
     public BookResponse getBookById(Long bookId) {
         logger.info("Fetching book by ID: {}", bookId);
         Book book = bookRepository.findByIdAndActiveTrue(bookId)
@@ -63,24 +105,28 @@ public class BookService {
         return convertToBookResponse(book);
     }
     
+    @Transactional(readOnly = true)
     public Page<BookResponse> getBooksByCategory(Long categoryId, Pageable pageable) {
         logger.info("Fetching books by category: {}", categoryId);
         return bookRepository.findByCategoryIdAndActiveTrue(categoryId, pageable)
                 .map(this::convertToBookResponse);
     }
     
+    @Transactional(readOnly = true)
     public Page<BookResponse> searchBooks(String search, Pageable pageable) {
         logger.info("Searching books with query: {}", search);
         return bookRepository.searchBooks(search, pageable)
                 .map(this::convertToBookResponse);
     }
     
+    @Transactional(readOnly = true)
     public Page<BookResponse> searchBooksInCategory(String search, Long categoryId, Pageable pageable) {
         logger.info("Searching books in category {} with query: {}", categoryId, search);
         return bookRepository.searchBooksInCategory(search, categoryId, pageable)
                 .map(this::convertToBookResponse);
     }
     
+    @Transactional(readOnly = true)
     public Page<BookResponse> filterBooks(Long categoryId, String author, Integer year, 
                                          boolean availableOnly, Pageable pageable) {
         logger.info("Filtering books with category: {}, author: {}, year: {}, availableOnly: {}", 
@@ -89,12 +135,22 @@ public class BookService {
                 .map(this::convertToBookResponse);
     }
     
+    // Current state of the given books that are in the catalog; used by catalog sync
+    @Transactional(readOnly = true)
+    public List<BookResponse> getActiveBooksByIds(Collection<Long> bookIds) {
+        return bookRepository.findAllById(bookIds).stream()
+                .filter(book -> Boolean.TRUE.equals(book.getActive()))
+                .map(this::convertToBookResponse)
+                .collect(Collectors.toList());
+    }
+    
+    @Transactional(readOnly = true)
     public List<String> getDistinctAuthors() {
         logger.info("Fetching distinct authors");
         return bookRepository.findDistinctAuthors();
     }
     
-    // Preview functionality (public access - first 5 pages only)
+    // Preview functionality (public access - first pages only)
     public String getBookPreviewUrl(Long bookId) {
         logger.info("Generating preview URL for book: {}", bookId);
         Book book = bookRepository.findByIdAndActiveTrue(bookId)
@@ -104,8 +160,8 @@ public class BookService {
             throw new RuntimeException("Book PDF not available for preview");
         }
         
-        // Same PDF file, but frontend will limit to first 5 pages for preview
-        return s3Service.generatePreviewUrl(book.getS3Uri());
+        // The small preview file when there is one, otherwise the book file itself
+        return s3Service.getPreviewUrl(book);
     }
     
     // Secure book access (requires authentication and borrow approval)
@@ -127,105 +183,139 @@ public class BookService {
     }
     
     // Book management (Admin/Librarian only)
+    // Submitted files are staged locally and handed to BookIngestService, so these
+    // return as soon as the metadata is saved. A new book with files stays inactive
+    // until its ingest job completes; an updated book keeps its old files until then.
     @PreAuthorize("hasRole('ADMIN') or hasRole('LIBRARIAN')")
-    @Transactional
     public BookResponse createBook(BookRequest bookRequest, MultipartFile bookFile, 
                                   MultipartFile coverImage) {
         logger.info("Creating new book: {}", bookRequest.getTitle());
         
         // Validate category
-        Category category = categoryRepository.findByIdAndActiveTrue(bookRequest.getCategoryId())
-                .orElseThrow(() -> new RuntimeException("Category not found with id: " + bookRequest.getCategoryId()));
+        if (categoryRepository.findByIdAndActiveTrue(bookRequest.getCategoryId()).isEmpty()) {
+            throw new RuntimeException("Category not found with id: " + bookRequest.getCategoryId());
+        }
         
         // Check ISBN uniqueness if provided
         if (bookRequest.getIsbn() != null && bookRepository.existsByIsbn(bookRequest.getIsbn())) {
             throw new RuntimeException("Book with ISBN " + bookRequest.getIsbn() + " already exists");
         }
         
-        // Create book entity
-        Book book = new Book();
-        book.setTitle(bookRequest.getTitle());
-        book.setAuthor(bookRequest.getAuthor());
-        book.setIsbn(bookRequest.getIsbn());
-        book.setDescription(bookRequest.getDescription());
-        book.setCategory(category);
-        book.setTotalCopies(bookRequest.getTotalCopies());
-        book.setAvailableCopies(bookRequest.getTotalCopies());
-        book.setPublishedDate(bookRequest.getPublishedDate());
-        book.setActive(true);
-        
-        // Upload files to S3
-        if (bookFile != null && !bookFile.isEmpty()) {
-            String s3Uri = s3Service.uploadBookFile(bookFile, book.getTitle());
-            book.setS3Uri(s3Uri);
+        BookIngestJob stagedJob = bookIngestService.stage(bookFile, coverImage);
+        BookResponse response;
+        try {
+            response = writeTransaction.execute(status -> {
+                Category category = categoryRepository.findByIdAndActiveTrue(bookRequest.getCategoryId())
+                        .orElseThrow(() -> new RuntimeException("Category not found with id: " + bookRequest.getCategoryId()));
+                
+                // Create book entity
+                Book book = new Book();
+                book.setTitle(bookRequest.getTitle());
+                book.setAuthor(bookRequest.getAuthor());
+                book.setIsbn(bookRequest.getIsbn());
+                book.setDescription(bookRequest.getDescription());
+                book.setCategory(category);
+                book.setTotalCopies(bookRequest.getTotalCopies());
+                book.setAvailableCopies(bookRequest.getTotalCopies());
+                book.setPublishedDate(bookRequest.getPublishedDate());
+                book.setActive(stagedJob == null);
+                
+                Book savedBook = bookRepository.save(book);
+                eventPublisher.publishEvent(CatalogChangedEvent.book(savedBook.getId()));
+                BookResponse bookResponse = convertToBookResponse(savedBook);
+                if (stagedJob != null) {
+                    BookIngestJob job = bookIngestService.enqueue(stagedJob, savedBook.getId(), true);
+                    bookResponse.setIngestJobId(job.getId());
+                    bookResponse.setIngestStatus(job.getStatus().name());
+                }
+                return bookResponse;
+            });
+        } catch (RuntimeException e) {
+            if (stagedJob != null) {
+                bookIngestService.discardStagedFiles(stagedJob);
+            }
+            throw e;
         }
         
-        if (coverImage != null && !coverImage.isEmpty()) {
-            String coverImageUri = s3Service.uploadCoverImage(coverImage, book.getTitle());
-            book.setCoverImageUri(coverImageUri);
+        if (response.getIngestJobId() != null) {
+            bookIngestService.dispatch(response.getIngestJobId());
         }
+        logger.info("Book created successfully with ID: {}", response.getId());
         
-        Book savedBook = bookRepository.save(book);
-        logger.info("Book created successfully with ID: {}", savedBook.getId());
-        
-        return convertToBookResponse(savedBook);
+        return response;
     }
     
     @PreAuthorize("hasRole('ADMIN') or hasRole('LIBRARIAN')")
-    @Transactional
     public BookResponse updateBook(Long bookId, BookRequest bookRequest, MultipartFile bookFile, 
                                   MultipartFile coverImage) {
         logger.info("Updating book: {}", bookId);
         
-        Book book = bookRepository.findById(bookId)
+        Book existing = bookRepository.findById(bookId)
                 .orElseThrow(() -> new RuntimeException("Book not found with id: " + bookId));
         
         // Validate category
-        Category category = categoryRepository.findByIdAndActiveTrue(bookRequest.getCategoryId())
-                .orElseThrow(() -> new RuntimeException("Category not found with id: " + bookRequest.getCategoryId()));
+        if (categoryRepository.findByIdAndActiveTrue(bookRequest.getCategoryId()).isEmpty()) {
+            throw new RuntimeException("Category not found with id: " + bookRequest.getCategoryId());
+        }
         
         // Check ISBN uniqueness if changed
-        if (bookRequest.getIsbn() != null && !bookRequest.getIsbn().equals(book.getIsbn()) 
+        if (bookRequest.getIsbn() != null && !bookRequest.getIsbn().equals(existing.getIsbn()) 
             && bookRepository.existsByIsbn(bookRequest.getIsbn())) {
             throw new RuntimeException("Book with ISBN " + bookRequest.getIsbn() + " already exists");
         }
         
-        // Update book details
-        book.setTitle(bookRequest.getTitle());
-        book.setAuthor(bookRequest.getAuthor());
-        book.setIsbn(bookRequest.getIsbn());
-        book.setDescription(bookRequest.getDescription());
-        book.setCategory(category);
-        book.setPublishedDate(bookRequest.getPublishedDate());
-        
-        // Update total copies (but maintain available copies logic)
-        int difference = bookRequest.getTotalCopies() - book.getTotalCopies();
-        book.setTotalCopies(bookRequest.getTotalCopies());
-        book.setAvailableCopies(Math.max(0, book.getAvailableCopies() + difference));
-        
-        // Update files if provided
-        if (bookFile != null && !bookFile.isEmpty()) {
-            // Delete old file if exists
-            if (book.getS3Uri() != null) {
-                s3Service.deleteFile(book.getS3Uri());
+        BookIngestJob stagedJob = bookIngestService.stage(bookFile, coverImage);
+        BookResponse response;
+        try {
+            response = writeTransaction.execute(status -> {
+                Book book = bookRepository.findByIdForUpdate(bookId)
+                        .orElseThrow(() -> new RuntimeException("Book not found with id: " + bookId));
+                Category category = categoryRepository.findByIdAndActiveTrue(bookRequest.getCategoryId())
+                        .orElseThrow(() -> new RuntimeException("Category not found with id: " + bookRequest.getCategoryId()));
+                
+                Long previousCategoryId = book.getCategory().getId();
+                
+                // Update book details
+                book.setTitle(bookRequest.getTitle());
+                book.setAuthor(bookRequest.getAuthor());
+                book.setIsbn(bookRequest.getIsbn());
+                book.setDescription(bookRequest.getDescription());
+                book.setCategory(category);
+                book.setPublishedDate(bookRequest.getPublishedDate());
+                
+                // Update total copies (but maintain available copies logic)
+                int difference = bookRequest.getTotalCopies() - book.getTotalCopies();
+                book.setTotalCopies(bookRequest.getTotalCopies());
+                book.setAvailableCopies(Math.max(0, book.getAvailableCopies() + difference));
+                
+                Book updatedBook = bookRepository.save(book);
+                eventPublisher.publishEvent(CatalogChangedEvent.book(bookId));
+                if (!previousCategoryId.equals(category.getId())) {
+                    // The old category's book counts changed too
+                    eventPublisher.publishEvent(CatalogChangedEvent.category(previousCategoryId));
+                }
+                BookResponse bookResponse = convertToBookResponse(updatedBook);
+                if (stagedJob != null) {
+                    // The worker swaps in the new files and removes the old ones
+                    BookIngestJob job = bookIngestService.enqueue(stagedJob, bookId, false);
+                    bookResponse.setIngestJobId(job.getId());
+                    bookResponse.setIngestStatus(job.getStatus().name());
+                }
+                return bookResponse;
+            });
+        } catch (RuntimeException e) {
+            if (stagedJob != null) {
+                bookIngestService.discardStagedFiles(stagedJob);
             }
-            String s3Uri = s3Service.uploadBookFile(bookFile, book.getTitle());
-            book.setS3Uri(s3Uri);
+            throw e;
         }
         
-        if (coverImage != null && !coverImage.isEmpty()) {
-            // Delete old cover if exists
-            if (book.getCoverImageUri() != null) {
-                s3Service.deleteFile(book.getCoverImageUri());
-            }
-            String coverImageUri = s3Service.uploadCoverImage(coverImage, book.getTitle());
-            book.setCoverImageUri(coverImageUri);
+        if (response.getIngestJobId() != null) {
+            bookIngestService.dispatch(response.getIngestJobId());
         }
-        
-        Book updatedBook = bookRepository.save(book);
         logger.info("Book updated successfully: {}", bookId);
         
-        return convertToBookResponse(updatedBook);
+        return response;
     }
     
     @PreAuthorize("hasRole('ADMIN') or hasRole('LIBRARIAN')")
@@ -236,9 +326,11 @@ public class BookService {
         Book book = bookRepository.findById(bookId)
                 .orElseThrow(() -> new RuntimeException("Book not found with id: " + bookId));
         
-        // Soft delete - just mark as inactive
+        // Soft delete - just mark as inactive; pending ingest would otherwise reactivate it
+        bookIngestService.cancelJobsForBook(bookId);
         book.setActive(false);
         bookRepository.save(book);
+        eventPublisher.publishEvent(CatalogChangedEvent.book(bookId));
         
         logger.info("Book deleted (deactivated) successfully: {}", bookId);
     }
@@ -251,6 +343,8 @@ public class BookService {
         Book book = bookRepository.findById(bookId)
                 .orElseThrow(() -> new RuntimeException("Book not found with id: " + bookId));
         
+        bookIngestService.cancelJobsForBook(bookId);
+        
         // Delete files from S3
         if (book.getS3Uri() != null) {
             s3Service.deleteFile(book.getS3Uri());
@@ -258,25 +352,35 @@ public class BookService {
         if (book.getCoverImageUri() != null) {
             s3Service.deleteFile(book.getCoverImageUri());
         }
+        if (book.getPreviewUri() != null) {
+            s3Service.deleteFile(book.getPreviewUri());
+        }
         
         // Delete from database
         bookRepository.delete(book);
+        eventPublisher.publishEvent(CatalogChangedEvent.book(bookId));
+        eventPublisher.publishEvent(CatalogChangedEvent.category(book.getCategory().getId()));
+        coverRenditionService.deleteIfUnreferenced(Arrays.asList(
+                book.getCoverThumbnailUri(), book.getCoverCardUri(), book.getCoverDetailUri()));
         
         logger.info("Book permanently deleted: {}", bookId);
     }
     
     // Statistics and reporting
     @PreAuthorize("hasRole('ADMIN') or hasRole('LIBRARIAN')")
+    @Transactional(readOnly = true)
     public long getTotalActiveBooks() {
         return bookRepository.countActiveBooks();
     }
     
     @PreAuthorize("hasRole('ADMIN') or hasRole('LIBRARIAN')")
+    @Transactional(readOnly = true)
     public long getTotalAvailableBooks() {
         return bookRepository.countAvailableBooks();
     }
     
     @PreAuthorize("hasRole('ADMIN') or hasRole('LIBRARIAN')")
+    @Transactional(readOnly = true)
     public List<BookResponse> getRecentlyAddedBooks(int days) {
         LocalDateTime since = LocalDateTime.now().minusDays(days);
         return bookRepository.findRecentlyAddedBooks(since)
@@ -286,6 +390,7 @@ public class BookService {
     }
     
     @PreAuthorize("hasRole('ADMIN')")
+    @Transactional(readOnly = true)
     public List<Object[]> getMostBorrowedBooks(int limit) {
         return bookRepository.findMostBorrowedBooks(org.springframework.data.domain.PageRequest.of(0, limit));
     }
@@ -304,6 +409,25 @@ public class BookService {
         return s3Service.getSecureBookUrl(book, user);
     }
     
+    // Book file for streaming through /books/{id}/content, after the same access check as getSecureBookUrl
+    @PreAuthorize("hasRole('READER') or hasRole('LIBRARIAN') or hasRole('ADMIN')")
+    public S3Service.BookContent getBookContent(Long bookId, Long userId) {
+        Book book = bookRepository.findByIdAndActiveTrue(bookId)
+                .orElseThrow(() -> new RuntimeException("Book not found with id: " + bookId));
+        
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+        
+        if (!s3Service.canUserAccessFullBook(book, user)) {
+            throw new AccessDeniedException("You need to borrow this book to read the full content");
+        }
+        if (book.getS3Uri() == null) {
+            throw new RuntimeException("Book file not available");
+        }
+        
+        return s3Service.getBookContent(book);
+    }
+    
     public String getBookCoverUrl(Long bookId) {
         logger.info("Generating cover URL for book: {}", bookId);
         
@@ -313,6 +437,70 @@ public class BookService {
         return s3Service.getCoverImageUrl(book);
     }
     
+    // Batch lookups for list pages: one query for all ids, then one pass over the URL cache.
+    // Ids that are unknown, inactive or have no file are left out of the result.
+    public Map<Long, String> getBookCoverUrls(Collection<Long> bookIds, String size) {
+        CoverRenditionService.Size rendition = size == null
+                ? CoverRenditionService.Size.THUMBNAIL : CoverRenditionService.Size.fromName(size);
+        
+        // Column of the requested rendition in findFileUrisByIdIn rows
+        int renditionColumn = switch (rendition) {
+            case THUMBNAIL -> 3;
+            case CARD -> 4;
+            case DETAIL -> 5;
+        };
+        
+        Map<Long, String> urls = new LinkedHashMap<>();
+        for (Object[] row : findFileUris(bookIds)) {
+            String renditionUri = (String) row[renditionColumn];
+            String coverImageUri = (String) row[2];
+            try {
+                if (renditionUri != null) {
+                    urls.put((Long) row[0], coverRenditionService.publicUrl(renditionUri));
+                } else if (coverImageUri != null && !coverImageUri.isEmpty()) {
+                    urls.put((Long) row[0], s3Service.generateCoverImageUrl(coverImageUri));
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Failed to resolve cover URL for book {}: {}", row[0], e.getMessage());
+            }
+        }
+        return urls;
+    }
+    
+    public Map<Long, String> getBookPreviewUrls(Collection<Long> bookIds) {
+        Map<Long, String> urls = new LinkedHashMap<>();
+        for (Object[] row : findFileUris(bookIds)) {
+            String s3Uri = (String) row[1];
+            if (s3Uri == null) {
+                continue;
+            }
+            String previewUri = (String) row[6];
+            try {
+                urls.put((Long) row[0], s3Service.generatePreviewUrl(previewUri != null ? previewUri : s3Uri));
+            } catch (RuntimeException e) {
+                logger.warn("Failed to resolve preview URL for book {}: {}", row[0], e.getMessage());
+            }
+        }
+        return urls;
+    }
+    
+    // Rows in the order the ids were requested
+    private List<Object[]> findFileUris(Collection<Long> bookIds) {
+        Set<Long> ids = new LinkedHashSet<>(bookIds);
+        ids.remove(null);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Object[]> rows = new HashMap<>();
+        for (Object[] row : bookRepository.findFileUrisByIdIn(ids)) {
+            rows.put((Long) row[0], row);
+        }
+        return ids.stream()
+                .map(rows::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+    
     public String refreshBookUrl(Long bookId, Long userId) {
         logger.info("Refreshing book URL for book: {} and user: {}", bookId, userId);
         
@@ -352,7 +540,12 @@ public class BookService {
         result.put("fileExists", metadata != null ? metadata.exists() : false);
         result.put("fileSize", metadata != null ? metadata.getFileSize() : 0);
         result.put("formattedFileSize", metadata != null ? metadata.getFormattedFileSize() : "Unknown");
+        result.put("contentType", metadata != null ? metadata.getContentType() : null);
+        result.put("sha256", metadata != null ? metadata.getSha256() : null);
+        result.put("pageCount", metadata != null ? metadata.getPageCount() : null);
+        result.put("lastVerifiedAt", metadata != null ? metadata.getLastVerifiedAt() : null);
         result.put("hasPreview", book.getS3Uri() != null && !book.getS3Uri().isEmpty());
+        result.put("previewPageCount", book.getPreviewPageCount());
         result.put("hasCover", book.getCoverImageUri() != null && !book.getCoverImageUri().isEmpty());
         
         return result;
@@ -365,7 +558,7 @@ public class BookService {
             librarianName = book.getCategory().getAssignedLibrarian().getUser().getFullName();
         }
         
-        return new BookResponse(
+        BookResponse response = new BookResponse(
             book.getId(),
             book.getTitle(),
             book.getAuthor(),
@@ -380,6 +573,9 @@ public class BookService {
             book.getCategory().getName(),
             book.getCategory().getId()
         );
+        response.setCoverUrls(coverRenditionService.getCoverUrls(book));
+        
+        return response;
     }
     
     public Book getBookEntityById(Long bookId) {
@@ -389,15 +585,26 @@ public class BookService {
     
     @Transactional
     public void decreaseAvailableCopies(Long bookId) {
-        Book book = getBookEntityById(bookId);
+        Book book = lockCopyCounts(bookId);
         book.decreaseAvailableCopies();
         bookRepository.save(book);
+        eventPublisher.publishEvent(CatalogChangedEvent.book(bookId));
     }
     
     @Transactional
     public void increaseAvailableCopies(Long bookId) {
-        Book book = getBookEntityById(bookId);
+        Book book = lockCopyCounts(bookId);
         book.increaseAvailableCopies();
         bookRepository.save(book);
+        eventPublisher.publishEvent(CatalogChangedEvent.book(bookId));
+    }
+    
+    // Callers often loaded the book earlier in the transaction, and a locking query would hand back
+    // that managed copy unchanged; refreshing it under the lock re-reads the current copy counts
+    private Book lockCopyCounts(Long bookId) {
+        Book book = bookRepository.findById(bookId)
+                .orElseThrow(() -> new RuntimeException("Book not found with id: " + bookId));
+        entityManager.refresh(book, LockModeType.PESSIMISTIC_WRITE);
+        return book;
     }
 }
\ No newline at end of file
@@ -9,6 +9,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -29,6 +30,7 @@ import com.librivault.entity.User;
 import com.librivault.entity.enums.BorrowStatus;
 import com.librivault.entity.enums.RequestStatus;
 import com.librivault.entity.enums.Role;
+import com.librivault.event.BookAccessChangedEvent;
 import com.librivault.repository.BookRepository;
 import com.librivault.repository.BorrowRecordRepository;
 import com.librivault.repository.BorrowRequestRepository;
@@ -73,6 +75,9 @@ public class BorrowingService {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Value("${app.credits.max-limit}")
     private Integer maxCreditLimit;
 
@@ -226,6 +231,7 @@ public class BorrowingService {
         // Create borrow record
         BorrowRecord borrowRecord = new BorrowRecord(reader, book, dueDate, usedCredit);
         borrowRecordRepository.save(borrowRecord);
+        eventPublisher.publishEvent(BookAccessChangedEvent.granted(reader.getId(), book.getId(), dueDate));
 
         // Decrease available copies
         bookService.decreaseAvailableCopies(book.getId());
@@ -273,6 +279,7 @@ public class BorrowingService {
         }
 
         BorrowRecord savedRecord = borrowRecordRepository.save(borrowRecord);
+        eventPublisher.publishEvent(BookAccessChangedEvent.revoked(currentUser.getId(), borrowRecord.getBook().getId()));
 
         // Increase available copies
         bookService.increaseAvailableCopies(borrowRecord.getBook().getId());
@@ -378,6 +385,7 @@ public class BorrowingService {
 
     // Query Methods
     @PreAuthorize("#userId == authentication.principal.id or hasRole('ADMIN')")
+    @Transactional(readOnly = true)
     public Page<BorrowRequestResponse> getUserBorrowRequests(Long userId, Pageable pageable) {
         logger.info("Fetching borrow requests for user: {}", userId);
         User user = userService.getUserEntityById(userId);
@@ -386,6 +394,7 @@ public class BorrowingService {
     }
 
     @PreAuthorize("hasRole('LIBRARIAN')")
+    @Transactional(readOnly = true)
     public Page<BorrowRequestResponse> getPendingRequestsForLibrarian(UserPrincipal currentUser, Pageable pageable) {
         logger.info("Fetching pending requests for librarian: {}", currentUser.getId());
         return borrowRequestRepository.findPendingRequestsForLibrarian(currentUser.getId(), pageable)
@@ -393,6 +402,7 @@ public class BorrowingService {
     }
 
     @PreAuthorize("#userId == authentication.principal.id or hasRole('ADMIN')")
+    @Transactional(readOnly = true)
     public Page<BorrowRecordResponse> getUserBorrowHistory(Long userId, Pageable pageable) {
         logger.info("Fetching borrow history for user: {}", userId);
         return borrowRecordRepository.findReaderBorrowHistory(userId, pageable)
@@ -400,6 +410,7 @@ public class BorrowingService {
     }
 
     @PreAuthorize("#userId == authentication.principal.id or hasRole('ADMIN')")
+    @Transactional(readOnly = true)
     public List<BorrowRecordResponse> getUserActiveBorrows(Long userId) {
         logger.info("Fetching active borrows for user: {}", userId);
         return borrowRecordRepository.findActiveRecordsByReader(userId)
@@ -409,6 +420,7 @@ public class BorrowingService {
     }
 
     @PreAuthorize("hasRole('LIBRARIAN') or hasRole('ADMIN')")
+    @Transactional(readOnly = true)
     public Page<BorrowRecordResponse> getOverdueRecords(Pageable pageable) {
         logger.info("Fetching overdue records");
         return borrowRecordRepository.findOverdueRecords(LocalDateTime.now(), pageable)
@@ -416,6 +428,7 @@ public class BorrowingService {
     }
 
     @PreAuthorize("hasRole('LIBRARIAN')")
+    @Transactional(readOnly = true)
     public Page<BorrowRecordResponse> getOverdueRecordsForLibrarian(UserPrincipal currentUser, Pageable pageable) {
         logger.info("Fetching overdue records for librarian: {}", currentUser.getId());
         return borrowRecordRepository.findOverdueRecordsForLibrarian(currentUser.getId(), LocalDateTime.now(), pageable)
@@ -424,6 +437,7 @@ public class BorrowingService {
 
     // Fine Management
     @PreAuthorize("#userId == authentication.principal.id or hasRole('ADMIN')")
+    @Transactional(readOnly = true)
     public List<FineResponse> getUserOutstandingFines(Long userId) {
         logger.info("Fetching outstanding fines for user: {}", userId);
         return fineRepository.findOutstandingFinesByReader(userId)
@@ -433,6 +447,7 @@ public class BorrowingService {
     }
 
     @PreAuthorize("#userId == authentication.principal.id or hasRole('ADMIN')")
+    @Transactional(readOnly = true)
     public BigDecimal getUserTotalOutstandingFines(Long userId) {
         logger.info("Calculating total outstanding fines for user: {}", userId);
         BigDecimal total = fineRepository.getTotalOutstandingFinesByReader(userId);
@@ -458,28 +473,33 @@ public class BorrowingService {
 
     // Statistics
     @PreAuthorize("hasRole('ADMIN')")
+    @Transactional(readOnly = true)
     public long getTotalActiveBorrows() {
         return borrowRecordRepository.countByStatus(BorrowStatus.ACTIVE);
     }
 
     @PreAuthorize("hasRole('ADMIN')")
+    @Transactional(readOnly = true)
     public long getTotalOverdueBooks() {
         return borrowRecordRepository.countOverdueRecords(LocalDateTime.now());
     }
 
     @PreAuthorize("hasRole('ADMIN')")
+    @Transactional(readOnly = true)
     public BigDecimal getTotalOutstandingFines() {
         BigDecimal total = fineRepository.getTotalOutstandingFines();
         return total != null ? total : BigDecimal.ZERO;
     }
 
     @PreAuthorize("hasRole('ADMIN')")
+    @Transactional(readOnly = true)
     public List<Object[]> getMostBorrowedBooks(int limit) {
         return borrowRecordRepository.findMostBorrowedBooks(
                 org.springframework.data.domain.PageRequest.of(0, limit));
     }
 
     @PreAuthorize("hasRole('ADMIN')")
+    @Transactional(readOnly = true)
     public List<Object[]> getMostActiveReaders(int limit) {
         return borrowRecordRepository.findMostActiveReaders(
                 org.springframework.data.domain.PageRequest.of(0, limit));
@@ -0,0 +1,263 @@
+package com.librivault.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.librivault.dto.book.BookResponse;
+import com.librivault.dto.book.CatalogChangesResponse;
+import com.librivault.dto.category.CategoryResponse;
+import com.librivault.entity.Book;
+import com.librivault.entity.CatalogChange;
+import com.librivault.entity.CatalogSequence;
+import com.librivault.entity.Category;
+import com.librivault.entity.enums.CatalogEntityType;
+import com.librivault.event.CatalogChangedEvent;
+import com.librivault.repository.BookRepository;
+import com.librivault.repository.CatalogChangeRepository;
+import com.librivault.repository.CatalogSequenceRepository;
+import com.librivault.repository.CategoryRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Keeps the catalog change log behind {@code GET /books/changes}. Every catalog change
+ * takes the next catalog version and logs the changed book or category in the same
+ * transaction, so clients can sync incrementally from the last version they saw.
+ * The entries are written just before the transaction commits, so the lock on the
+ * catalog version, which orders versions by commit, is only held for the commit and
+ * does not serialize the rest of concurrent catalog writes.
+ *
+ * A periodic compaction drops entries superseded by a later entry for the same entity,
+ * which keeps the log about one row per changed entity, and purges tombstones older
+ * than the retention period. Clients whose version is older than the purged
+ * tombstones are told to reload the catalog.
+ */
+@Service
+public class CatalogChangeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogChangeService.class);
+
+    @Autowired
+    private CatalogChangeRepository changeRepository;
+
+    @Autowired
+    private CatalogSequenceRepository sequenceRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.catalog.changes.max-page-size:500}")
+    private int maxPageSize;
+
+    @Value("${app.catalog.changes.tombstone-retention-days:30}")
+    private long tombstoneRetentionDays;
+
+    private TransactionTemplate writeTransaction;
+
+    private volatile LocalDateTime lastCompactionAt;
+
+    @PostConstruct
+    public void init() {
+        writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Logs the change as part of the publisher's transaction, so a change that rolls back
+     * leaves no entry. The changes of one transaction are collected and logged together
+     * right before it commits.
+     */
+    @EventListener
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            writeTransaction.executeWithoutResult(status -> record(List.of(event)));
+            return;
+        }
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.events.add(event);
+    }
+
+    // Not read-only, so it reads the primary: a replica behind the client's version would force a resync
+    @Transactional
+    public CatalogChangesResponse getChanges(long since, int limit) {
+        CatalogSequence sequence = sequenceRepository.findById(CatalogSequence.ID)
+                .orElseGet(() -> new CatalogSequence(CatalogSequence.ID));
+        long current = sequence.getVersion();
+
+        CatalogChangesResponse response = new CatalogChangesResponse(since, current);
+        if (since < sequence.getCompactedThrough() || since > current) {
+            response.setResyncRequired(true);
+            return response;
+        }
+
+        int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+        List<CatalogChange> changes = changeRepository.findChangesSince(since, PageRequest.of(0, pageSize + 1));
+        if (changes.size() > pageSize) {
+            changes = changes.subList(0, pageSize);
+            response.setHasMore(true);
+            response.setVersion(changes.get(changes.size() - 1).getVersion());
+        }
+
+        // Entries only say what changed; the response carries each entity's state now, read past
+        // this instance's entity cache, which may not have seen changes made on other instances yet
+        Set<Long> bookIds = idsOf(changes, CatalogEntityType.BOOK);
+        Set<Long> categoryIds = idsOf(changes, CatalogEntityType.CATEGORY);
+
+        List<BookResponse> books = bookIds.isEmpty() ? List.of()
+                : catalogVersionService.bypassingEntityCache(() -> bookService.getActiveBooksByIds(bookIds));
+        books.forEach(book -> bookIds.remove(book.getId()));
+        List<CategoryResponse> categories = categoryIds.isEmpty() ? List.of()
+                : catalogVersionService.bypassingEntityCache(() -> categoryService.getActiveCategoriesByIds(categoryIds));
+        categories.forEach(category -> categoryIds.remove(category.getId()));
+
+        response.setBooks(books);
+        response.setCategories(categories);
+        response.setRemovedBookIds(new ArrayList<>(bookIds));
+        response.setRemovedCategoryIds(new ArrayList<>(categoryIds));
+        return response;
+    }
+
+    public long getCurrentVersion() {
+        return sequenceRepository.findById(CatalogSequence.ID).map(CatalogSequence::getVersion).orElse(0L);
+    }
+
+    @Scheduled(cron = "${app.catalog.changes.compaction-cron:0 15 * * * ?}")
+    public void compact() {
+        // Safe at any time: a client that has not seen the dropped entry will see the later one
+        int superseded = writeTransaction.execute(status -> changeRepository.deleteSuperseded(getCurrentVersion()));
+
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(tombstoneRetentionDays);
+        int purged = writeTransaction.execute(status -> {
+            Long purgeUpTo = changeRepository.findLatestTombstoneVersionBefore(cutoff);
+            if (purgeUpTo == null) {
+                return 0;
+            }
+            CatalogSequence sequence = lockSequence();
+            int deleted = changeRepository.deleteTombstonesUpTo(purgeUpTo);
+            sequence.setCompactedThrough(Math.max(sequence.getCompactedThrough(), purgeUpTo));
+            sequenceRepository.save(sequence);
+            return deleted;
+        });
+
+        lastCompactionAt = LocalDateTime.now();
+        if (superseded > 0 || purged > 0) {
+            logger.info("Catalog change log compacted: {} superseded entries and {} tombstones removed", superseded, purged);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        CatalogSequence sequence = sequenceRepository.findById(CatalogSequence.ID)
+                .orElseGet(() -> new CatalogSequence(CatalogSequence.ID));
+        return Map.of(
+                "version", sequence.getVersion(),
+                "compactedThrough", sequence.getCompactedThrough(),
+                "entries", changeRepository.count(),
+                "lastCompactionAt", lastCompactionAt != null ? lastCompactionAt.toString() : "never");
+    }
+
+    private void record(List<CatalogChangedEvent> events) {
+        List<CatalogChange> changes = new ArrayList<>();
+        for (CatalogChangedEvent event : events) {
+            if (event.getEntityType() == CatalogEntityType.BOOK) {
+                Book book = bookRepository.findById(event.getEntityId()).orElse(null);
+                changes.add(new CatalogChange(null, CatalogEntityType.BOOK, event.getEntityId(),
+                        book == null || !Boolean.TRUE.equals(book.getActive())));
+                if (book != null && book.getCategory() != null) {
+                    // The category's book counts include this book
+                    changes.add(categoryChange(book.getCategory().getId()));
+                }
+            } else {
+                changes.add(categoryChange(event.getEntityId()));
+                if (event.isBooksAffected()) {
+                    for (Long bookId : bookRepository.findActiveIdsByCategoryId(event.getEntityId())) {
+                        changes.add(new CatalogChange(null, CatalogEntityType.BOOK, bookId, false));
+                    }
+                }
+            }
+        }
+
+        // Write the transaction's other changes first, so only the log entries and the commit follow the lock
+        changeRepository.flush();
+        CatalogSequence sequence = lockSequence();
+        long version = sequence.getVersion();
+        for (CatalogChange change : changes) {
+            change.setVersion(++version);
+        }
+        sequence.setVersion(version);
+        sequenceRepository.save(sequence);
+        changeRepository.saveAll(changes);
+    }
+
+    private CatalogChange categoryChange(Long categoryId) {
+        boolean removed = categoryRepository.findById(categoryId)
+                .map(Category::getActive)
+                .map(active -> !Boolean.TRUE.equals(active))
+                .orElse(true);
+        return new CatalogChange(null, CatalogEntityType.CATEGORY, categoryId, removed);
+    }
+
+    private CatalogSequence lockSequence() {
+        return sequenceRepository.findByIdForUpdate(CatalogSequence.ID)
+                .orElseGet(() -> sequenceRepository.save(new CatalogSequence(CatalogSequence.ID)));
+    }
+
+    // The catalog changes of one transaction, logged when it is about to commit
+    private class PendingChanges implements TransactionSynchronization {
+        private final List<CatalogChangedEvent> events = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            record(events);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResource(CatalogChangeService.this);
+        }
+    }
+
+    private static Set<Long> idsOf(List<CatalogChange> changes, CatalogEntityType type) {
+        return changes.stream()
+                .filter(change -> change.getEntityType() == type)
+                .map(CatalogChange::getEntityId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+}
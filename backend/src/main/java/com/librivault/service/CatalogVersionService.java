@@ -0,0 +1,275 @@
+package com.librivault.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
+
+import com.librivault.entity.CatalogSequence;
+import com.librivault.event.CatalogChangedEvent;
+import com.librivault.repository.BookRepository;
+import com.librivault.repository.CatalogSequenceRepository;
+import com.librivault.repository.CategoryRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Computes weak entity tags for catalog responses so unchanged pages can be answered
+ * with 304 Not Modified before they are queried.
+ *
+ * Lists and category responses share one catalog tag, derived from the catalog change
+ * version and a fingerprint of the books and categories tables (latest update, row
+ * counts, available copies), which also covers changes made outside the services. The
+ * fingerprint is the same on every instance, and is re-read at most every
+ * {@code app.catalog.etag.refresh-ms}, or right after a catalog change commits here.
+ * A single book's tag comes from its own row and its category's.
+ *
+ * The cached tag is read from the primary and only answers conditional requests.
+ * A response body may come from a read replica that is behind, so the tag sent with
+ * it is read in the body's own read-only transaction ({@link #readCatalog},
+ * {@link #readBook}); a tag newer than its body would keep clients on the stale body.
+ * Those bodies skip the second-level and query caches, which are local to each
+ * instance and may hold rows older than the tag.
+ */
+@Service
+public class CatalogVersionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogVersionService.class);
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CatalogSequenceRepository sequenceRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // How long another instance's changes can go unnoticed
+    @Value("${app.catalog.etag.refresh-ms:5000}")
+    private long refreshMillis;
+
+    private volatile String catalogEtag;
+    private volatile long refreshedAtMillis;
+
+    // One refresh at a time; a lock rather than synchronized, which would pin virtual threads during the query
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    // Bumped on every local change so a refresh that raced with it is not trusted
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final AtomicLong refreshes = new AtomicLong();
+
+    private TransactionTemplate readTransaction;
+
+    @PostConstruct
+    public void init() {
+        readTransaction = new TransactionTemplate(transactionManager);
+        readTransaction.setReadOnly(true);
+    }
+
+    /**
+     * The tag shared by catalog lists and category responses, read from the primary, or
+     * null if the catalog version cannot be read, in which case responses are sent
+     * without one. It answers conditional requests before any query runs. Responses
+     * read from the primary may carry it too: callers read it before running their
+     * query, so a change that lands in between leaves the response with an older tag
+     * and the client revalidates again later.
+     */
+    public String getCatalogEtag() {
+        String etag = catalogEtag;
+        if (etag != null && System.currentTimeMillis() - refreshedAtMillis < refreshMillis) {
+            return etag;
+        }
+        refreshLock.lock();
+        try {
+            if (catalogEtag != null && System.currentTimeMillis() - refreshedAtMillis < refreshMillis) {
+                return catalogEtag;
+            }
+            long invalidationsBeforeRefresh = invalidations.get();
+            long startedAt = System.currentTimeMillis();
+            try {
+                catalogEtag = readCatalogEtag();
+                refreshes.incrementAndGet();
+            } catch (RuntimeException e) {
+                logger.warn("Could not read the catalog version: {}", e.getMessage());
+                catalogEtag = null;
+                return null;
+            }
+            refreshedAtMillis = invalidations.get() == invalidationsBeforeRefresh ? startedAt : 0;
+            return catalogEtag;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * The version of a single active book's response, or null if the book is not
+     * active or its version cannot be read.
+     */
+    public ResourceVersion getBookVersion(Long bookId) {
+        try {
+            return readBookVersion(bookId);
+        } catch (RuntimeException e) {
+            logger.warn("Could not read the version of book {}: {}", bookId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Runs the catalog query in a read-only transaction and returns its result with the
+     * catalog tag read in the same transaction, just before the query.
+     */
+    public <T> Versioned<T> readCatalog(Supplier<T> query) {
+        return readTransaction.execute(status -> {
+            String etag = readCatalogEtag();
+            return new Versioned<>(bypassingEntityCache(query), new ResourceVersion(etag, -1));
+        });
+    }
+
+    /**
+     * Runs the query for a single book in a read-only transaction and returns its result
+     * with the book's version read in the same transaction, just before the query.
+     */
+    public <T> Versioned<T> readBook(Long bookId, Supplier<T> query) {
+        return readTransaction.execute(status -> {
+            ResourceVersion version = readBookVersion(bookId);
+            return new Versioned<>(bypassingEntityCache(query), version != null ? version : new ResourceVersion(null, -1));
+        });
+    }
+
+    /**
+     * Runs the query in the current transaction without reading the second-level or
+     * query caches, so entities come from the same database state as a tag read in
+     * that transaction. What it loads is still written back to the caches.
+     */
+    public <T> T bypassingEntityCache(Supplier<T> query) {
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode previous = session.getCacheMode();
+        session.setCacheMode(CacheMode.REFRESH);
+        try {
+            return query.get();
+        } finally {
+            session.setCacheMode(previous);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        invalidations.incrementAndGet();
+        refreshedAtMillis = 0;
+    }
+
+    public Map<String, Object> getStats() {
+        String etag = catalogEtag;
+        return Map.of(
+                "catalogEtag", etag != null ? etag : "none",
+                "refreshes", refreshes.get(),
+                "refreshMs", refreshMillis);
+    }
+
+    private String readCatalogEtag() {
+        long version = sequenceRepository.findById(CatalogSequence.ID).map(CatalogSequence::getVersion).orElse(0L);
+        String fingerprint = version
+                + "/" + fingerprint(bookRepository.findCatalogFingerprint())
+                + "/" + fingerprint(categoryRepository.findCatalogFingerprint());
+        return weakEtag("catalog", fingerprint);
+    }
+
+    private ResourceVersion readBookVersion(Long bookId) {
+        List<Object[]> rows = bookRepository.findVersionById(bookId);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        Object[] row = rows.get(0);
+        LocalDateTime bookUpdatedAt = (LocalDateTime) row[0];
+        LocalDateTime categoryUpdatedAt = (LocalDateTime) row[2];
+        LocalDateTime lastModified = bookUpdatedAt;
+        if (categoryUpdatedAt != null && (lastModified == null || categoryUpdatedAt.isAfter(lastModified))) {
+            lastModified = categoryUpdatedAt;
+        }
+        return new ResourceVersion(
+                weakEtag("book", bookId + "/" + fingerprint(row)),
+                lastModified != null ? lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1);
+    }
+
+    private static String fingerprint(List<Object[]> rows) {
+        return rows.isEmpty() ? "" : fingerprint(rows.get(0));
+    }
+
+    private static String fingerprint(Object[] values) {
+        return Arrays.stream(values).map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    private static String weakEtag(String kind, String fingerprint) {
+        return "W/\"" + kind + "-" + DigestUtils.md5DigestAsHex(fingerprint.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    public static class ResourceVersion {
+        private final String etag;
+        // Epoch millis, or -1 when unknown
+        private final long lastModified;
+
+        public ResourceVersion(String etag, long lastModified) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+    }
+
+    // A query result with the version of the data it was read from
+    public static class Versioned<T> {
+        private final T body;
+        private final ResourceVersion version;
+
+        public Versioned(T body, ResourceVersion version) {
+            this.body = body;
+            this.version = version;
+        }
+
+        public T getBody() {
+            return body;
+        }
+
+        public String getEtag() {
+            return version.getEtag();
+        }
+
+        public long getLastModified() {
+            return version.getLastModified();
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package com.librivault.service;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -16,6 +19,7 @@ import com.librivault.dto.category.CategoryRequest;
 import com.librivault.dto.category.CategoryResponse;
 import com.librivault.entity.Category;
 import com.librivault.entity.Librarian;
+import com.librivault.event.CatalogChangedEvent;
 import com.librivault.repository.BookRepository;
 import com.librivault.repository.CategoryRepository;
 import com.librivault.repository.LibrarianRepository;
@@ -34,7 +38,11 @@ public class CategoryService {
     @Autowired
     private LibrarianRepository librarianRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     // Public category browsing (no authentication required)
+    @Transactional(readOnly = true)
     public List<CategoryResponse> getAllActiveCategories() {
         logger.info("Fetching all active categories");
         return categoryRepository.findByActiveTrue()
@@ -43,12 +51,14 @@ public class CategoryService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public Page<CategoryResponse> getAllActiveCategories(Pageable pageable) {
         logger.info("Fetching all active categories with pagination");
         return categoryRepository.findByActiveTrue(pageable)
                 .map(this::convertToCategoryResponse);
     }
 
+    @Transactional(readOnly = true)
     public CategoryResponse getCategoryById(Long categoryId) {
         logger.info("Fetching category by ID: {}", categoryId);
         Category category = categoryRepository.findByIdAndActiveTrue(categoryId)
@@ -56,6 +66,7 @@ public class CategoryService {
         return convertToCategoryResponse(category);
     }
 
+    @Transactional(readOnly = true)
     public List<CategoryResponse> getCategoriesWithAvailableBooks() {
         logger.info("Fetching categories with available books");
         return categoryRepository.findCategoriesWithAvailableBooks()
@@ -64,6 +75,7 @@ public class CategoryService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<CategoryResponse> searchCategories(String search) {
         logger.info("Searching categories with query: {}", search);
         return categoryRepository.searchActiveCategories(search)
@@ -74,6 +86,7 @@ public class CategoryService {
 
     // Category management (Admin/Librarian only)
     @PreAuthorize("hasRole('ADMIN') or hasRole('LIBRARIAN')")
+    @Transactional(readOnly = true)
     public Page<CategoryResponse> getAllCategories(Pageable pageable) {
         logger.info("Fetching all categories (including inactive) with pagination");
         return categoryRepository.findAll(pageable)
@@ -96,6 +109,7 @@ public class CategoryService {
         category.setActive(true);
 
         Category savedCategory = categoryRepository.save(category);
+        eventPublisher.publishEvent(CatalogChangedEvent.category(savedCategory.getId()));
         logger.info("Category created successfully with ID: {}", savedCategory.getId());
 
         return convertToCategoryResponse(savedCategory);
@@ -115,10 +129,14 @@ public class CategoryService {
             throw new RuntimeException("Category with name '" + categoryRequest.getName() + "' already exists");
         }
 
+        boolean renamed = !category.getName().equals(categoryRequest.getName());
         category.setName(categoryRequest.getName());
         category.setDescription(categoryRequest.getDescription());
 
         Category updatedCategory = categoryRepository.save(category);
+        // Books show their category's name
+        eventPublisher.publishEvent(renamed ? CatalogChangedEvent.categoryAndBooks(categoryId)
+                : CatalogChangedEvent.category(categoryId));
         logger.info("Category updated successfully: {}", categoryId);
 
         return convertToCategoryResponse(updatedCategory);
@@ -147,6 +165,7 @@ public class CategoryService {
         // Soft delete - mark as inactive
         category.setActive(false);
         categoryRepository.save(category);
+        eventPublisher.publishEvent(CatalogChangedEvent.category(categoryId));
 
         logger.info("Category deleted (deactivated) successfully: {}", categoryId);
     }
@@ -173,6 +192,7 @@ public class CategoryService {
 
         // Delete from database
         categoryRepository.delete(category);
+        eventPublisher.publishEvent(CatalogChangedEvent.category(categoryId));
 
         logger.info("Category permanently deleted: {}", categoryId);
     }
@@ -187,6 +207,7 @@ public class CategoryService {
 
         category.setActive(true);
         categoryRepository.save(category);
+        eventPublisher.publishEvent(CatalogChangedEvent.category(categoryId));
 
         logger.info("Category activated successfully: {}", categoryId);
     }
@@ -215,6 +236,7 @@ public class CategoryService {
 
         librarian.setAssignedCategory(category);
         librarianRepository.save(librarian);
+        touch(category);
 
         logger.info("Librarian assigned successfully to category");
         return convertToCategoryResponse(category);
@@ -231,6 +253,7 @@ public class CategoryService {
         librarianRepository.findByAssignedCategory(category).ifPresent(librarian -> {
             librarian.setAssignedCategory(null);
             librarianRepository.save(librarian);
+            touch(category);
         });
 
         logger.info("Librarian removed successfully from category");
@@ -283,7 +306,24 @@ public class CategoryService {
         return convertToCategoryResponse(category);
     }
 
+    // Current state of the given categories that are active; used by catalog sync
+    @Transactional(readOnly = true)
+    public List<CategoryResponse> getActiveCategoriesByIds(Collection<Long> categoryIds) {
+        return categoryRepository.findAllById(categoryIds).stream()
+                .filter(category -> Boolean.TRUE.equals(category.getActive()))
+                .map(this::convertToCategoryResponse)
+                .collect(Collectors.toList());
+    }
+
     // Helper methods
+
+    // The assignment is stored on the librarian, but shows in the category's response
+    private void touch(Category category) {
+        category.setUpdatedAt(LocalDateTime.now());
+        categoryRepository.save(category);
+        eventPublisher.publishEvent(CatalogChangedEvent.category(category.getId()));
+    }
+
     private CategoryResponse convertToCategoryResponse(Category category) {
         String librarianName = null;
         Long librarianId = null;
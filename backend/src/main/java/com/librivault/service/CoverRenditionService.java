@@ -0,0 +1,274 @@
+package com.librivault.service;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.librivault.entity.Book;
+import com.librivault.repository.BookRepository;
+import com.librivault.storage.BookStorage;
+
+/**
+ * Produces the resized cover images shown in lists, cards and detail pages.
+ * Each rendition is stored under a key derived from the SHA-256 of its bytes,
+ * so a stored rendition never changes and can be cached by browsers and CDNs
+ * forever; a new cover simply gets new keys. Identical covers share objects,
+ * which are reference counted through {@link StoredObjectService} like book
+ * files, so a rendition is only deleted once no book refers to it.
+ *
+ * Renditions are JPEG, or PNG when the cover has transparency. The JDK has no
+ * WebP encoder, so WebP output is not produced.
+ */
+@Service
+public class CoverRenditionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CoverRenditionService.class);
+
+    private static final String KEY_PREFIX = "covers/renditions/";
+    private static final Pattern FILE_NAME = Pattern.compile("([0-9a-f]{64})-(thumbnail|card|detail)\\.(jpg|png)");
+
+    public enum Size {
+        // Largest first, so each smaller rendition is scaled from the previous one
+        DETAIL("detail", 800),
+        CARD("card", 320),
+        THUMBNAIL("thumbnail", 160);
+
+        private final String name;
+        private final int width;
+
+        Size(String name, int width) {
+            this.name = name;
+            this.width = width;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public static Size fromName(String name) {
+            for (Size size : values()) {
+                if (size.name.equalsIgnoreCase(name)) {
+                    return size;
+                }
+            }
+            throw new IllegalArgumentException("Unknown cover size: " + name);
+        }
+    }
+
+    @Autowired
+    private BookStorage bookStorage;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private StorageGarbageCollector storageGarbageCollector;
+
+    @Autowired
+    private StoredObjectService storedObjectService;
+
+    @Value("${app.covers.base-url:http://localhost:8080/api/covers}")
+    private String baseUrl;
+
+    @Value("${app.covers.jpeg-quality:0.85}")
+    private float jpegQuality;
+
+    /**
+     * Renders and stores all renditions of the cover. Returns an empty map when the
+     * image format cannot be decoded, in which case only the original is served.
+     */
+    public Map<Size, String> createRenditions(Path source) throws IOException {
+        BufferedImage image = readImage(source, Size.DETAIL.getWidth());
+        Map<Size, String> uris = new EnumMap<>(Size.class);
+        if (image == null) {
+            logger.info("No decoder for cover {}, skipping renditions", source);
+            return uris;
+        }
+
+        boolean alpha = image.getColorModel().hasAlpha();
+        try {
+            for (Size size : Size.values()) {
+                image = resize(image, size.getWidth(), alpha);
+                byte[] encoded = alpha ? encodePng(image) : encodeJpeg(image);
+                uris.put(size, store(encoded, size, alpha ? "png" : "jpg"));
+            }
+        } catch (IOException | RuntimeException e) {
+            // Give back the references already taken for the larger sizes
+            deleteIfUnreferenced(uris.values());
+            throw e;
+        }
+        return uris;
+    }
+
+    // Returns name -> URL for the book's renditions, or null if it has none yet
+    public Map<String, String> getCoverUrls(Book book) {
+        if (book.getCoverThumbnailUri() == null) {
+            return null;
+        }
+        Map<String, String> urls = new LinkedHashMap<>();
+        urls.put(Size.THUMBNAIL.getName(), publicUrl(book.getCoverThumbnailUri()));
+        urls.put(Size.CARD.getName(), publicUrl(book.getCoverCardUri()));
+        urls.put(Size.DETAIL.getName(), publicUrl(book.getCoverDetailUri()));
+        return urls;
+    }
+
+    // Stable public URL of a stored rendition
+    public String publicUrl(String uri) {
+        return baseUrl + "/" + uri.substring(uri.lastIndexOf('/') + 1);
+    }
+
+    /**
+     * Opens the rendition with the given public file name, or returns null if the name
+     * is not a rendition name. Only rendition keys can be reached this way.
+     */
+    public InputStream openRendition(String fileName) {
+        if (!FILE_NAME.matcher(fileName).matches()) {
+            return null;
+        }
+        return bookStorage.open(bookStorage.uriFor(KEY_PREFIX + fileName));
+    }
+
+    public static String contentTypeFor(String fileName) {
+        return fileName.endsWith(".png") ? "image/png" : "image/jpeg";
+    }
+
+    /**
+     * Drops one reference to each rendition and queues those nothing uses any more.
+     * Renditions stored before they were reference counted are kept while a book
+     * still points at them.
+     */
+    public void deleteIfUnreferenced(Collection<String> uris) {
+        for (String uri : uris) {
+            if (uri == null || !storedObjectService.release(uri)
+                    || bookRepository.countCoverRenditionReferences(uri) > 0) {
+                continue;
+            }
+            try {
+                // The collector checks references again before it deletes
+                storageGarbageCollector.enqueue(uri);
+            } catch (RuntimeException e) {
+                logger.warn("Failed to queue cover rendition {} for deletion: {}", uri, e.getMessage());
+            }
+        }
+    }
+
+    // Takes the reference before looking for an existing object, so the collector cannot delete a shared one in between
+    private String store(byte[] encoded, Size size, String extension) throws IOException {
+        String hash = HexFormat.of().formatHex(sha256(encoded));
+        String suffix = "-" + size.getName() + "." + extension;
+        return storedObjectService.acquire(KEY_PREFIX, suffix, hash, encoded.length, contentTypeFor(suffix),
+                () -> new ByteArrayInputStream(encoded)).getUri();
+    }
+
+    // Decodes large originals at reduced resolution, keeping at least twice the target width
+    private BufferedImage readImage(Path source, int targetWidth) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, reader.getWidth(0) / (targetWidth * 2));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Halves repeatedly before the last step, which keeps downscaled text and edges sharp
+    private static BufferedImage resize(BufferedImage source, int maxWidth, boolean alpha) {
+        int targetWidth = Math.min(maxWidth, source.getWidth());
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * (double) targetWidth / source.getWidth()));
+        int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+
+            BufferedImage next = new BufferedImage(width, height, type);
+            Graphics2D graphics = next.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            if (!alpha) {
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, width, height);
+            }
+            graphics.drawImage(current, 0, 0, width, height, null);
+            graphics.dispose();
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+
+        return current;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream imageOut = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(imageOut);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] encodePng(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private static byte[] sha256(byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.librivault.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.librivault.dto.export.BorrowRecordExportRow;
+import com.librivault.dto.export.ExportRow;
+import com.librivault.dto.export.FineExportRow;
+import com.librivault.dto.export.PaymentExportRow;
+import com.librivault.dto.export.UserExportRow;
+import com.librivault.entity.enums.BorrowStatus;
+import com.librivault.entity.enums.FineStatus;
+import com.librivault.entity.enums.PaymentStatus;
+import com.librivault.entity.enums.PaymentType;
+import com.librivault.entity.enums.Role;
+import com.librivault.repository.BorrowRecordRepository;
+import com.librivault.repository.FineRepository;
+import com.librivault.repository.PaymentRepository;
+import com.librivault.repository.UserRepository;
+
+/**
+ * Streams admin data exports straight from a forward-only JDBC cursor to the
+ * response. Rows are DTO projections, written one at a time, so memory stays
+ * flat regardless of how many rows are exported.
+ */
+@Service
+public class DataExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataExportService.class);
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final int FLUSH_INTERVAL_ROWS = 1000;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private FineRepository fineRepository;
+
+    @Autowired
+    private BorrowRecordRepository borrowRecordRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public enum ExportFormat {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        ExportFormat(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() { return contentType; }
+        public String getExtension() { return extension; }
+
+        public static ExportFormat fromString(String value) {
+            for (ExportFormat format : values()) {
+                if (format.name().equalsIgnoreCase(value) || format.extension.equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported export format: " + value);
+        }
+    }
+
+    // Export methods (each runs in its own read-only transaction so the cursor stays open while writing)
+
+    @Transactional(readOnly = true)
+    public long exportPayments(PaymentStatus status, PaymentType type, String search,
+                               LocalDateTime since, LocalDateTime until,
+                               ExportFormat format, OutputStream out) throws IOException {
+        logger.info("Exporting payments as {} (status: {}, type: {}, search: {})", format, status, type, search);
+        try (Stream<PaymentExportRow> rows = paymentRepository.streamPaymentsForExport(
+                status, type, normalizeSearch(search), since, until)) {
+            return writeRows(rows, PaymentExportRow.CSV_HEADER, format, out);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long exportFines(FineStatus status, String search, LocalDateTime since, LocalDateTime until,
+                            ExportFormat format, OutputStream out) throws IOException {
+        logger.info("Exporting fines as {} (status: {}, search: {})", format, status, search);
+        try (Stream<FineExportRow> rows = fineRepository.streamFinesForExport(
+                status, normalizeSearch(search), since, until)) {
+            return writeRows(rows, FineExportRow.CSV_HEADER, format, out);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long exportBorrowRecords(BorrowStatus status, String search, LocalDateTime since, LocalDateTime until,
+                                    ExportFormat format, OutputStream out) throws IOException {
+        logger.info("Exporting borrow records as {} (status: {}, search: {})", format, status, search);
+        try (Stream<BorrowRecordExportRow> rows = borrowRecordRepository.streamBorrowRecordsForExport(
+                status, normalizeSearch(search), since, until)) {
+            return writeRows(rows, BorrowRecordExportRow.CSV_HEADER, format, out);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long exportUsers(Role role, Boolean active, String search,
+                            ExportFormat format, OutputStream out) throws IOException {
+        logger.info("Exporting users as {} (role: {}, active: {}, search: {})", format, role, active, search);
+        try (Stream<UserExportRow> rows = userRepository.streamUsersForExport(
+                role, active, normalizeSearch(search))) {
+            return writeRows(rows, UserExportRow.CSV_HEADER, format, out);
+        }
+    }
+
+    // Helper methods
+
+    private long writeRows(Stream<? extends ExportRow> rows, String[] header,
+                           ExportFormat format, OutputStream out) throws IOException {
+        // The caller owns the output stream; we only flush it
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+
+        if (format == ExportFormat.CSV) {
+            writeCsvLine(writer, header);
+        }
+
+        long count = 0;
+        Iterator<? extends ExportRow> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            ExportRow row = iterator.next();
+            if (format == ExportFormat.CSV) {
+                writeCsvLine(writer, row.toCsvValues());
+            } else {
+                writer.write(objectMapper.writeValueAsString(row));
+                writer.write('\n');
+            }
+
+            if (++count % FLUSH_INTERVAL_ROWS == 0) {
+                writer.flush();
+            }
+        }
+
+        writer.flush();
+        logger.info("Export completed: {} rows written", count);
+        return count;
+    }
+
+    private void writeCsvLine(Writer writer, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] instanceof CharSequence text) {
+                writer.write(escapeCsv(neutralizeFormula(text.toString())));
+            } else if (values[i] != null) {
+                writer.write(escapeCsv(values[i].toString()));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    // Text starting like a formula is prefixed with ' so spreadsheets show it as text;
+    // numbers (e.g. negative amounts) are not text values and stay as they are
+    private String neutralizeFormula(String value) {
+        if (value.isEmpty()) {
+            return value;
+        }
+        char first = value.charAt(0);
+        if (first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r') {
+            return "'" + value;
+        }
+        return value;
+    }
+
+    private String escapeCsv(String value) {
+        boolean needsQuoting = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!needsQuoting) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private String normalizeSearch(String search) {
+        return StringUtils.hasText(search) ? search.trim() : null;
+    }
+}
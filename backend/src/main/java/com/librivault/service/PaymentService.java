@@ -206,6 +206,7 @@ public class PaymentService {
     
     // Payment history and management
     @PreAuthorize("#userId == authentication.principal.id or hasRole('ADMIN')")
+    @Transactional(readOnly = true)
     public Page<PaymentResponse> getUserPaymentHistory(Long userId, Pageable pageable) {
         logger.info("Fetching payment history for user: {}", userId);
         return paymentRepository.findUserPaymentHistory(userId, pageable)
@@ -213,6 +214,7 @@ public class PaymentService {
     }
     
     @PreAuthorize("#userId == authentication.principal.id or hasRole('ADMIN')")
+    @Transactional(readOnly = true)
     public Page<PaymentResponse> getUserCompletedPayments(Long userId, Pageable pageable) {
         logger.info("Fetching completed payments for user: {}", userId);
         return paymentRepository.findUserCompletedPayments(userId, pageable)
@@ -220,6 +222,7 @@ public class PaymentService {
     }
     
     @PreAuthorize("hasRole('ADMIN')")
+    @Transactional(readOnly = true)
     public Page<PaymentResponse> getAllPayments(Pageable pageable) {
         logger.info("Fetching all payments with pagination");
         return paymentRepository.findAll(pageable)
@@ -227,6 +230,7 @@ public class PaymentService {
     }
     
     @PreAuthorize("hasRole('ADMIN')")
+    @Transactional(readOnly = true)
     public Page<PaymentResponse> getPaymentsByStatus(PaymentStatus status, Pageable pageable) {
         logger.info("Fetching payments by status: {}", status);
         return paymentRepository.findByStatus(status, pageable)
@@ -234,6 +238,7 @@ public class PaymentService {
     }
     
     @PreAuthorize("hasRole('ADMIN')")
+    @Transactional(readOnly = true)
     public Page<PaymentResponse> getPaymentsByType(PaymentType type, Pageable pageable) {
         logger.info("Fetching payments by type: {}", type);
         return paymentRepository.findByType(type, pageable)
@@ -241,6 +246,7 @@ public class PaymentService {
     }
     
     @PreAuthorize("hasRole('ADMIN')")
+    @Transactional(readOnly = true)
     public Page<PaymentResponse> searchPayments(String search, PaymentStatus status, Pageable pageable) {
         logger.info("Searching payments with query: {} and status: {}", search, status);
         return paymentRepository.searchPaymentsByStatus(search, status, pageable)
@@ -0,0 +1,81 @@
+package com.librivault.service;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.librivault.util.ExpiringCache;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Reuses presigned GET URLs keyed by (object key, requested lifetime). A cached URL
+ * is handed out until it is within the safety margin of its expiry, so every caller
+ * still receives a URL that stays valid for most of the lifetime it asked for.
+ */
+@Component
+public class PresignedUrlCache {
+
+    // Fraction of the lifetime that must remain for a cached URL to be reused
+    @Value("${app.s3.presigned-url-cache.min-remaining-fraction:0.5}")
+    private double minRemainingFraction;
+
+    @Value("${app.s3.presigned-url-cache.max-size:10000}")
+    private int maxSize;
+
+    private ExpiringCache<String, CachedUrl> urls;
+
+    @PostConstruct
+    public void init() {
+        urls = new ExpiringCache<>(maxSize);
+    }
+
+    public String get(String objectKey, Duration expiration, Supplier<String> presigner) {
+        long now = System.currentTimeMillis();
+        String cacheKey = cacheKey(objectKey, expiration);
+        long safetyMarginMillis = (long) (expiration.toMillis() * minRemainingFraction);
+
+        CachedUrl cached = urls.get(cacheKey);
+        if (cached != null && cached.expiresAtMillis - now > safetyMarginMillis) {
+            return cached.url;
+        }
+        return put(cacheKey, expiration, presigner, now);
+    }
+
+    /**
+     * Always presigns a new URL, replacing any cached one for the same key and lifetime.
+     */
+    public String refresh(String objectKey, Duration expiration, Supplier<String> presigner) {
+        return put(cacheKey(objectKey, expiration), expiration, presigner, System.currentTimeMillis());
+    }
+
+    public void evict(String objectKey) {
+        String prefix = objectKey + '|';
+        urls.removeIf(key -> key.startsWith(prefix));
+    }
+
+    private String put(String cacheKey, Duration expiration, Supplier<String> presigner, long now) {
+        String url = presigner.get();
+        long expiresAtMillis = now + expiration.toMillis();
+        // Dropped once it is no longer reusable rather than when the URL expires
+        long reusableUntilMillis = expiresAtMillis - (long) (expiration.toMillis() * minRemainingFraction);
+        urls.put(cacheKey, new CachedUrl(url, expiresAtMillis), reusableUntilMillis);
+        return url;
+    }
+
+    private static String cacheKey(String objectKey, Duration expiration) {
+        return objectKey + '|' + expiration.getSeconds();
+    }
+
+    private static final class CachedUrl {
+        private final String url;
+        private final long expiresAtMillis;
+
+        private CachedUrl(String url, long expiresAtMillis) {
+            this.url = url;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.librivault.service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.librivault.entity.StorageDeletion;
+import com.librivault.entity.StoredObjectRecord;
+import com.librivault.repository.BookRepository;
+import com.librivault.repository.StorageDeletionRepository;
+import com.librivault.repository.StoredObjectRecordRepository;
+import com.librivault.storage.BookStorage;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Deletes stored objects that are no longer used. Callers only queue the URI, in
+ * their own transaction, and a scheduled drain deletes queued objects in batches
+ * (one DeleteObjects call per 1000 keys on S3), retrying failures with backoff.
+ * Before deleting, the drain skips objects that a book or a new upload started
+ * using again after they were queued.
+ *
+ * Each batch is claimed in one short transaction, which marks the reference-counted
+ * objects as being deleted, and its outcome is recorded in another. No transaction
+ * or row lock is held while storage is called.
+ *
+ * A periodic reconciliation lists the storage prefixes and queues objects that no
+ * book refers to, which reclaims files orphaned by crashes or failed deletes.
+ */
+@Service
+public class StorageGarbageCollector {
+
+    private static final Logger logger = LoggerFactory.getLogger(StorageGarbageCollector.class);
+
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final long MAX_RETRY_DELAY_SECONDS = 3600;
+
+    @Autowired
+    private StorageDeletionRepository deletionRepository;
+
+    @Autowired
+    private StoredObjectRecordRepository storedObjectRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookStorage bookStorage;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.storage.gc.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.storage.gc.max-batches-per-run:10}")
+    private int maxBatchesPerRun;
+
+    @Value("${app.storage.gc.max-attempts:10}")
+    private int maxAttempts;
+
+    @Value("${app.storage.gc.retry-delay-seconds:60}")
+    private long retryDelaySeconds;
+
+    @Value("${app.storage.gc.reconcile.prefixes:books/,covers/,previews/}")
+    private String[] reconcilePrefixes;
+
+    // Objects younger than this may belong to an upload that has not been attached to its book yet
+    @Value("${app.storage.gc.reconcile.grace-hours:24}")
+    private long reconcileGraceHours;
+
+    // A run that finds more orphans than this queues nothing, in case the database is not the one the bucket belongs to
+    @Value("${app.storage.gc.reconcile.max-orphans:1000}")
+    private int maxOrphansPerRun;
+
+    private TransactionTemplate writeTransaction;
+
+    private final AtomicLong deleted = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong orphansQueued = new AtomicLong();
+    private volatile LocalDateTime lastDrainAt;
+    private volatile LocalDateTime lastReconcileAt;
+
+    @PostConstruct
+    public void init() {
+        writeTransaction = new TransactionTemplate(transactionManager);
+        batchSize = Math.min(batchSize, MAX_BATCH_SIZE);
+    }
+
+    /**
+     * Queues the object for deletion. Joins the caller's transaction, so nothing is
+     * deleted if the change that stopped using the object rolls back.
+     */
+    public void enqueue(String uri) {
+        writeTransaction.executeWithoutResult(status ->
+                deletionRepository.save(new StorageDeletion(uri, LocalDateTime.now())));
+    }
+
+    @Scheduled(fixedDelayString = "${app.storage.gc.interval-ms:60000}",
+               initialDelayString = "${app.storage.gc.interval-ms:60000}")
+    public void drain() {
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            List<StorageDeletion> due = deletionRepository.findDue(LocalDateTime.now(), PageRequest.of(0, batchSize));
+            if (due.isEmpty()) {
+                break;
+            }
+            deleteBatch(due);
+            if (due.size() < batchSize) {
+                break;
+            }
+        }
+        lastDrainAt = LocalDateTime.now();
+    }
+
+    @Scheduled(cron = "${app.storage.gc.reconcile.cron:0 30 3 * * ?}")
+    public void reconcile() {
+        Instant cutoff = Instant.now().minus(reconcileGraceHours, ChronoUnit.HOURS);
+        List<String> orphans = new ArrayList<>();
+        List<String> candidates = new ArrayList<>();
+
+        try {
+            for (String prefix : reconcilePrefixes) {
+                bookStorage.forEachObject(prefix, (uri, lastModified) -> {
+                    if (lastModified != null && lastModified.isAfter(cutoff)) {
+                        return;
+                    }
+                    candidates.add(uri);
+                    if (candidates.size() >= MAX_BATCH_SIZE) {
+                        orphans.addAll(findUnreferenced(candidates));
+                        candidates.clear();
+                    }
+                });
+            }
+            orphans.addAll(findUnreferenced(candidates));
+        } catch (RuntimeException e) {
+            logger.warn("Storage reconciliation could not list objects: {}", e.getMessage());
+            return;
+        }
+
+        lastReconcileAt = LocalDateTime.now();
+        if (orphans.size() > maxOrphansPerRun) {
+            logger.error("Storage reconciliation found {} unreferenced objects, more than the limit of {}; " +
+                    "nothing was queued. Check the storage and database configuration, or raise " +
+                    "app.storage.gc.reconcile.max-orphans", orphans.size(), maxOrphansPerRun);
+            return;
+        }
+        if (!orphans.isEmpty()) {
+            writeTransaction.executeWithoutResult(status -> orphans.forEach(
+                    uri -> deletionRepository.save(new StorageDeletion(uri, LocalDateTime.now()))));
+            orphansQueued.addAndGet(orphans.size());
+            logger.info("Storage reconciliation queued {} unreferenced object(s) for deletion", orphans.size());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        return Map.of(
+                "queued", deletionRepository.count(),
+                "deleted", deleted.get(),
+                "skipped", skipped.get(),
+                "failed", failed.get(),
+                "orphansQueued", orphansQueued.get(),
+                "lastDrainAt", lastDrainAt != null ? lastDrainAt.toString() : "never",
+                "lastReconcileAt", lastReconcileAt != null ? lastReconcileAt.toString() : "never");
+    }
+
+    private void deleteBatch(List<StorageDeletion> due) {
+        Set<String> uris = due.stream().map(StorageDeletion::getUri).collect(Collectors.toCollection(LinkedHashSet::new));
+        Set<String> inUse = new HashSet<>();
+        Set<String> toDelete = writeTransaction.execute(status -> claim(uris, inUse));
+
+        Map<String, String> failures;
+        try {
+            failures = toDelete.isEmpty() ? Map.of() : bookStorage.deleteAll(toDelete);
+        } catch (RuntimeException e) {
+            String error = String.valueOf(e.getMessage());
+            failures = toDelete.stream().collect(Collectors.toMap(uri -> uri, uri -> error));
+        }
+
+        Map<String, String> outcome = failures;
+        writeTransaction.executeWithoutResult(status -> recordOutcome(due, toDelete, outcome));
+
+        int deletedCount = toDelete.size() - failures.size();
+        deleted.addAndGet(deletedCount);
+        skipped.addAndGet(inUse.size());
+        failed.addAndGet(failures.size());
+        if (!toDelete.isEmpty()) {
+            logger.info("Deleted {} stored object(s), {} failed, {} still in use", deletedCount, failures.size(), inUse.size());
+        }
+    }
+
+    // Returns the URIs to delete and adds those still in use to inUse
+    private Set<String> claim(Set<String> uris, Set<String> inUse) {
+        List<StoredObjectRecord> records = storedObjectRepository.findByUriInForUpdate(uris);
+        inUse.addAll(findReferencedByBooks(uris));
+        records.stream().filter(record -> record.getRefCount() > 0).forEach(record -> inUse.add(record.getUri()));
+
+        Set<String> toDelete = new LinkedHashSet<>(uris);
+        toDelete.removeAll(inUse);
+
+        LocalDateTime now = LocalDateTime.now();
+        for (StoredObjectRecord record : records) {
+            if (toDelete.contains(record.getUri())) {
+                record.setDeletingSince(now);
+                storedObjectRepository.save(record);
+            }
+        }
+        return toDelete;
+    }
+
+    private void recordOutcome(List<StorageDeletion> due, Set<String> toDelete, Map<String, String> failures) {
+        if (!toDelete.isEmpty()) {
+            for (StoredObjectRecord record : storedObjectRepository.findByUriInForUpdate(toDelete)) {
+                if (failures.containsKey(record.getUri())) {
+                    // Still there, so it can be used again until the retry
+                    record.setDeletingSince(null);
+                    storedObjectRepository.save(record);
+                } else {
+                    storedObjectRepository.delete(record);
+                }
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (StorageDeletion deletion : due) {
+            String error = failures.get(deletion.getUri());
+            if (error == null) {
+                deletionRepository.delete(deletion);
+                continue;
+            }
+            int attempts = deletion.getAttempts() + 1;
+            if (attempts >= maxAttempts) {
+                // Reconciliation queues it again if it is still there
+                logger.error("Giving up deleting {} after {} attempts: {}", deletion.getUri(), attempts, error);
+                deletionRepository.delete(deletion);
+                continue;
+            }
+            deletion.setAttempts(attempts);
+            deletion.setLastError(error.length() > 1000 ? error.substring(0, 1000) : error);
+            deletion.setNextAttemptAt(now.plusSeconds(Math.min(retryDelaySeconds << Math.min(attempts - 1, 20), MAX_RETRY_DELAY_SECONDS)));
+            deletionRepository.save(deletion);
+        }
+    }
+
+    private List<String> findUnreferenced(List<String> uris) {
+        if (uris.isEmpty()) {
+            return List.of();
+        }
+        Set<String> referenced = findReferencedByBooks(uris);
+        referenced.addAll(storedObjectRepository.findReferencedUris(uris));
+        referenced.addAll(deletionRepository.findQueuedUris(uris));
+        return uris.stream().filter(uri -> !referenced.contains(uri)).collect(Collectors.toList());
+    }
+
+    private Set<String> findReferencedByBooks(Collection<String> uris) {
+        Set<String> referenced = new HashSet<>();
+        for (Object[] row : bookRepository.findFileUrisReferencing(uris)) {
+            for (Object uri : row) {
+                if (uri != null) {
+                    referenced.add((String) uri);
+                }
+            }
+        }
+        referenced.retainAll(new HashSet<>(uris));
+        return referenced;
+    }
+}
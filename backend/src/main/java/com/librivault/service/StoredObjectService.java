@@ -0,0 +1,176 @@
+package com.librivault.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.librivault.entity.StoredObjectRecord;
+import com.librivault.repository.StoredObjectRecordRepository;
+import com.librivault.storage.BookStorage;
+import com.librivault.storage.StoredObject;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Stores book files and cover renditions once per distinct content. Objects are
+ * keyed by the SHA-256 of their bytes and reference counted in {@code stored_objects}:
+ * storing content that is already there only takes another reference, and the object
+ * is queued for deletion when the last reference is released.
+ *
+ * Reference changes take a row lock. {@code StorageGarbageCollector} marks the row
+ * under the same lock before it deletes the object, and a reference to a marked
+ * object waits until the collector has recorded whether the delete succeeded.
+ */
+@Service
+public class StoredObjectService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StoredObjectService.class);
+
+    // How long to wait for the garbage collector to finish deleting an object that is wanted again
+    private static final long DELETION_POLL_MILLIS = 250;
+    private static final int DELETION_POLL_ATTEMPTS = 40;
+
+    @Autowired
+    private StoredObjectRecordRepository repository;
+
+    @Autowired
+    private BookStorage bookStorage;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate referenceTransaction;
+    private TransactionTemplate releaseTransaction;
+
+    private final AtomicLong stored = new AtomicLong();
+    private final AtomicLong reused = new AtomicLong();
+
+    // Opens the content to store; only called when no object has it yet
+    @FunctionalInterface
+    public interface ContentSource {
+        InputStream open() throws IOException;
+    }
+
+    @PostConstruct
+    public void init() {
+        referenceTransaction = new TransactionTemplate(transactionManager);
+        referenceTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        releaseTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Takes a reference to the object with the given content, storing it under
+     * {@code keyPrefix + sha256 + extension} first if no object has it yet.
+     */
+    public StoredObject acquire(String keyPrefix, String extension, String sha256, long size,
+                                String contentType, ContentSource content) throws IOException {
+        StoredObject existing = takeReference(sha256);
+        if (existing != null) {
+            reused.incrementAndGet();
+            logger.info("Reusing stored object {} for identical content", existing.getUri());
+            return existing;
+        }
+
+        StoredObject uploaded;
+        try (InputStream in = content.open()) {
+            uploaded = bookStorage.store(keyPrefix + sha256 + extension, in, size, contentType);
+        }
+        if (!sha256.equals(uploaded.getSha256())) {
+            bookStorage.delete(uploaded.getUri());
+            throw new IllegalStateException("Content changed while it was stored (expected SHA-256 " + sha256 + ")");
+        }
+
+        try {
+            referenceTransaction.executeWithoutResult(status -> repository.save(
+                    new StoredObjectRecord(sha256, uploaded.getUri(), uploaded.getSize(), contentType)));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent upload of the same content registered first; both wrote the same bytes to the same key
+            StoredObject shared = takeReference(sha256);
+            if (shared == null) {
+                throw new IllegalStateException("Stored object " + sha256 + " was deleted while it was being stored");
+            }
+            reused.incrementAndGet();
+            return shared;
+        }
+        stored.incrementAndGet();
+        return uploaded;
+    }
+
+    /**
+     * Drops one reference to the object with this URI. Returns true when nothing uses
+     * the object any more and it should be queued for deletion, which is also the case
+     * for URIs that are not reference counted. Runs in the caller's transaction, so a
+     * change that rolls back keeps its reference.
+     */
+    public boolean release(String uri) {
+        return Boolean.TRUE.equals(releaseTransaction.execute(status -> {
+            Optional<StoredObjectRecord> found = repository.findByUriForUpdate(uri);
+            if (found.isEmpty()) {
+                return true;
+            }
+            StoredObjectRecord record = found.get();
+            int remaining = Math.max(0, record.getRefCount() - 1);
+            record.setRefCount(remaining);
+            repository.save(record);
+            if (remaining > 0) {
+                logger.info("Stored object {} still used by {} reference(s)", uri, remaining);
+                return false;
+            }
+            // The row stays until the garbage collector deletes the object, so the content can still be reused until then
+            return true;
+        }));
+    }
+
+    public Map<String, Object> getStats() {
+        return Map.of(
+                "stored", stored.get(),
+                "reused", reused.get());
+    }
+
+    // Returns null when no object has the content, including one the collector has just deleted
+    private StoredObject takeReference(String sha256) throws IOException {
+        for (int attempt = 1; ; attempt++) {
+            StoredObjectRecord record = referenceTransaction.execute(status -> addReference(sha256));
+            if (record == null) {
+                return null;
+            }
+            if (record.getDeletingSince() == null) {
+                return new StoredObject(record.getUri(), record.getSize(), record.getSha256(), record.getContentType());
+            }
+            if (attempt >= DELETION_POLL_ATTEMPTS) {
+                throw new IllegalStateException("Stored object " + record.getUri() + " is being deleted, try again later");
+            }
+            try {
+                Thread.sleep(DELETION_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for " + record.getUri() + " to be deleted");
+            }
+        }
+    }
+
+    // Leaves an object that is being deleted alone; the caller waits for the outcome
+    private StoredObjectRecord addReference(String sha256) {
+        return repository.findBySha256ForUpdate(sha256)
+                .map(record -> {
+                    if (record.getDeletingSince() == null) {
+                        record.setRefCount(record.getRefCount() + 1);
+                        repository.save(record);
+                    }
+                    return record;
+                })
+                .orElse(null);
+    }
+}
@@ -7,22 +7,29 @@ import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.librivault.dto.user.UserResponse;
 import com.librivault.entity.Category;
 import com.librivault.entity.Librarian;
 import com.librivault.entity.User;
 import com.librivault.entity.enums.Role;
+import com.librivault.event.UserAccountChangedEvent;
+import com.librivault.event.UserAccountChangedEvent.ChangeType;
 import com.librivault.repository.CategoryRepository;
 import com.librivault.repository.LibrarianRepository;
 import com.librivault.repository.UserRepository;
 
+import jakarta.annotation.PostConstruct;
+
 @Service
 public class UserService {
     
@@ -43,6 +50,19 @@ public class UserService {
     @Autowired
     private NotificationService notificationService;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private TransactionTemplate writeTransaction;
+    
+    @PostConstruct
+    public void init() {
+        writeTransaction = new TransactionTemplate(transactionManager);
+    }
+    
     // User CRUD operations
     @PreAuthorize("hasRole('ADMIN') or hasRole('LIBRARIAN')")
     public Page<UserResponse> getAllUsers(Pageable pageable) {
@@ -99,25 +119,38 @@ public class UserService {
         user.setEmail(email);
         
         User updatedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserAccountChangedEvent(userId, ChangeType.PROFILE_UPDATED));
         logger.info("Profile updated successfully for user: {}", userId);
         
         return convertToUserResponse(updatedUser);
     }
     
+    // Hashing waits for a password encoder slot, so it runs outside the transaction
     @PreAuthorize("#userId == authentication.principal.id")
-    @Transactional
     public void changePassword(Long userId, String currentPassword, String newPassword) {
         logger.info("Changing password for user: {}", userId);
         
-        User user = userRepository.findById(userId)
+        String checkedHash = userRepository.findById(userId)
+                .map(User::getPassword)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
         
-        if (!passwordEncoder.matches(currentPassword, user.getPassword())) {
+        if (!passwordEncoder.matches(currentPassword, checkedHash)) {
             throw new RuntimeException("Current password is incorrect");
         }
         
-        user.setPassword(passwordEncoder.encode(newPassword));
-        userRepository.save(user);
+        String newHash = passwordEncoder.encode(newPassword);
+        
+        writeTransaction.executeWithoutResult(status -> {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+            // The current password was verified against this hash; reject if it changed meanwhile
+            if (!checkedHash.equals(user.getPassword())) {
+                throw new RuntimeException("Password was changed concurrently, please try again");
+            }
+            user.setPassword(newHash);
+            userRepository.save(user);
+            eventPublisher.publishEvent(new UserAccountChangedEvent(userId, ChangeType.PASSWORD_CHANGED));
+        });
         
         logger.info("Password changed successfully for user: {}", userId);
     }
@@ -142,6 +175,7 @@ public class UserService {
         }
         
         User updatedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserAccountChangedEvent(userId, ChangeType.ROLE_CHANGED));
         
         // Send notification about role change
         try {
@@ -164,6 +198,7 @@ public class UserService {
         
         user.setActive(true);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserAccountChangedEvent(userId, ChangeType.ACTIVATED));
         
         logger.info("User activated successfully: {}", userId);
     }
@@ -178,6 +213,7 @@ public class UserService {
         
         user.setActive(false);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserAccountChangedEvent(userId, ChangeType.DEACTIVATED));
         
         logger.info("User deactivated successfully: {}", userId);
     }
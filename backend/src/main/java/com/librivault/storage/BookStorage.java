@@ -0,0 +1,80 @@
+package com.librivault.storage;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Backend that holds book files and cover images. Stored objects are identified by
+ * the URI returned from {@link #store}, which is what gets persisted on {@code Book}.
+ */
+public interface BookStorage {
+
+    /**
+     * Stores the content under the given key. The returned object carries the URI to
+     * persist along with the size and SHA-256 computed while the content was written.
+     */
+    StoredObject store(String key, InputStream content, long contentLength, String contentType);
+
+    /**
+     * Returns the URI an object stored under the given key has (or would have).
+     */
+    String uriFor(String key);
+
+    /**
+     * Opens the object for reading. The caller closes the stream.
+     */
+    InputStream open(String uri);
+
+    void delete(String uri);
+
+    /**
+     * Deletes the objects, in as few calls as the backend allows. Returns URI to error
+     * message for the objects that could not be deleted; objects that do not exist count
+     * as deleted.
+     */
+    default Map<String, String> deleteAll(Collection<String> uris) {
+        Map<String, String> failures = new HashMap<>();
+        for (String uri : uris) {
+            try {
+                delete(uri);
+            } catch (RuntimeException e) {
+                failures.put(uri, e.getMessage());
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * Calls the consumer with the URI and last modification time of every object whose
+     * key starts with the prefix.
+     */
+    void forEachObject(String keyPrefix, BiConsumer<String, Instant> consumer);
+
+    boolean exists(String uri);
+
+    long getSize(String uri);
+
+    /**
+     * Looks up the object's size and content type in one metadata call, or returns null
+     * if it does not exist. The SHA-256 is not included.
+     */
+    StoredObject stat(String uri);
+
+    /**
+     * Returns a URL that lets any holder download the object until it expires.
+     */
+    String generateDownloadUrl(String uri, Duration expiration);
+
+    /**
+     * Returns the object's file if this backend keeps objects on local disk, otherwise null.
+     */
+    default Path localPath(String uri) {
+        return null;
+    }
+}
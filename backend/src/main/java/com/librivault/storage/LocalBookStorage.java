@@ -0,0 +1,227 @@
+package com.librivault.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriUtils;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Stores objects under a local directory for on-prem deployments and offline runs.
+ * Object URIs have the form {@code local://key}. Download URLs point back at this
+ * application and carry an HMAC signature and expiry, so like presigned S3 URLs they
+ * work for whoever holds them until they expire.
+ */
+@Component
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "local")
+public class LocalBookStorage implements BookStorage {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalBookStorage.class);
+
+    public static final String URI_PREFIX = "local://";
+    public static final String FILES_PATH = "/storage/files/";
+
+    private static final String SIGNING_ALGORITHM = "HmacSHA256";
+
+    @Value("${app.storage.local.root-dir:./storage}")
+    private String rootDir;
+
+    @Value("${app.storage.local.base-url:http://localhost:8080/api}")
+    private String baseUrl;
+
+    @Value("${app.storage.local.url-signing-key:${jwt.secret}}")
+    private String urlSigningKey;
+
+    private Path root;
+
+    @PostConstruct
+    public void init() throws IOException {
+        root = Paths.get(rootDir).toAbsolutePath().normalize();
+        Files.createDirectories(root);
+        logger.info("Local book storage at {}", root);
+    }
+
+    @Override
+    public StoredObject store(String key, InputStream content, long contentLength, String contentType) {
+        Path target = resolve(key);
+        MessageDigest digest = newSha256();
+        long size;
+        try {
+            Files.createDirectories(target.getParent());
+            // Write next to the target and move into place so readers never see a partial file
+            Path temp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+            try {
+                size = Files.copy(new DigestInputStream(content, digest), temp, StandardCopyOption.REPLACE_EXISTING);
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store " + key, e);
+        }
+        logger.debug("Stored object: {}", target);
+        return new StoredObject(uriFor(key), size, HexFormat.of().formatHex(digest.digest()), contentType);
+    }
+
+    @Override
+    public String uriFor(String key) {
+        return URI_PREFIX + key;
+    }
+
+    @Override
+    public InputStream open(String uri) {
+        try {
+            return Files.newInputStream(resolve(extractKey(uri)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open " + uri, e);
+        }
+    }
+
+    @Override
+    public void delete(String uri) {
+        try {
+            Files.deleteIfExists(resolve(extractKey(uri)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete " + uri, e);
+        }
+    }
+
+    @Override
+    public void forEachObject(String keyPrefix, BiConsumer<String, Instant> consumer) {
+        // Walks the directory holding the prefix and filters by the full key, as S3 does
+        int slash = keyPrefix.lastIndexOf('/');
+        Path start = slash < 0 ? root : root.resolve(keyPrefix.substring(0, slash)).normalize();
+        if (!start.startsWith(root) || !Files.isDirectory(start)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(start)) {
+            files.filter(Files::isRegularFile).forEach(file -> {
+                String key = root.relativize(file).toString().replace(File.separatorChar, '/');
+                if (key.startsWith(keyPrefix)) {
+                    try {
+                        consumer.accept(uriFor(key), Files.getLastModifiedTime(file).toInstant());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Failed to read " + file, e);
+                    }
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to list " + keyPrefix, e);
+        }
+    }
+
+    @Override
+    public boolean exists(String uri) {
+        return Files.isRegularFile(resolve(extractKey(uri)));
+    }
+
+    @Override
+    public long getSize(String uri) {
+        try {
+            return Files.size(resolve(extractKey(uri)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read size of " + uri, e);
+        }
+    }
+
+    @Override
+    public StoredObject stat(String uri) {
+        Path file = resolve(extractKey(uri));
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            return new StoredObject(uri, Files.size(file), null, Files.probeContentType(file));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read metadata of " + uri, e);
+        }
+    }
+
+    @Override
+    public String generateDownloadUrl(String uri, Duration expiration) {
+        String key = extractKey(uri);
+        long expires = System.currentTimeMillis() / 1000 + expiration.getSeconds();
+        return baseUrl + FILES_PATH + UriUtils.encodePath(key, StandardCharsets.UTF_8)
+                + "?expires=" + expires + "&signature=" + sign(key, expires);
+    }
+
+    @Override
+    public Path localPath(String uri) {
+        return resolve(extractKey(uri));
+    }
+
+    /**
+     * Checks a download URL's signature and expiry and returns the file it points to.
+     */
+    public Path resolveSignedDownload(String key, long expires, String signature) {
+        if (expires < System.currentTimeMillis() / 1000) {
+            throw new SecurityException("Download link has expired");
+        }
+        byte[] expected = sign(key, expires).getBytes(StandardCharsets.US_ASCII);
+        byte[] actual = signature == null ? new byte[0] : signature.getBytes(StandardCharsets.US_ASCII);
+        if (!MessageDigest.isEqual(expected, actual)) {
+            throw new SecurityException("Invalid download signature");
+        }
+        return resolve(key);
+    }
+
+    private Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root) || path.equals(root)) {
+            throw new IllegalArgumentException("Invalid storage key: " + key);
+        }
+        return path;
+    }
+
+    private String extractKey(String uri) {
+        if (uri == null || !uri.startsWith(URI_PREFIX)) {
+            throw new IllegalArgumentException("Invalid local storage URI: " + uri);
+        }
+        return uri.substring(URI_PREFIX.length());
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private String sign(String key, long expires) {
+        try {
+            Mac mac = Mac.getInstance(SIGNING_ALGORITHM);
+            mac.init(new SecretKeySpec(urlSigningKey.getBytes(StandardCharsets.UTF_8), SIGNING_ALGORITHM));
+            byte[] signature = mac.doFinal((key + '\n' + expires).getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new IllegalStateException("Cannot sign download URL", e);
+        }
+    }
+}
@@ -0,0 +1,410 @@
+package com.librivault.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Read-through cache of stored objects on local disk, bounded by a byte budget
+ * and evicted least-recently-used first. Concurrent misses on the same object
+ * share one download. Files are named by the hash of the object URI, so the
+ * cache survives restarts; stored objects are never rewritten in place, which
+ * is what makes serving them from disk safe.
+ *
+ * Readers hold a {@link Lease} while they use a file. Eviction passes over leased
+ * files, so a file is never deleted between being looked up and being opened.
+ *
+ * Objects of a backend that already keeps them on local disk are read in place.
+ */
+@Component
+public class ObjectDiskCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ObjectDiskCache.class);
+
+    private static final String TEMP_PREFIX = ".fill-";
+
+    @Autowired
+    private BookStorage bookStorage;
+
+    @Value("${app.storage.cache.dir:./storage/object-cache}")
+    private String cacheDir;
+
+    @Value("${app.storage.cache.max-size-bytes:10737418240}")
+    private long maxSizeBytes;
+
+    private Path root;
+
+    // Access-ordered, so iteration starts at the least recently used entry; guarded by itself
+    private final LinkedHashMap<String, CachedObject> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+
+    private final Map<String, CompletableFuture<CachedObject>> inFlightFills = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong bytesFilled = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public static class CachedObject {
+        private final Path path;
+        private final long size;
+        // Open leases, and whether the entry has left the cache; guarded by the entries lock
+        private int leases;
+        private boolean removed;
+
+        CachedObject(Path path, long size) {
+            this.path = path;
+            this.size = size;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        public long getSize() {
+            return size;
+        }
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        root = Paths.get(cacheDir).toAbsolutePath().normalize();
+        Files.createDirectories(root);
+
+        // Re-index what is already on disk, oldest first so recently used files stay longest
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> stream = Files.walk(root)) {
+            stream.filter(Files::isRegularFile).forEach(files::add);
+        }
+        files.sort(Comparator.comparingLong(ObjectDiskCache::lastModified));
+        synchronized (entries) {
+            for (Path file : files) {
+                if (file.getFileName().toString().startsWith(TEMP_PREFIX)) {
+                    Files.deleteIfExists(file);
+                    continue;
+                }
+                long size = Files.size(file);
+                entries.put(file.getFileName().toString(), new CachedObject(file, size));
+                totalBytes += size;
+            }
+        }
+        evictToBudget();
+        logger.info("Object disk cache at {} holding {} files ({} bytes, budget {})",
+                root, entries.size(), totalBytes, maxSizeBytes);
+    }
+
+    /**
+     * A cached file that stays on disk until the lease is closed. Once the caller has
+     * opened the file, closing the lease is safe: open readers keep the file's data.
+     */
+    public final class Lease implements AutoCloseable {
+        private final CachedObject object;
+        private final boolean cacheEntry;
+
+        private Lease(CachedObject object, boolean cacheEntry) {
+            this.object = object;
+            this.cacheEntry = cacheEntry;
+        }
+
+        public Path getPath() {
+            return object.getPath();
+        }
+
+        public long getSize() {
+            return object.getSize();
+        }
+
+        // False for the storage backend's own files, which the cache never deletes
+        public boolean isCacheEntry() {
+            return cacheEntry;
+        }
+
+        @Override
+        public void close() {
+            if (cacheEntry) {
+                release(object);
+            }
+        }
+    }
+
+    /**
+     * Returns the object as a local file, downloading it first on a miss. The file is
+     * not evicted before the returned lease is closed.
+     */
+    public Lease acquire(String uri) {
+        Path local = bookStorage.localPath(uri);
+        if (local != null) {
+            return new Lease(new CachedObject(local, sizeOf(local)), false);
+        }
+        while (true) {
+            CachedObject cached = get(uri);
+            synchronized (entries) {
+                // Evicted between the lookup and now: look it up again, which downloads it anew
+                if (!cached.removed) {
+                    cached.leases++;
+                    return new Lease(cached, true);
+                }
+            }
+        }
+    }
+
+    private CachedObject get(String uri) {
+        String name = cacheName(uri);
+        CachedObject cached;
+        synchronized (entries) {
+            cached = entries.get(name);
+        }
+        if (cached != null && Files.isRegularFile(cached.getPath())) {
+            hits.incrementAndGet();
+            touch(cached.getPath());
+            return cached;
+        }
+
+        misses.incrementAndGet();
+        CompletableFuture<CachedObject> fill = new CompletableFuture<>();
+        CompletableFuture<CachedObject> existing = inFlightFills.putIfAbsent(name, fill);
+        if (existing != null) {
+            // Someone else is already downloading this object; wait for their copy
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException runtime ? runtime : e;
+            }
+        }
+
+        try {
+            CachedObject filled = fill(uri, name);
+            fill.complete(filled);
+            return filled;
+        } catch (RuntimeException e) {
+            fill.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightFills.remove(name);
+        }
+    }
+
+    /**
+     * Maps a byte range of the object into memory. The mapping stays valid after the
+     * cache evicts the file, so callers can use it for as long as they hold it.
+     */
+    public ByteBuffer map(String uri, long position, long length) {
+        try (Lease lease = acquire(uri);
+             FileChannel channel = FileChannel.open(lease.getPath(), StandardOpenOption.READ)) {
+            long count = clampLength(lease.getSize(), position, length);
+            return channel.map(FileChannel.MapMode.READ_ONLY, position, count);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map " + uri, e);
+        }
+    }
+
+    /**
+     * Copies a byte range of the object to the target with {@link FileChannel#transferTo},
+     * which avoids copying through the heap when the target is a socket or file.
+     */
+    public long transferTo(String uri, long position, long count, WritableByteChannel target) throws IOException {
+        try (Lease lease = acquire(uri);
+             FileChannel channel = FileChannel.open(lease.getPath(), StandardOpenOption.READ)) {
+            long remaining = clampLength(lease.getSize(), position, count);
+            long transferred = 0;
+            while (transferred < remaining) {
+                long written = channel.transferTo(position + transferred, remaining - transferred, target);
+                if (written <= 0) {
+                    break;
+                }
+                transferred += written;
+            }
+            return transferred;
+        }
+    }
+
+    public void evict(String uri) {
+        String name = cacheName(uri);
+        CachedObject removed;
+        synchronized (entries) {
+            removed = entries.remove(name);
+            if (removed == null) {
+                return;
+            }
+            totalBytes -= removed.getSize();
+            removed.removed = true;
+            if (removed.leases > 0) {
+                // The last lease deletes it
+                return;
+            }
+        }
+        deleteQuietly(removed.getPath());
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long lookups = hitCount + missCount;
+        int files;
+        long bytes;
+        synchronized (entries) {
+            files = entries.size();
+            bytes = totalBytes;
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("files", files);
+        stats.put("sizeBytes", bytes);
+        stats.put("maxSizeBytes", maxSizeBytes);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", lookups == 0 ? 0.0 : (double) hitCount / lookups);
+        stats.put("bytesFilled", bytesFilled.get());
+        stats.put("evictions", evictions.get());
+        stats.put("fillsInFlight", inFlightFills.size());
+        return stats;
+    }
+
+    private CachedObject fill(String uri, String name) {
+        Path target = root.resolve(name.substring(0, 2)).resolve(name);
+        try {
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), TEMP_PREFIX, ".tmp");
+            try {
+                try (InputStream in = bookStorage.open(uri)) {
+                    Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+                }
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+
+            long size = Files.size(target);
+            CachedObject cached = new CachedObject(target, size);
+            synchronized (entries) {
+                CachedObject previous = entries.put(name, cached);
+                if (previous != null) {
+                    previous.removed = true;
+                    totalBytes -= previous.getSize();
+                }
+                totalBytes += size;
+            }
+            bytesFilled.addAndGet(size);
+            evictToBudget();
+            return cached;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to cache " + uri, e);
+        }
+    }
+
+    private void evictToBudget() {
+        List<Path> victims = new ArrayList<>();
+        synchronized (entries) {
+            Iterator<CachedObject> iterator = entries.values().iterator();
+            while (totalBytes > maxSizeBytes && iterator.hasNext()) {
+                CachedObject victim = iterator.next();
+                // Keep the most recent entry even if it alone exceeds the budget; it is being read now
+                if (!iterator.hasNext()) {
+                    break;
+                }
+                if (victim.leases > 0) {
+                    continue;
+                }
+                iterator.remove();
+                victim.removed = true;
+                totalBytes -= victim.getSize();
+                victims.add(victim.getPath());
+            }
+        }
+        // Readers that opened the file before their lease ended keep their handle or mapping
+        victims.forEach(ObjectDiskCache::deleteQuietly);
+        evictions.addAndGet(victims.size());
+    }
+
+    private void release(CachedObject cached) {
+        synchronized (entries) {
+            cached.leases--;
+            // Explicitly evicted while leased, and not downloaded again under the same name since
+            if (cached.leases > 0 || !cached.removed
+                    || entries.containsKey(cached.getPath().getFileName().toString())) {
+                return;
+            }
+        }
+        deleteQuietly(cached.getPath());
+    }
+
+    private static long clampLength(long size, long position, long length) {
+        if (position < 0 || position > size) {
+            throw new IllegalArgumentException("Position " + position + " outside object of " + size + " bytes");
+        }
+        return Math.min(length, size - position);
+    }
+
+    private static String cacheName(String uri) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(uri.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // Modification time doubles as last access time so LRU order survives a restart
+    private static void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            logger.debug("Could not update access time of {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read size of " + file, e);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Failed to delete cached file {}: {}", file, e.getMessage());
+        }
+    }
+}
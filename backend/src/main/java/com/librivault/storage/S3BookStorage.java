@@ -0,0 +1,260 @@
+package com.librivault.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.Delete;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Error;
+import software.amazon.awssdk.services.s3.model.S3Object;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
+
+/**
+ * Stores objects in the configured S3 bucket and hands out presigned GET URLs.
+ * Object URIs have the form {@code s3://bucket/key}.
+ */
+@Component
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "s3", matchIfMissing = true)
+public class S3BookStorage implements BookStorage {
+
+    private static final Logger logger = LoggerFactory.getLogger(S3BookStorage.class);
+
+    private static final int DELETE_BATCH_SIZE = 1000;
+
+    // AwsConfig does not create a client when S3 is disabled or credentials are missing
+    @Autowired(required = false)
+    private S3Client s3Client;
+
+    @Autowired
+    private S3Presigner s3Presigner;
+
+    @Autowired
+    private S3MultipartUploader multipartUploader;
+
+    @Value("${aws.s3.bucket-name}")
+    private String bucketName;
+
+    @Value("${app.storage.s3.multipart.threshold-bytes:16777216}")
+    private long multipartThreshold;
+
+    @Override
+    public StoredObject store(String key, InputStream content, long contentLength, String contentType) {
+        // Large files go through the parallel, resumable multipart path
+        if (contentLength >= multipartThreshold) {
+            return multipartUploader.upload(key, content, contentLength, contentType);
+        }
+
+        // Small files are buffered (bounded by the threshold) so the SDK can retry the PUT safely
+        byte[] data;
+        try {
+            data = content.readNBytes((int) contentLength);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read upload content", e);
+        }
+        byte[] sha256 = sha256(data);
+
+        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .contentLength((long) data.length)
+                .checksumSHA256(Base64.getEncoder().encodeToString(sha256))
+                .build();
+
+        client().putObject(putObjectRequest, RequestBody.fromBytes(data));
+
+        String s3Uri = uriFor(key);
+        logger.debug("Stored object: {}", s3Uri);
+        return new StoredObject(s3Uri, data.length, HexFormat.of().formatHex(sha256), contentType);
+    }
+
+    @Override
+    public String uriFor(String key) {
+        return String.format("s3://%s/%s", bucketName, key);
+    }
+
+    @Override
+    public InputStream open(String uri) {
+        GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(extractKey(uri))
+                .build();
+
+        return client().getObject(getObjectRequest);
+    }
+
+    @Override
+    public void delete(String uri) {
+        DeleteObjectRequest deleteObjectRequest = DeleteObjectRequest.builder()
+                .bucket(bucketName)
+                .key(extractKey(uri))
+                .build();
+
+        client().deleteObject(deleteObjectRequest);
+    }
+
+    // DeleteObjects takes up to 1000 keys per call
+    @Override
+    public Map<String, String> deleteAll(Collection<String> uris) {
+        Map<String, String> failures = new HashMap<>();
+        Map<String, String> uriByKey = new LinkedHashMap<>();
+        for (String uri : uris) {
+            try {
+                uriByKey.put(extractKey(uri), uri);
+            } catch (IllegalArgumentException e) {
+                failures.put(uri, e.getMessage());
+            }
+        }
+
+        List<String> keys = new ArrayList<>(uriByKey.keySet());
+        for (int from = 0; from < keys.size(); from += DELETE_BATCH_SIZE) {
+            List<String> batch = keys.subList(from, Math.min(from + DELETE_BATCH_SIZE, keys.size()));
+            DeleteObjectsRequest request = DeleteObjectsRequest.builder()
+                    .bucket(bucketName)
+                    .delete(Delete.builder()
+                            .objects(batch.stream().map(key -> ObjectIdentifier.builder().key(key).build()).toList())
+                            .quiet(true)
+                            .build())
+                    .build();
+            try {
+                // Quiet mode only reports the keys that failed
+                for (S3Error error : client().deleteObjects(request).errors()) {
+                    failures.put(uriByKey.get(error.key()), error.code() + ": " + error.message());
+                }
+            } catch (RuntimeException e) {
+                batch.forEach(key -> failures.put(uriByKey.get(key), e.getMessage()));
+            }
+        }
+        return failures;
+    }
+
+    @Override
+    public void forEachObject(String keyPrefix, BiConsumer<String, Instant> consumer) {
+        ListObjectsV2Request request = ListObjectsV2Request.builder()
+                .bucket(bucketName)
+                .prefix(keyPrefix)
+                .build();
+
+        for (S3Object object : client().listObjectsV2Paginator(request).contents()) {
+            consumer.accept(uriFor(object.key()), object.lastModified());
+        }
+    }
+
+    @Override
+    public boolean exists(String uri) {
+        try {
+            headObject(uri);
+            return true;
+        } catch (NoSuchKeyException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public long getSize(String uri) {
+        return headObject(uri).contentLength();
+    }
+
+    @Override
+    public StoredObject stat(String uri) {
+        try {
+            HeadObjectResponse head = headObject(uri);
+            return new StoredObject(uri, head.contentLength(), null, head.contentType());
+        } catch (NoSuchKeyException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String generateDownloadUrl(String uri, Duration expiration) {
+        GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(extractKey(uri))
+                .build();
+
+        GetObjectPresignRequest presignRequest = GetObjectPresignRequest.builder()
+                .signatureDuration(expiration)
+                .getObjectRequest(getObjectRequest)
+                .build();
+
+        PresignedGetObjectRequest presignedRequest = s3Presigner.presignGetObject(presignRequest);
+        return presignedRequest.url().toString();
+    }
+
+    public String getBucketName() {
+        return bucketName;
+    }
+
+    private HeadObjectResponse headObject(String uri) {
+        HeadObjectRequest headObjectRequest = HeadObjectRequest.builder()
+                .bucket(bucketName)
+                .key(extractKey(uri))
+                .build();
+
+        return client().headObject(headObjectRequest);
+    }
+
+    private static byte[] sha256(byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private S3Client client() {
+        if (s3Client == null) {
+            throw new IllegalStateException("S3 storage is not configured (set aws.s3.enabled and AWS credentials, or app.storage.type=local)");
+        }
+        return s3Client;
+    }
+
+    private String extractKey(String s3Uri) {
+        if (s3Uri == null || !s3Uri.startsWith("s3://")) {
+            throw new IllegalArgumentException("Invalid S3 URI: " + s3Uri);
+        }
+
+        // Remove s3://bucket-name/ prefix
+        String withoutProtocol = s3Uri.substring(5);
+        int firstSlashIndex = withoutProtocol.indexOf('/');
+
+        if (firstSlashIndex == -1) {
+            throw new IllegalArgumentException("Invalid S3 URI format: " + s3Uri);
+        }
+
+        return withoutProtocol.substring(firstSlashIndex + 1);
+    }
+}
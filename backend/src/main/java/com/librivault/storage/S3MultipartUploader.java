@@ -0,0 +1,338 @@
+package com.librivault.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.librivault.entity.MultipartUploadSession;
+import com.librivault.repository.MultipartUploadSessionRepository;
+
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.ChecksumAlgorithm;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.ListPartsRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchUploadException;
+import software.amazon.awssdk.services.s3.model.Part;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Streams large files to S3 as multipart uploads. Parts are read sequentially from
+ * the source, hashed, and uploaded concurrently; a semaphore caps the number of part
+ * buffers alive at once, so memory per upload is bounded by
+ * {@code max-parts-in-flight * part-size}.
+ *
+ * Every upload is recorded as a {@link MultipartUploadSession}. If it is interrupted,
+ * the next upload of the same file (same size and first part) finds the session and
+ * skips every part whose SHA-256 matches one already stored in S3.
+ */
+@Component
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "s3", matchIfMissing = true)
+public class S3MultipartUploader {
+
+    private static final Logger logger = LoggerFactory.getLogger(S3MultipartUploader.class);
+
+    @Autowired
+    private MultipartUploadSessionRepository sessionRepository;
+
+    @Value("${app.storage.s3.multipart.part-size-bytes:8388608}")
+    private long partSize;
+
+    @Value("${app.storage.s3.multipart.max-parts-in-flight:4}")
+    private int maxPartsInFlight;
+
+    @Value("${app.storage.s3.multipart.session-lease-minutes:30}")
+    private long sessionLeaseMinutes;
+
+    @Value("${app.storage.s3.multipart.stale-session-hours:24}")
+    private long staleSessionHours;
+
+    private final ExecutorService partUploadExecutor;
+
+    @Autowired(required = false)
+    private S3Client s3Client;
+
+    @Value("${aws.s3.bucket-name}")
+    private String bucketName;
+
+    public S3MultipartUploader(@Value("${app.storage.s3.multipart.threads:8}") int threads) {
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        this.partUploadExecutor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "s3-part-upload-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public StoredObject upload(String key, InputStream content, long contentLength, String contentType) {
+        // Each permit is one part buffer, held from the moment it is filled until the part is in S3
+        Semaphore buffers = new Semaphore(maxPartsInFlight);
+        MessageDigest fileDigest = sha256();
+
+        buffers.acquireUninterruptibly();
+        byte[] partData = readPart(content, contentLength, buffers);
+        UploadTarget target = resumeOrStart(fingerprint(key, contentLength, partData), key, contentLength, contentType);
+
+        List<CompletableFuture<CompletedPart>> parts = new ArrayList<>();
+        long bytesRead = 0;
+        int partNumber = 1;
+
+        try {
+            while (true) {
+                bytesRead += partData.length;
+                fileDigest.update(partData);
+                parts.add(submitPart(target, partNumber, partData, buffers));
+
+                if (bytesRead >= contentLength) {
+                    break;
+                }
+                buffers.acquireUninterruptibly();
+                partData = readPart(content, contentLength - bytesRead, buffers);
+                if (partData.length == 0) {
+                    buffers.release();
+                    throw new IllegalStateException("Upload ended after " + bytesRead + " of " + contentLength + " bytes");
+                }
+                partNumber++;
+            }
+
+            List<CompletedPart> completedParts = new ArrayList<>();
+            for (CompletableFuture<CompletedPart> part : parts) {
+                completedParts.add(part.join());
+            }
+            completedParts.sort(Comparator.comparing(CompletedPart::partNumber));
+
+            client().completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(target.session.getObjectKey())
+                    .uploadId(target.session.getUploadId())
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+                    .build());
+            sessionRepository.deleteById(target.session.getId());
+
+            logger.info("Multipart upload of {} completed: {} parts, {} reused from an earlier attempt",
+                    target.session.getObjectKey(), completedParts.size(), target.reusedParts.get());
+
+            String s3Uri = String.format("s3://%s/%s", bucketName, target.session.getObjectKey());
+            return new StoredObject(s3Uri, bytesRead, HexFormat.of().formatHex(fileDigest.digest()), contentType);
+        } catch (RuntimeException e) {
+            parts.forEach(part -> part.cancel(false));
+            // Keep the session and its uploaded parts so a retry can resume; stale sessions are aborted on a schedule
+            sessionRepository.releaseLease(target.session.getId());
+            logger.warn("Multipart upload of {} interrupted after {} bytes; uploading the same file again resumes it",
+                    target.session.getObjectKey(), bytesRead);
+            throw e instanceof CompletionException && e.getCause() instanceof RuntimeException
+                    ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    @Scheduled(cron = "${app.storage.s3.multipart.cleanup-cron:0 15 * * * ?}")
+    public void abortStaleUploads() {
+        if (s3Client == null) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(staleSessionHours);
+        for (MultipartUploadSession session : sessionRepository.findByCreatedAtBefore(cutoff)) {
+            if (sessionRepository.acquireLease(session.getId(), LocalDateTime.now().plusMinutes(sessionLeaseMinutes), LocalDateTime.now()) == 0) {
+                continue;
+            }
+            try {
+                s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                        .bucket(bucketName)
+                        .key(session.getObjectKey())
+                        .uploadId(session.getUploadId())
+                        .build());
+            } catch (NoSuchUploadException e) {
+                logger.debug("Multipart upload {} was already gone", session.getUploadId());
+            } catch (Exception e) {
+                logger.warn("Failed to abort stale multipart upload of {}", session.getObjectKey(), e);
+                sessionRepository.releaseLease(session.getId());
+                continue;
+            }
+            sessionRepository.deleteById(session.getId());
+            logger.info("Aborted stale multipart upload of {}", session.getObjectKey());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        partUploadExecutor.shutdown();
+    }
+
+    // Upload steps
+
+    private UploadTarget resumeOrStart(String fingerprint, String key, long contentLength, String contentType) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseUntil = now.plusMinutes(sessionLeaseMinutes);
+
+        Optional<MultipartUploadSession> existing = sessionRepository.findByFingerprint(fingerprint);
+        if (existing.isPresent()) {
+            MultipartUploadSession session = existing.get();
+            if (!key.equals(session.getObjectKey())) {
+                // Completing the session would write the object under another key than the caller asked for
+                throw new IllegalStateException("Upload session " + session.getUploadId() + " belongs to " + session.getObjectKey() + ", not " + key);
+            }
+            if (sessionRepository.acquireLease(session.getId(), leaseUntil, now) == 0) {
+                throw new IllegalStateException("The same file is already being uploaded, please retry later");
+            }
+            try {
+                Map<Integer, Part> uploadedParts = listUploadedParts(session);
+                logger.info("Resuming multipart upload of {} with {} parts already in S3", session.getObjectKey(), uploadedParts.size());
+                return new UploadTarget(session, uploadedParts);
+            } catch (NoSuchUploadException e) {
+                logger.info("Multipart upload {} no longer exists in S3, starting over", session.getUploadId());
+                sessionRepository.deleteById(session.getId());
+            }
+        }
+
+        String uploadId = client().createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .checksumAlgorithm(ChecksumAlgorithm.SHA256)
+                .build()).uploadId();
+
+        try {
+            MultipartUploadSession session = sessionRepository.save(
+                    new MultipartUploadSession(fingerprint, key, uploadId, partSize, contentLength, leaseUntil));
+            return new UploadTarget(session, new HashMap<>());
+        } catch (DataIntegrityViolationException e) {
+            // Another upload of the same file registered its session first
+            abortQuietly(key, uploadId);
+            throw new IllegalStateException("The same file is already being uploaded, please retry later", e);
+        }
+    }
+
+    private CompletableFuture<CompletedPart> submitPart(UploadTarget target, int partNumber, byte[] data, Semaphore buffers) {
+        String checksum = Base64.getEncoder().encodeToString(sha256().digest(data));
+
+        Part uploaded = target.uploadedParts.get(partNumber);
+        if (uploaded != null && checksum.equals(uploaded.checksumSHA256()) && uploaded.size() == data.length) {
+            target.reusedParts.incrementAndGet();
+            buffers.release();
+            return CompletableFuture.completedFuture(CompletedPart.builder()
+                    .partNumber(partNumber)
+                    .eTag(uploaded.eTag())
+                    .checksumSHA256(checksum)
+                    .build());
+        }
+
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                UploadPartResponse response = client().uploadPart(UploadPartRequest.builder()
+                        .bucket(bucketName)
+                        .key(target.session.getObjectKey())
+                        .uploadId(target.session.getUploadId())
+                        .partNumber(partNumber)
+                        .contentLength((long) data.length)
+                        .checksumSHA256(checksum)
+                        .build(), RequestBody.fromBytes(data));
+                return CompletedPart.builder()
+                        .partNumber(partNumber)
+                        .eTag(response.eTag())
+                        .checksumSHA256(checksum)
+                        .build();
+            } finally {
+                buffers.release();
+            }
+        }, partUploadExecutor);
+    }
+
+    private Map<Integer, Part> listUploadedParts(MultipartUploadSession session) {
+        Map<Integer, Part> parts = new HashMap<>();
+        client().listPartsPaginator(ListPartsRequest.builder()
+                        .bucket(bucketName)
+                        .key(session.getObjectKey())
+                        .uploadId(session.getUploadId())
+                        .build())
+                .parts()
+                .forEach(part -> parts.put(part.partNumber(), part));
+        return parts;
+    }
+
+    private void abortQuietly(String key, String uploadId) {
+        try {
+            client().abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucketName).key(key).uploadId(uploadId).build());
+        } catch (Exception e) {
+            logger.warn("Failed to abort multipart upload of {}", key, e);
+        }
+    }
+
+    // Helper methods
+
+    private S3Client client() {
+        if (s3Client == null) {
+            throw new IllegalStateException("S3 storage is not configured (set aws.s3.enabled and AWS credentials, or app.storage.type=local)");
+        }
+        return s3Client;
+    }
+
+    private byte[] readPart(InputStream content, long remaining, Semaphore buffers) {
+        try {
+            return content.readNBytes((int) Math.min(partSize, Math.max(0, remaining)));
+        } catch (IOException e) {
+            buffers.release();
+            throw new UncheckedIOException("Failed to read upload content", e);
+        }
+    }
+
+    private static String fingerprint(String key, long contentLength, byte[] firstPart) {
+        MessageDigest digest = sha256();
+        digest.update((key + ':' + contentLength + ':').getBytes(StandardCharsets.UTF_8));
+        digest.update(firstPart);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class UploadTarget {
+        private final MultipartUploadSession session;
+        private final Map<Integer, Part> uploadedParts;
+        private final AtomicInteger reusedParts = new AtomicInteger();
+
+        private UploadTarget(MultipartUploadSession session, Map<Integer, Part> uploadedParts) {
+            this.session = session;
+            this.uploadedParts = uploadedParts;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.librivault.storage;
+
+/**
+ * Result of storing a file: where it lives and what was written.
+ */
+public class StoredObject {
+
+    private final String uri;
+    private final long size;
+    private final String sha256;
+    private final String contentType;
+
+    public StoredObject(String uri, long size, String sha256, String contentType) {
+        this.uri = uri;
+        this.size = size;
+        this.sha256 = sha256;
+        this.contentType = contentType;
+    }
+
+    public String getUri() {
+        return uri;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    // Lowercase hex SHA-256 of the stored bytes
+    public String getSha256() {
+        return sha256;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+}
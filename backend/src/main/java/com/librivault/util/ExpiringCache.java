@@ -0,0 +1,85 @@
+package com.librivault.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+/**
+ * Size-bounded in-memory cache (Caffeine) whose entries each expire at their own time.
+ * When full, it evicts the entries least likely to be used again (recency and frequency)
+ * to make room, so new entries are still cached; no lookup scans the whole cache.
+ */
+public final class ExpiringCache<K, V> {
+
+    private final Cache<K, Entry<V>> cache;
+
+    public ExpiringCache(long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new EntryExpiry<K, V>())
+                .build();
+    }
+
+    /**
+     * The cached value, or null if there is none or it has expired.
+     */
+    public V get(K key) {
+        Entry<V> entry = cache.getIfPresent(key);
+        return entry != null ? entry.value : null;
+    }
+
+    public void put(K key, V value, long expiresAtMillis) {
+        if (expiresAtMillis > System.currentTimeMillis()) {
+            cache.put(key, new Entry<>(value, expiresAtMillis));
+        } else {
+            cache.invalidate(key);
+        }
+    }
+
+    public void remove(K key) {
+        cache.invalidate(key);
+    }
+
+    public void removeIf(Predicate<? super K> keyFilter) {
+        cache.asMap().keySet().removeIf(keyFilter);
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAtMillis;
+
+        private Entry(V value, long expiresAtMillis) {
+            this.value = value;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    private static final class EntryExpiry<K, V> implements Expiry<K, Entry<V>> {
+
+        @Override
+        public long expireAfterCreate(K key, Entry<V> entry, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, entry.expiresAtMillis - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(K key, Entry<V> entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(K key, Entry<V> entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}